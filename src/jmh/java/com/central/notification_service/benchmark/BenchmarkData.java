@@ -0,0 +1,93 @@
+package com.central.notification_service.benchmark;
+
+import com.central.notification_service.model.EventSource;
+import com.central.notification_service.model.Notification;
+import com.central.notification_service.model.NotificationChannel;
+import com.central.notification_service.model.NotificationType;
+import com.central.notification_service.utils.SnowflakeIdGenerator;
+import com.google.protobuf.Timestamp;
+import notification.events.RewardEvent;
+import notification.events.RewardType;
+import notification.events.TransactionEvent;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Realistic payloads shared by the benchmarks, shaped like the events produced by the transaction service.
+ */
+public final class BenchmarkData {
+
+    /**
+     * Node id of the generators of the database benchmarks: the highest one, which replicas leasing node ids take
+     * last.
+     */
+    public static final long NODE_ID = SnowflakeIdGenerator.MAX_NODE_ID;
+
+    private BenchmarkData() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    public static TransactionEvent transactionEvent() {
+        Timestamp now = timestamp(Instant.now());
+        return TransactionEvent.newBuilder()
+                .setTransactionId(UUID.randomUUID().toString())
+                .setSenderId(UUID.randomUUID().toString())
+                .setReceiverId(UUID.randomUUID().toString())
+                .setAmount(1249.37)
+                .setStatus("COMPLETED")
+                .setCreatedAt(now)
+                .setUpdatedAt(now)
+                .build();
+    }
+
+    public static RewardEvent rewardEvent() {
+        return RewardEvent.newBuilder()
+                .setRewardId(UUID.randomUUID().toString())
+                .setTransactionId(UUID.randomUUID().toString())
+                .setUserId(UUID.randomUUID().toString())
+                .setRewardType(RewardType.CASHBACK)
+                .setRewardValue(12.49)
+                .setRewardDescription("1% cashback on peer-to-peer transfers above $1000")
+                .setTransactionAmount(1249.37)
+                .setCreatedAt(timestamp(Instant.now()))
+                .setNotificationMessage("You earned $12.49 cashback on your last transfer. Keep it up!")
+                .build();
+    }
+
+    /**
+     * @param count number of notifications
+     * @return a user's history of persisted notifications, newest first
+     */
+    public static List<Notification> notifications(int count) {
+        String userId = UUID.randomUUID().toString();
+        LocalDateTime sentAt = LocalDateTime.now();
+        List<Notification> notifications = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            boolean reward = i % 3 == 0;
+            notifications.add(Notification.builder()
+                    .notificationId(478393526657257472L - i)
+                    .transactionId(UUID.randomUUID().toString())
+                    .userId(userId)
+                    .type(reward ? NotificationType.REWARD_GRANTED : NotificationType.TRANSACTION_SUCCESS)
+                    .subject(reward ? "Congratulations on Your Reward!" : "Transaction Processed: $1249.37 Sent")
+                    .content("Dear Valued Customer,  We have successfully processed your transaction.  "
+                            + "Transaction Details: - Amount: $1249.37 - Recipient: " + UUID.randomUUID()
+                            + " - Transaction ID: " + UUID.randomUUID() + " - Date: 2025-11-25T17:00:00.123  "
+                            + "Your current account balance is $1250.00.  Thank you for choosing our service.  "
+                            + "Best regards, The Payment Team")
+                    .channel(reward ? NotificationChannel.PUSH : NotificationChannel.EMAIL)
+                    .sentAt(sentAt.minusMinutes(i))
+                    .eventSource(reward ? EventSource.REWARD : EventSource.SENDER)
+                    .build());
+        }
+        return notifications;
+    }
+
+    private static Timestamp timestamp(Instant instant) {
+        return Timestamp.newBuilder().setSeconds(instant.getEpochSecond()).setNanos(instant.getNano()).build();
+    }
+}
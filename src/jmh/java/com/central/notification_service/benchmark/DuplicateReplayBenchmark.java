@@ -0,0 +1,47 @@
+package com.central.notification_service.benchmark;
+
+import com.central.notification_service.idempotency.IdempotencyProperties;
+import com.central.notification_service.idempotency.ProcessedEventCache;
+import com.central.notification_service.model.Notification;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the idempotency check for a consumed batch: a fresh batch versus a batch redelivered after a rebalance.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DuplicateReplayBenchmark {
+
+    @Param({"500"})
+    public int batchSize;
+
+    private ProcessedEventCache processedEventCache;
+    private List<Notification> freshBatch;
+    private List<Notification> replayedBatch;
+
+    @Setup
+    public void setUp() {
+        processedEventCache = new ProcessedEventCache(new IdempotencyProperties(), new SimpleMeterRegistry());
+        freshBatch = BenchmarkData.notifications(batchSize);
+        replayedBatch = BenchmarkData.notifications(batchSize);
+        processedEventCache.markProcessed(replayedBatch);
+    }
+
+    @Benchmark
+    public List<Notification> filterFreshBatch() {
+        return processedEventCache.filterUnseen(freshBatch);
+    }
+
+    @Benchmark
+    public List<Notification> filterReplayedBatch() {
+        return processedEventCache.filterUnseen(replayedBatch);
+    }
+}
@@ -0,0 +1,108 @@
+package com.central.notification_service.benchmark;
+
+import com.central.notification_service.kafka.ByteStringDeserializer;
+import com.central.notification_service.kafka.RewardEventView;
+import com.central.notification_service.kafka.TransactionEventView;
+import com.google.protobuf.InvalidProtocolBufferException;
+import notification.events.RewardEvent;
+import notification.events.TransactionEvent;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of decoding the raw Kafka record values into protobuf events.
+ *
+ * <p>The {@code *Record} benchmarks start from the value slice the consumer hands to its deserializer and read the
+ * fields a notification is built from: {@code ByteArrayDeserializer} followed by a full {@code parseFrom}, the
+ * former path, against {@link ByteStringDeserializer} followed by a lazy event view.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventParsingBenchmark {
+
+    private static final String TOPIC = "benchmark-events";
+
+    private final ByteArrayDeserializer byteArrayDeserializer = new ByteArrayDeserializer();
+    private final ByteStringDeserializer byteStringDeserializer = new ByteStringDeserializer();
+    private final RecordHeaders headers = new RecordHeaders();
+
+    private byte[] transactionPayload;
+    private byte[] rewardPayload;
+    private ByteBuffer transactionValue;
+    private ByteBuffer rewardValue;
+
+    @Setup
+    public void setUp() {
+        transactionPayload = BenchmarkData.transactionEvent().toByteArray();
+        rewardPayload = BenchmarkData.rewardEvent().toByteArray();
+        transactionValue = valueSlice(transactionPayload);
+        rewardValue = valueSlice(rewardPayload);
+    }
+
+    @Benchmark
+    public TransactionEvent parseTransactionEvent() throws InvalidProtocolBufferException {
+        return TransactionEvent.parseFrom(transactionPayload);
+    }
+
+    @Benchmark
+    public RewardEvent parseRewardEvent() throws InvalidProtocolBufferException {
+        return RewardEvent.parseFrom(rewardPayload);
+    }
+
+    @Benchmark
+    public void copiedTransactionRecord(Blackhole blackhole) throws InvalidProtocolBufferException {
+        TransactionEvent event = TransactionEvent.parseFrom(
+                byteArrayDeserializer.deserialize(TOPIC, headers, transactionValue.duplicate()));
+        blackhole.consume(event.getTransactionId());
+        blackhole.consume(event.getSenderId());
+        blackhole.consume(event.getReceiverId());
+        blackhole.consume(event.getAmount());
+    }
+
+    @Benchmark
+    public void lazyTransactionRecord(Blackhole blackhole) throws InvalidProtocolBufferException {
+        TransactionEventView event = TransactionEventView.parse(
+                byteStringDeserializer.deserialize(TOPIC, headers, transactionValue.duplicate()));
+        blackhole.consume(event.getTransactionId());
+        blackhole.consume(event.getSenderId());
+        blackhole.consume(event.getReceiverId());
+        blackhole.consume(event.getAmount());
+    }
+
+    @Benchmark
+    public void copiedRewardRecord(Blackhole blackhole) throws InvalidProtocolBufferException {
+        RewardEvent event = RewardEvent.parseFrom(
+                byteArrayDeserializer.deserialize(TOPIC, headers, rewardValue.duplicate()));
+        blackhole.consume(event.getTransactionId());
+        blackhole.consume(event.getUserId());
+        blackhole.consume(event.getRewardValue());
+    }
+
+    @Benchmark
+    public void lazyRewardRecord(Blackhole blackhole) throws InvalidProtocolBufferException {
+        RewardEventView event = RewardEventView.parse(
+                byteStringDeserializer.deserialize(TOPIC, headers, rewardValue.duplicate()));
+        blackhole.consume(event.getTransactionId());
+        blackhole.consume(event.getUserId());
+        blackhole.consume(event.getRewardValue());
+    }
+
+    /**
+     * Places the payload in the middle of a larger buffer, like a record value inside a fetched batch.
+     */
+    private static ByteBuffer valueSlice(byte[] payload) {
+        ByteBuffer fetch = ByteBuffer.allocate(payload.length + 128);
+        fetch.position(64);
+        fetch.put(payload);
+        return fetch.position(64).limit(64 + payload.length).slice();
+    }
+}
@@ -0,0 +1,111 @@
+package com.central.notification_service.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.google.protobuf.TextFormat;
+import notification.events.TransactionEvent;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-event logging cost paid by consumer threads: the former INFO payload dump and banner lines against the
+ * guarded single-line logging, each through a synchronous and the asynchronous (never blocking) appender.
+ * Runs with several threads to show contention on the synchronous appender's lock.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class LoggingBenchmark {
+
+    private static final String PATTERN = "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p --- [%t] %-40.40logger{39} : %m%n";
+    private static final TextFormat.Printer PAYLOAD_PRINTER = TextFormat.printer().emittingSingleLine(true);
+
+    @Param({"sync", "async"})
+    public String appender;
+
+    private LoggerContext loggerContext;
+    private Logger log;
+    private TransactionEvent event;
+
+    @Setup
+    public void setUp() {
+        loggerContext = new LoggerContext();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(loggerContext);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> console = new OutputStreamAppender<>();
+        console.setContext(loggerContext);
+        console.setName("CONSOLE");
+        console.setEncoder(encoder);
+        console.setOutputStream(OutputStream.nullOutputStream());
+        console.start();
+
+        Appender<ILoggingEvent> target = console;
+        if ("async".equals(appender)) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(loggerContext);
+            async.setName("ASYNC_CONSOLE");
+            async.setQueueSize(8192);
+            async.setDiscardingThreshold(0);
+            async.setNeverBlock(true);
+            async.setIncludeCallerData(false);
+            async.addAppender(console);
+            async.start();
+            target = async;
+        }
+
+        log = loggerContext.getLogger("com.central.notification_service.kafka.KafkaNotificationsConsumer");
+        log.setLevel(Level.INFO);
+        log.setAdditive(false);
+        log.addAppender(target);
+
+        event = BenchmarkData.transactionEvent();
+    }
+
+    @TearDown
+    public void tearDown() {
+        loggerContext.stop();
+    }
+
+    @Benchmark
+    public void legacyPerEventLogging() {
+        log.info("Processing {} event - Transaction ID: {} - Event data: {}",
+                "sender", event.getTransactionId(), event);
+        log.info("\n=== ASYNC EMAIL NOTIFICATION ===\nTo: {}\nSubject: {}\n{}\n=========================\n",
+                event.getSenderId() + "@example.com", "Transaction Processed", event.getTransactionId());
+        log.info("Successfully sent {} for transaction: {} - Took {} ms", "EMAIL", event.getTransactionId(), 3L);
+    }
+
+    @Benchmark
+    public void guardedPerEventLogging() {
+        if (log.isDebugEnabled()) {
+            log.debug("Processing {} event - Transaction ID: {} - Event data: {}",
+                    "SENDER", event.getTransactionId(), PAYLOAD_PRINTER.printToString(event));
+        }
+        log.debug("Email to: {} - Subject: {}", event.getSenderId(), "Transaction Processed");
+        if (log.isDebugEnabled()) {
+            log.debug("Successfully sent {} for transaction: {} - Took {} ms", "EMAIL", event.getTransactionId(), 3L);
+        }
+    }
+
+    @Benchmark
+    public void batchSummaryLine() {
+        log.info("Completed {} batch - records: {}, saved: {}, persist: {} ms, total: {} ms",
+                "sender", 500, 498, 12L, 15L);
+    }
+}
@@ -0,0 +1,101 @@
+package com.central.notification_service.benchmark;
+
+import com.central.notification_service.model.Notification;
+import com.central.notification_service.model.NotificationChannel;
+import com.central.notification_service.model.NotificationType;
+import com.central.notification_service.utils.ServiceUtils;
+import notification.events.RewardEvent;
+import notification.events.TransactionEvent;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning an event into a {@link Notification}: the compiled templates used by {@link ServiceUtils}
+ * against the previous {@code String.format} implementation, kept here as the baseline.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NotificationFactoryBenchmark {
+
+    private TransactionEvent transactionEvent;
+    private RewardEvent rewardEvent;
+
+    @Setup
+    public void setUp() {
+        transactionEvent = BenchmarkData.transactionEvent();
+        rewardEvent = BenchmarkData.rewardEvent();
+    }
+
+    @Benchmark
+    public Notification senderTemplate() {
+        return ServiceUtils.createNotificationFromEvent(transactionEvent, "SENDER");
+    }
+
+    @Benchmark
+    public Notification rewardTemplate() {
+        return ServiceUtils.createNotificationFromEvent(rewardEvent, "REWARD");
+    }
+
+    @Benchmark
+    public Notification senderStringFormatBaseline() {
+        TransactionEvent event = transactionEvent;
+        return Notification.builder()
+                .transactionId(event.getTransactionId())
+                .userId(event.getSenderId())
+                .type(NotificationType.TRANSACTION_SUCCESS)
+                .subject(String.format("Transaction Processed: $%.2f Sent", event.getAmount()))
+                .content(String.format(
+                        "Dear Valued Customer,  " +
+                        "We have successfully processed your transaction.  " +
+                        "Transaction Details: " +
+                        "- Amount: $%.2f " +
+                        "- Recipient: %s " +
+                        "- Transaction ID: %s " +
+                        "- Date: %s  " +
+                        "Your current account balance is $%.2f.  " +
+                        "Thank you for choosing our service.  " +
+                        "Best regards, The Payment Team",
+                        event.getAmount(),
+                        event.getReceiverId(),
+                        event.getTransactionId(),
+                        LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME),
+                        1250.00))
+                .channel(NotificationChannel.EMAIL)
+                .sentAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Benchmark
+    public Notification rewardStringFormatBaseline() {
+        RewardEvent event = rewardEvent;
+        return Notification.builder()
+                .transactionId(event.getTransactionId())
+                .userId(event.getUserId())
+                .type(NotificationType.REWARD_GRANTED)
+                .subject("Congratulations on Your Reward!")
+                .content(String.format(
+                        "Dear Valued Customer, " +
+                        "We are delighted to inform you that you have been awarded a special reward! " +
+                        "Reward Details: " +
+                        "- Amount: $%.2f " +
+                        "- Transaction ID: %s " +
+                        "- Date: %s " +
+                        "This reward is our way of showing appreciation for your continued trust in our services. " +
+                        "The reward has been credited to your account. " +
+                        "Thank you for being a valued customer. " +
+                        "Best regards, The Rewards Team",
+                        event.getRewardValue(),
+                        event.getTransactionId(),
+                        LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)))
+                .channel(NotificationChannel.PUSH)
+                .sentAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,56 @@
+package com.central.notification_service.benchmark;
+
+import com.central.notification_service.model.Notification;
+import com.central.notification_service.utils.ServiceUtils;
+import org.openapitools.model.NotificationDTO;
+import org.openapitools.model.NotificationsList;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the read path after the query: mapping entities to DTOs and serialising the response body.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseMappingBenchmark {
+
+    @Param({"50", "200"})
+    public int pageSize;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    private List<Notification> notifications;
+    private NotificationsList response;
+
+    @Setup
+    public void setUp() {
+        notifications = BenchmarkData.notifications(pageSize);
+        response = new NotificationsList().notifications(mapAll());
+    }
+
+    @Benchmark
+    public List<NotificationDTO> constructNotificationResponses() {
+        return mapAll();
+    }
+
+    @Benchmark
+    public byte[] serializeNotificationsList() {
+        return jsonMapper.writeValueAsBytes(response);
+    }
+
+    private List<NotificationDTO> mapAll() {
+        List<NotificationDTO> dtos = new ArrayList<>(notifications.size());
+        for (Notification notification : notifications) {
+            dtos.add(ServiceUtils.constructNotificationResponse(notification));
+        }
+        return dtos;
+    }
+}
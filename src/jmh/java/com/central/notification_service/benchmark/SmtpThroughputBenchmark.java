@@ -0,0 +1,87 @@
+package com.central.notification_service.benchmark;
+
+import com.central.notification_service.provider.OutboundMessage;
+import com.central.notification_service.provider.SendResult;
+import com.central.notification_service.provider.smtp.FakeSmtpServer;
+import com.central.notification_service.provider.smtp.PooledSmtpProvider;
+import com.central.notification_service.provider.smtp.SmtpProperties;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sending a batch of emails through {@link PooledSmtpProvider} against a local {@link FakeSmtpServer}: a new
+ * connection per message against pooled connections, reused within a batch and across single sends.
+ * {@code roundTripMillis} simulates the network latency that connection setup pays for several times.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SmtpThroughputBenchmark {
+
+    private static final int BATCH_SIZE = 50;
+
+    @Param({"0", "1"})
+    public long roundTripMillis;
+
+    private FakeSmtpServer server;
+    private PooledSmtpProvider connectionPerMessage;
+    private PooledSmtpProvider pooled;
+    private List<OutboundMessage> batch;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        server = FakeSmtpServer.start(roundTripMillis);
+        connectionPerMessage = new PooledSmtpProvider(properties(1));
+        pooled = new PooledSmtpProvider(properties(1000));
+        batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(new OutboundMessage("user" + i + "@example.com", "Payment received",
+                    "You received 250.00 from user " + i + ".", "txn-" + i));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        connectionPerMessage.close();
+        pooled.close();
+        server.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<SendResult> connectionPerMessage() {
+        return connectionPerMessage.sendBatch(batch);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<SendResult> pooledBatch() {
+        return pooled.sendBatch(batch);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void pooledSingleSends(Blackhole blackhole) throws Exception {
+        for (OutboundMessage message : batch) {
+            pooled.send(message);
+            blackhole.consume(message);
+        }
+    }
+
+    private SmtpProperties properties(int maxMessagesPerConnection) {
+        SmtpProperties properties = new SmtpProperties();
+        properties.setHost("127.0.0.1");
+        properties.setPort(server.port());
+        properties.setPoolSize(1);
+        properties.setMaxMessagesPerConnection(maxMessagesPerConnection);
+        properties.setMaxBatchSize(BATCH_SIZE);
+        return properties;
+    }
+}
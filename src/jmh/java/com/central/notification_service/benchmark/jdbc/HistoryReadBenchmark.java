@@ -0,0 +1,133 @@
+package com.central.notification_service.benchmark.jdbc;
+
+import com.central.notification_service.benchmark.BenchmarkData;
+import com.central.notification_service.model.ContentMode;
+import com.central.notification_service.model.Notification;
+import com.central.notification_service.model.NotificationHistoryQuery;
+import com.central.notification_service.repository.NotificationBatchRepositoryImpl;
+import com.central.notification_service.repository.NotificationHistoryRepositoryImpl;
+import com.central.notification_service.utils.ServiceUtils;
+import com.central.notification_service.utils.SnowflakeIdGenerator;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.openapitools.model.NotificationDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading a page of the history of a user with thousands of notifications: managed entities mapped by
+ * {@link ServiceUtils} (the former read path), read-only entities, and the {@link NotificationHistoryRepositoryImpl}
+ * row mapper with full and omitted content. Compare the {@code gc.alloc.rate.norm} columns for the allocation
+ * per page.
+ *
+ * <p>Needs a migrated PostgreSQL database, see {@link NotificationInsertBenchmark}:</p>
+ * <pre>
+ * BENCHMARK_JDBC_URL=jdbc:postgresql://localhost:5432/notifications \
+ *     mvn -Pbenchmarks test-compile exec:exec -Djmh.includes=HistoryReadBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HistoryReadBenchmark {
+
+    private static final int HISTORY_SIZE = 5000;
+
+    private static final String HISTORY_HQL =
+            "from Notification n where n.userId = :userId order by n.sentAt desc, n.notificationId desc";
+
+    @Param({"50", "200"})
+    public int pageSize;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private SessionFactory sessionFactory;
+    private NotificationHistoryRepositoryImpl historyRepository;
+    private String userId;
+    private NotificationHistoryQuery fullContent;
+    private NotificationHistoryQuery noContent;
+
+    @Setup(Level.Trial)
+    public void seed() {
+        String url = env("BENCHMARK_JDBC_URL", "jdbc:postgresql://localhost:5432/notifications");
+        String username = env("BENCHMARK_JDBC_USERNAME", "postgres");
+        String password = env("BENCHMARK_JDBC_PASSWORD", "postgres");
+        dataSource = new SingleConnectionDataSource(url, username, password, true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        historyRepository = new NotificationHistoryRepositoryImpl(jdbcTemplate);
+
+        NotificationBatchRepositoryImpl batchRepository = new NotificationBatchRepositoryImpl(jdbcTemplate,
+                new SnowflakeIdGenerator(BenchmarkData.NODE_ID));
+        ReflectionTestUtils.setField(batchRepository, "chunkSize", 1000);
+        List<Notification> history = BenchmarkData.notifications(HISTORY_SIZE);
+        history.forEach(notification -> notification.setNotificationId(null));
+        batchRepository.insertAll(history);
+        userId = history.get(0).getUserId();
+
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Notification.class)
+                .setProperty("hibernate.connection.url", url)
+                .setProperty("hibernate.connection.username", username)
+                .setProperty("hibernate.connection.password", password)
+                .setProperty("hibernate.connection.pool_size", "1")
+                .buildSessionFactory();
+
+        fullContent = NotificationHistoryQuery.builder().userId(userId).limit(pageSize).build();
+        noContent = NotificationHistoryQuery.builder().userId(userId).limit(pageSize).content(ContentMode.NONE).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void cleanUp() {
+        sessionFactory.close();
+        jdbcTemplate.update("DELETE FROM central_notifications WHERE user_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM notification_event_keys WHERE user_id = ?", userId);
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    public List<NotificationDTO> managedEntities() {
+        return readEntities(false);
+    }
+
+    @Benchmark
+    public List<NotificationDTO> readOnlyEntities() {
+        return readEntities(true);
+    }
+
+    @Benchmark
+    public List<NotificationDTO> rowMapperFullContent() {
+        return historyRepository.findHistoryPage(fullContent, pageSize, 0);
+    }
+
+    @Benchmark
+    public List<NotificationDTO> rowMapperWithoutContent() {
+        return historyRepository.findHistoryPage(noContent, pageSize, 0);
+    }
+
+    private List<NotificationDTO> readEntities(boolean readOnly) {
+        try (Session session = sessionFactory.openSession()) {
+            session.setDefaultReadOnly(readOnly);
+            return session.fromTransaction(tx -> session.createSelectionQuery(HISTORY_HQL, Notification.class)
+                    .setParameter("userId", userId)
+                    .setMaxResults(pageSize)
+                    .getResultList()
+                    .stream()
+                    .map(ServiceUtils::constructNotificationResponse)
+                    .toList());
+        }
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+}
@@ -0,0 +1,319 @@
+package com.central.notification_service.benchmark.jdbc;
+
+import com.central.notification_service.benchmark.BenchmarkData;
+import com.central.notification_service.model.Notification;
+import com.central.notification_service.model.NotificationChannel;
+import com.central.notification_service.model.NotificationType;
+import com.central.notification_service.model.SnowflakeId;
+import com.central.notification_service.repository.NotificationBatchRepositoryImpl;
+import com.central.notification_service.utils.SnowflakeIdGenerator;
+import jakarta.persistence.*;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Persisting one consumed batch, in two pairs that each do the same work:
+ * <ul>
+ *     <li>{@code saveAllIdentity} against {@code saveAllSnowflake}: Hibernate persisting the batch in one
+ *     transaction, as {@code saveAll} does, with {@code hibernate.jdbc.batch_size} and
+ *     {@code reWriteBatchedInserts} set as in the application. Both map the same scratch table
+ *     {@code benchmark_notifications}, an unpartitioned copy of {@code central_notifications} whose key is also an
+ *     identity column; only the id generation differs. IDENTITY needs the generated key of every row back, so
+ *     Hibernate executes each INSERT on its own, while snowflake ids are assigned before the flush and the
+ *     INSERTs go out in batches.</li>
+ *     <li>{@code insertRowByRow} against {@code insertUnnestBatch}: claiming the event key and inserting the
+ *     notification with a statement each per row, against the single {@code unnest} statement of
+ *     {@link NotificationBatchRepositoryImpl} that does both for the whole batch.</li>
+ * </ul>
+ *
+ * <p>Needs a migrated PostgreSQL database, so it is not part of the default benchmark run. The connection is
+ * taken from the environment, which the forked benchmark JVM inherits:</p>
+ * <pre>
+ * BENCHMARK_JDBC_URL=jdbc:postgresql://localhost:5432/notifications \
+ *     mvn -Pbenchmarks test-compile exec:exec -Djmh.includes=NotificationInsertBenchmark
+ * </pre>
+ * <p>Every batch belongs to a random user of its own; only the rows and event keys of those users are removed
+ * afterwards and the scratch table is dropped, so the benchmark can run against a database holding other
+ * data.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NotificationInsertBenchmark {
+
+    private static final String SCRATCH_TABLE = "benchmark_notifications";
+
+    private static final String CREATE_SCRATCH_TABLE_SQL = """
+            CREATE TABLE benchmark_notifications
+            (
+                notification_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                transaction_id  VARCHAR(255) NOT NULL,
+                user_id         VARCHAR(255) NOT NULL,
+                type            VARCHAR(255) NOT NULL,
+                subject         VARCHAR(255),
+                content         TEXT,
+                channel         VARCHAR(255),
+                sent_at         TIMESTAMP(6) NOT NULL
+            )
+            """;
+
+    private static final String CLAIM_EVENT_KEY_SQL = """
+            INSERT INTO notification_event_keys
+                (transaction_id, event_source, user_id, type, notification_id, created_at)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT (transaction_id, event_source, user_id) DO NOTHING
+            """;
+
+    private static final String INSERT_ROW_SQL = """
+            INSERT INTO central_notifications
+                (notification_id, transaction_id, user_id, type, subject, content, channel, sent_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String DELETE_EVENT_KEYS_SQL = """
+            DELETE FROM notification_event_keys
+            WHERE (transaction_id, user_id) IN (SELECT transaction_id, user_id
+                                                FROM central_notifications WHERE user_id = ANY (?))
+            """;
+
+    @Param({"100", "500"})
+    public int batchSize;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private SnowflakeIdGenerator idGenerator;
+    private NotificationBatchRepositoryImpl batchRepository;
+    private SessionFactory sessionFactory;
+
+    private List<Notification> batch;
+    private List<IdentityNotification> identityBatch;
+    private List<SnowflakeNotification> snowflakeBatch;
+    private final Set<String> benchmarkUserIds = new HashSet<>();
+
+    @Setup(Level.Trial)
+    public void connect() {
+        // As configured for the application, so that batched INSERTs are rewritten into multi-row statements
+        String url = withBatchedInserts(env("BENCHMARK_JDBC_URL", "jdbc:postgresql://localhost:5432/notifications"));
+        String username = env("BENCHMARK_JDBC_USERNAME", "postgres");
+        String password = env("BENCHMARK_JDBC_PASSWORD", "postgres");
+        dataSource = new SingleConnectionDataSource(url, username, password, true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        idGenerator = new SnowflakeIdGenerator(BenchmarkData.NODE_ID);
+        // Backs @SnowflakeId, as the node id lease does in the application
+        SnowflakeIdGenerator.install(idGenerator);
+        batchRepository = new NotificationBatchRepositoryImpl(jdbcTemplate, idGenerator);
+        ReflectionTestUtils.setField(batchRepository, "chunkSize", 1000);
+
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + SCRATCH_TABLE);
+        jdbcTemplate.execute(CREATE_SCRATCH_TABLE_SQL);
+        // The indexes of central_notifications, which every INSERT has to maintain as well
+        jdbcTemplate.execute("CREATE INDEX ON " + SCRATCH_TABLE + " (user_id, sent_at DESC, notification_id DESC)");
+        jdbcTemplate.execute("CREATE INDEX ON " + SCRATCH_TABLE + " (sent_at, notification_id)");
+
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(IdentityNotification.class)
+                .addAnnotatedClass(SnowflakeNotification.class)
+                .setProperty("hibernate.connection.url", url)
+                .setProperty("hibernate.connection.username", username)
+                .setProperty("hibernate.connection.password", password)
+                .setProperty("hibernate.connection.pool_size", "1")
+                .setProperty("hibernate.jdbc.batch_size", "500")
+                .setProperty("hibernate.order_inserts", "true")
+                .buildSessionFactory();
+    }
+
+    @Setup(Level.Invocation)
+    public void newBatch() {
+        batch = BenchmarkData.notifications(batchSize);
+        batch.forEach(notification -> {
+            notification.setNotificationId(null);
+            benchmarkUserIds.add(notification.getUserId());
+        });
+        identityBatch = copy(batch, IdentityNotification::new);
+        snowflakeBatch = copy(batch, SnowflakeNotification::new);
+    }
+
+    @TearDown(Level.Iteration)
+    public void emptyScratchTable() {
+        // Keeps the table, and so the index depth, the same for every iteration of both id strategies
+        jdbcTemplate.execute("TRUNCATE " + SCRATCH_TABLE);
+    }
+
+    @TearDown(Level.Trial)
+    public void cleanUp() {
+        sessionFactory.close();
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + SCRATCH_TABLE);
+        String[] userIds = benchmarkUserIds.toArray(String[]::new);
+        jdbcTemplate.update(DELETE_EVENT_KEYS_SQL,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("text", userIds)));
+        jdbcTemplate.update("DELETE FROM central_notifications WHERE user_id = ANY (?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("text", userIds)));
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    public int saveAllIdentity() {
+        return saveAll(identityBatch);
+    }
+
+    @Benchmark
+    public int saveAllSnowflake() {
+        return saveAll(snowflakeBatch);
+    }
+
+    @Benchmark
+    public Integer insertRowByRow() {
+        return transactionTemplate.execute(status -> {
+            int inserted = 0;
+            for (Notification notification : batch) {
+                long notificationId = idGenerator.nextId();
+                int claimed = jdbcTemplate.update(CLAIM_EVENT_KEY_SQL,
+                        notification.getTransactionId(),
+                        notification.getEventSource().name(),
+                        notification.getUserId(),
+                        notification.getType().name(),
+                        notificationId,
+                        notification.getSentAt());
+                if (claimed == 0) {
+                    continue;
+                }
+                inserted += jdbcTemplate.update(INSERT_ROW_SQL,
+                        notificationId,
+                        notification.getTransactionId(),
+                        notification.getUserId(),
+                        notification.getType().name(),
+                        notification.getSubject(),
+                        notification.getContent(),
+                        notification.getChannel().name(),
+                        notification.getSentAt());
+            }
+            return inserted;
+        });
+    }
+
+    @Benchmark
+    public List<Notification> insertUnnestBatch() {
+        return transactionTemplate.execute(status -> batchRepository.insertAll(batch));
+    }
+
+    /**
+     * Persists every entity and flushes on commit, as {@code SimpleJpaRepository.saveAll} does for new entities.
+     */
+    private int saveAll(List<? extends ScratchNotification> entities) {
+        try (Session session = sessionFactory.openSession()) {
+            session.inTransaction(tx -> entities.forEach(session::persist));
+        }
+        return entities.size();
+    }
+
+    private static <T extends ScratchNotification> List<T> copy(List<Notification> notifications,
+                                                                Function<Notification, T> entity) {
+        return notifications.stream().map(entity).toList();
+    }
+
+    private static String withBatchedInserts(String url) {
+        if (url.contains("reWriteBatchedInserts")) {
+            return url;
+        }
+        return url + (url.contains("?") ? "&" : "?") + "reWriteBatchedInserts=true";
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+
+    /**
+     * The columns of {@link Notification}; the subclasses only differ in how the id is generated.
+     */
+    @MappedSuperclass
+    abstract static class ScratchNotification {
+
+        @Column(name = "transaction_id", nullable = false)
+        private String transactionId;
+
+        @Column(name = "user_id", nullable = false)
+        private String userId;
+
+        @Column(name = "type", nullable = false)
+        @Enumerated(EnumType.STRING)
+        private NotificationType type;
+
+        @Column(name = "subject")
+        private String subject;
+
+        @Column(name = "content", columnDefinition = "TEXT")
+        private String content;
+
+        @Column(name = "channel")
+        @Enumerated(EnumType.STRING)
+        private NotificationChannel channel;
+
+        @Column(name = "sent_at", nullable = false)
+        private LocalDateTime sentAt;
+
+        ScratchNotification() {
+        }
+
+        ScratchNotification(Notification notification) {
+            this.transactionId = notification.getTransactionId();
+            this.userId = notification.getUserId();
+            this.type = notification.getType();
+            this.subject = notification.getSubject();
+            this.content = notification.getContent();
+            this.channel = notification.getChannel();
+            this.sentAt = notification.getSentAt();
+        }
+    }
+
+    @Entity
+    @Table(name = SCRATCH_TABLE)
+    static class IdentityNotification extends ScratchNotification {
+
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        private Long notificationId;
+
+        IdentityNotification() {
+        }
+
+        IdentityNotification(Notification notification) {
+            super(notification);
+        }
+    }
+
+    @Entity
+    @Table(name = SCRATCH_TABLE)
+    static class SnowflakeNotification extends ScratchNotification {
+
+        @Id
+        @SnowflakeId
+        private Long notificationId;
+
+        SnowflakeNotification() {
+        }
+
+        SnowflakeNotification(Notification notification) {
+            super(notification);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.central.notification_service.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Settings of the per-user cache of recent notifications, bound from {@code notification.history-cache.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "notification.history-cache")
+public class HistoryCacheProperties {
+
+    /**
+     * Serve unfiltered first pages of the history from memory.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Number of most recent notifications kept per user. Requests for larger pages bypass the cache.
+     */
+    private int recentSize = 50;
+
+    /**
+     * Approximate memory budget of the cache; users are evicted (W-TinyLFU) once it is exceeded.
+     */
+    private DataSize maxWeight = DataSize.ofMegabytes(64);
+
+    /**
+     * Optional upper bound on how stale a snapshot can get. Snapshots do not need to expire: other replicas'
+     * notifications invalidate them through the live feed broadcast. Only set it for multiple replicas running
+     * with {@code notification.live-feed.broadcast=false}.
+     */
+    private Duration expireAfterWrite;
+}
@@ -0,0 +1,93 @@
+package com.central.notification_service.cache;
+
+import com.central.notification_service.model.Notification;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Snapshot of a user's most recent notifications, newest first.
+ *
+ * @param notifications the newest notifications of the user, at most the configured recent size
+ * @param complete      whether the snapshot holds the user's entire history
+ */
+public record RecentNotifications(List<Notification> notifications, boolean complete) {
+
+    /**
+     * Same order as the history query: {@code sent_at desc, notification_id desc}.
+     */
+    public static final Comparator<Notification> NEWEST_FIRST = Comparator
+            .comparing(Notification::getSentAt)
+            .thenComparing(Notification::getNotificationId)
+            .reversed();
+
+    public RecentNotifications {
+        notifications = List.copyOf(notifications);
+    }
+
+    /**
+     * Builds a snapshot from rows read with a limit of {@code capacity + 1}.
+     *
+     * @param rows     rows in history order
+     * @param capacity maximum number of notifications to keep
+     * @return the snapshot
+     */
+    public static RecentNotifications of(List<Notification> rows, int capacity) {
+        boolean complete = rows.size() <= capacity;
+        return new RecentNotifications(complete ? rows : rows.subList(0, capacity), complete);
+    }
+
+    /**
+     * @param limit requested page size
+     * @return whether older notifications exist beyond the first {@code limit} ones
+     */
+    public boolean hasMoreThan(int limit) {
+        return notifications.size() > limit || !complete;
+    }
+
+    /**
+     * Returns a new snapshot including the given notifications, trimmed back to {@code capacity}.
+     * Notifications that are already part of the snapshot are ignored.
+     *
+     * @param added    newly stored notifications of the same user
+     * @param capacity maximum number of notifications to keep
+     * @return the updated snapshot
+     */
+    public RecentNotifications merge(List<Notification> added, int capacity) {
+        Set<Long> knownIds = new HashSet<>(notifications.size() * 2);
+        notifications.forEach(notification -> knownIds.add(notification.getNotificationId()));
+
+        List<Notification> merged = new ArrayList<>(notifications.size() + added.size());
+        merged.addAll(notifications);
+        for (Notification notification : added) {
+            if (knownIds.add(notification.getNotificationId())) {
+                merged.add(notification);
+            }
+        }
+        merged.sort(NEWEST_FIRST);
+        if (merged.size() <= capacity) {
+            return new RecentNotifications(merged, complete);
+        }
+        return new RecentNotifications(merged.subList(0, capacity), false);
+    }
+
+    /**
+     * @return approximate retained size in bytes, used as the cache weight
+     */
+    public int weight() {
+        long bytes = 64;
+        for (Notification notification : notifications) {
+            bytes += 160
+                    + 2L * (length(notification.getTransactionId()) + length(notification.getUserId())
+                    + length(notification.getSubject()) + length(notification.getContent()));
+        }
+        return (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+}
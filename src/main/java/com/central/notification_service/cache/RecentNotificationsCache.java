@@ -0,0 +1,142 @@
+package com.central.notification_service.cache;
+
+import com.central.notification_service.model.Notification;
+import com.central.notification_service.model.NotificationHistoryQuery;
+import com.central.notification_service.model.NotificationsSavedEvent;
+import com.central.notification_service.model.RemoteNotificationsSavedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Read-through cache of each user's most recent notifications, serving the unfiltered first page of the history.
+ *
+ * <p>Entries are weighed by their approximate size and evicted by Caffeine's W-TinyLFU policy. They are kept
+ * current by write-through: once a batch of notifications has committed, the snapshots of the affected users that
+ * are already cached are merged with the new rows, and the shared tier (if any) is told to drop them. Notifications
+ * stored by another replica are announced by the live feed broadcast as a {@link RemoteNotificationsSavedEvent};
+ * the snapshots of their users are dropped and reloaded on the next request, and all of them if announcements were
+ * lost. Entries therefore do not expire unless {@code expire-after-write} is set. Hit ratio, evictions and load
+ * latency are published as {@code cache.*} meters named {@code notificationHistory}.</p>
+ *
+ * <p>Snapshots are always loaded from the primary, in a read-write transaction of their own, even when the page
+ * request runs read-only against the replica. A snapshot read from a lagging replica could miss notifications
+ * whose write-through had already happened, and the entry would then stay incomplete until it is evicted.</p>
+ */
+@Slf4j
+@Component
+public class RecentNotificationsCache {
+
+    private final HistoryCacheProperties properties;
+    private final SharedHistoryCache sharedCache;
+    private final Cache<String, RecentNotifications> localCache;
+    private final TransactionTemplate primaryTransaction;
+
+    @Autowired
+    public RecentNotificationsCache(HistoryCacheProperties properties,
+                                    ObjectProvider<SharedHistoryCache> sharedCache,
+                                    MeterRegistry meterRegistry,
+                                    PlatformTransactionManager transactionManager) {
+        this.properties = properties;
+        this.sharedCache = sharedCache.getIfAvailable(() -> SharedHistoryCache.NONE);
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+        this.primaryTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        Caffeine<String, RecentNotifications> builder = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxWeight().toBytes())
+                .weigher((String userId, RecentNotifications recent) -> recent.weight())
+                .recordStats();
+        if (properties.getExpireAfterWrite() != null) {
+            builder.expireAfterWrite(properties.getExpireAfterWrite());
+        }
+        this.localCache = builder.build();
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, "notificationHistory");
+    }
+
+    /**
+     * @param query the page request
+     * @return whether the page can be answered from a snapshot of the user's recent notifications
+     */
+    public boolean canServe(NotificationHistoryQuery query) {
+        return properties.isEnabled()
+                && query.getCursor() == null
+                && query.getType() == null
+                && query.getChannel() == null
+                && query.getFrom() == null
+                && query.getTo() == null
+                && query.getLimit() <= properties.getRecentSize();
+    }
+
+    /**
+     * Returns the user's recent notifications from memory, the shared tier or, failing both, the loader.
+     * Concurrent misses for the same user share a single load.
+     *
+     * @param userId the user
+     * @param loader reads up to the given number of newest rows of a user, in history order; called in a new
+     *               read-write transaction so it reads from the primary
+     * @return the snapshot
+     */
+    public RecentNotifications get(String userId, Function<Integer, List<Notification>> loader) {
+        return localCache.get(userId, key -> sharedCache.get(key).orElseGet(() -> {
+            int capacity = properties.getRecentSize();
+            List<Notification> newest = primaryTransaction.execute(status -> loader.apply(capacity + 1));
+            RecentNotifications recent = RecentNotifications.of(newest, capacity);
+            sharedCache.put(key, recent);
+            return recent;
+        }));
+    }
+
+    /**
+     * Write-through of newly committed notifications. Users without a cached snapshot are left alone so
+     * writes never pull cold users into the cache.
+     *
+     * @param event the notifications stored by the committed transaction
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onNotificationsSaved(NotificationsSavedEvent event) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Map<String, List<Notification>> byUser = event.notifications().stream()
+                .collect(Collectors.groupingBy(Notification::getUserId));
+        int capacity = properties.getRecentSize();
+        byUser.forEach((userId, added) -> {
+            localCache.asMap().computeIfPresent(userId, (key, recent) -> recent.merge(added, capacity));
+            sharedCache.evict(userId);
+        });
+        log.debug("Applied {} new notifications to the history cache of {} users",
+                event.notifications().size(), byUser.size());
+    }
+
+    /**
+     * Drops the snapshots of users that received notifications on another replica. The shared tier was already
+     * told by the replica that stored them.
+     *
+     * @param event the users announced by the other replica
+     */
+    @EventListener
+    public void onRemoteNotificationsSaved(RemoteNotificationsSavedEvent event) {
+        if (event.gap()) {
+            log.info("Dropping the history cache, notifications of other replicas may have been missed");
+            localCache.invalidateAll();
+        } else {
+            localCache.invalidateAll(event.userIds());
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.central.notification_service.cache;
+
+import java.util.Optional;
+
+/**
+ * Optional second cache tier shared between replicas (e.g. Redis), consulted when the local cache misses.
+ * Register a bean implementing this interface to enable it; without one the local cache falls back to the
+ * database directly.
+ */
+public interface SharedHistoryCache {
+
+    /**
+     * Tier used when no shared cache is configured.
+     */
+    SharedHistoryCache NONE = new SharedHistoryCache() {
+        @Override
+        public Optional<RecentNotifications> get(String userId) {
+            return Optional.empty();
+        }
+
+        @Override
+        public void put(String userId, RecentNotifications recent) {
+        }
+
+        @Override
+        public void evict(String userId) {
+        }
+    };
+
+    /**
+     * @param userId the user
+     * @return the shared snapshot of the user's recent notifications, if present
+     */
+    Optional<RecentNotifications> get(String userId);
+
+    /**
+     * Stores a snapshot loaded from the database.
+     *
+     * @param userId the user
+     * @param recent the snapshot
+     */
+    void put(String userId, RecentNotifications recent);
+
+    /**
+     * Drops the snapshot of a user whose history changed, so every replica reloads it.
+     *
+     * @param userId the user
+     */
+    void evict(String userId);
+}
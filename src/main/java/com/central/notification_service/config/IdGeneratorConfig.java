@@ -0,0 +1,51 @@
+package com.central.notification_service.config;
+
+import com.central.notification_service.utils.SnowflakeIdGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+
+/**
+ * Configures the application-generated identifiers used for notification rows.
+ */
+@Slf4j
+@Configuration
+public class IdGeneratorConfig {
+
+    /**
+     * Node id embedded in every generated identifier. Must be unique per running replica.
+     * A negative value leases a free node id from the database.
+     */
+    @Value("${notification.id.node-id:-1}")
+    private long nodeId;
+
+    /**
+     * How long a leased node id stays reserved without being renewed.
+     */
+    @Value("${notification.id.node-lease:5m}")
+    private Duration nodeLease;
+
+    @Bean
+    public NodeIdLease nodeIdLease(JdbcTemplate jdbcTemplate) {
+        return new NodeIdLease(jdbcTemplate, nodeLease);
+    }
+
+    /**
+     * Creates the id generator and installs it as the process-wide instance used by Hibernate. Startup fails
+     * when no node id is configured and none can be leased.
+     *
+     * @return the configured generator
+     */
+    @Bean
+    public SnowflakeIdGenerator snowflakeIdGenerator(NodeIdLease nodeIdLease) {
+        SnowflakeIdGenerator generator = nodeId < 0 ? nodeIdLease.acquire() : new SnowflakeIdGenerator(nodeId);
+        SnowflakeIdGenerator.install(generator);
+        log.info("Notification id generator initialised with {} node id {}",
+                nodeId < 0 ? "leased" : "configured", generator.getNodeId());
+        return generator;
+    }
+}
@@ -0,0 +1,62 @@
+package com.central.notification_service.config;
+
+import com.central.notification_service.retry.RetryProperties;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.CommonErrorHandler;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
+
+/**
+ * Keeps failing records from stalling their partition.
+ *
+ * <p>A record that fails (reported by the listener through a {@code BatchListenerFailedException}) is redelivered
+ * with exponential backoff; the records before it are committed. Once the retries are exhausted it is published,
+ * unchanged and with the failure in its headers, to {@code <topic>.DLT} and consumption moves on. Records that
+ * cannot be parsed are never retried: the listener publishes them to the dead-letter topic directly.</p>
+ */
+@Slf4j
+@Configuration
+public class KafkaErrorHandlingConfig {
+
+    /**
+     * Publishes records to the dead-letter topic of their source topic. The partition is left to the producer,
+     * so the dead-letter topics may have fewer partitions than their source. Values are consumed and produced as
+     * {@link ByteString} (see {@code ByteStringDeserializer} and {@code ByteStringSerializer}).
+     */
+    @Bean
+    public DeadLetterPublishingRecoverer deadLetterPublishingRecoverer(
+            KafkaTemplate<String, ByteString> kafkaTemplate, RetryProperties retryProperties) {
+        String suffix = retryProperties.getConsumer().getDeadLetterSuffix();
+        return new DeadLetterPublishingRecoverer(kafkaTemplate,
+                (consumerRecord, exception) -> new TopicPartition(consumerRecord.topic() + suffix, -1));
+    }
+
+    /**
+     * Picked up by the auto-configured listener container factory.
+     */
+    @Bean
+    public CommonErrorHandler kafkaErrorHandler(DeadLetterPublishingRecoverer deadLetterPublishingRecoverer,
+                                                RetryProperties retryProperties) {
+        RetryProperties.Consumer consumer = retryProperties.getConsumer();
+        ExponentialBackOffWithMaxRetries backOff = new ExponentialBackOffWithMaxRetries(consumer.getMaxRetries());
+        backOff.setInitialInterval(consumer.getInitialInterval().toMillis());
+        backOff.setMultiplier(consumer.getMultiplier());
+        backOff.setMaxInterval(consumer.getMaxInterval().toMillis());
+
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler((consumerRecord, exception) -> {
+            log.error("Giving up on record {}-{}@{}, publishing it to the dead-letter topic. Error: {}",
+                    consumerRecord.topic(), consumerRecord.partition(), consumerRecord.offset(),
+                    exception.getMessage());
+            deadLetterPublishingRecoverer.accept(consumerRecord, exception);
+        }, backOff);
+        errorHandler.addNotRetryableExceptions(InvalidProtocolBufferException.class, IllegalArgumentException.class);
+        return errorHandler;
+    }
+}
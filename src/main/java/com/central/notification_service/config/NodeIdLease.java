@@ -0,0 +1,119 @@
+package com.central.notification_service.config;
+
+import com.central.notification_service.utils.SnowflakeIdGenerator;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Leases a node id of the {@link SnowflakeIdGenerator} from {@code id_generator_nodes} for replicas that have
+ * none configured.
+ *
+ * <p>A replica takes the lowest node id whose lease has expired and renews it every {@code node-lease-renewal};
+ * leases use the database clock. The generator stops issuing ids once the lease may have run out by the local
+ * clock, measured from before the statement that took or renewed it, so a replica cut off from the database
+ * never issues ids on a node id another replica took over. If the lease was lost, the next renewal leases a new
+ * node id and the generator continues on that one.</p>
+ */
+@Slf4j
+public class NodeIdLease {
+
+    private static final String ACQUIRE_SQL = """
+            UPDATE id_generator_nodes SET owner = ?, lease_until = clock_timestamp() + ? * interval '1 millisecond'
+            WHERE node_id = (SELECT node_id FROM id_generator_nodes
+                             WHERE lease_until < clock_timestamp()
+                             ORDER BY node_id
+                             LIMIT 1
+                             FOR UPDATE SKIP LOCKED)
+            RETURNING node_id
+            """;
+
+    private static final String RENEW_SQL = """
+            UPDATE id_generator_nodes SET lease_until = clock_timestamp() + ? * interval '1 millisecond'
+            WHERE node_id = ? AND owner = ?
+            """;
+
+    private static final String RELEASE_SQL = """
+            UPDATE id_generator_nodes SET owner = NULL, lease_until = '-infinity' WHERE node_id = ? AND owner = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration lease;
+    private final String owner = UUID.randomUUID().toString();
+
+    private SnowflakeIdGenerator generator;
+
+    public NodeIdLease(JdbcTemplate jdbcTemplate, Duration lease) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.lease = lease;
+    }
+
+    /**
+     * @return a generator on a node id leased to this replica
+     * @throws IllegalStateException if every node id is leased
+     */
+    public synchronized SnowflakeIdGenerator acquire() {
+        long start = System.nanoTime();
+        generator = SnowflakeIdGenerator.leased(leaseNodeId(), deadline(start));
+        return generator;
+    }
+
+    @Scheduled(fixedDelayString = "${notification.id.node-lease-renewal:1m}")
+    public synchronized void renew() {
+        if (generator == null) {
+            return;
+        }
+        long nodeId = generator.getNodeId();
+        long start = System.nanoTime();
+        try {
+            if (jdbcTemplate.update(RENEW_SQL, lease.toMillis(), nodeId, owner) == 1) {
+                generator.renewLease(nodeId, deadline(start));
+                return;
+            }
+            long newNodeId = leaseNodeId();
+            generator.renewLease(newNodeId, deadline(start));
+            log.warn("Node id {} was taken over by another replica, continuing with node id {}", nodeId, newNodeId);
+        } catch (DataAccessException | IllegalStateException e) {
+            log.error("Failed to renew the lease of node id {}. Error: {}", nodeId, e.getMessage());
+        }
+    }
+
+    /**
+     * Stops the generator and hands the node id back right away instead of after the lease.
+     */
+    @PreDestroy
+    public synchronized void release() {
+        if (generator == null) {
+            return;
+        }
+        long nodeId = generator.getNodeId();
+        generator.renewLease(nodeId, System.nanoTime());
+        try {
+            jdbcTemplate.update(RELEASE_SQL, nodeId, owner);
+        } catch (DataAccessException e) {
+            log.warn("Failed to release node id {}. Error: {}", nodeId, e.getMessage());
+        }
+    }
+
+    private long leaseNodeId() {
+        List<Long> nodeIds = jdbcTemplate.queryForList(ACQUIRE_SQL, Long.class, owner, lease.toMillis());
+        if (nodeIds.isEmpty()) {
+            throw new IllegalStateException("All " + (SnowflakeIdGenerator.MAX_NODE_ID + 1)
+                    + " node ids are leased by other replicas");
+        }
+        return nodeIds.get(0);
+    }
+
+    /**
+     * Ends the local lease a tenth early, leaving room for clock drift between this replica and the database.
+     */
+    private long deadline(long startNanos) {
+        return startNanos + lease.toNanos() - lease.toNanos() / 10;
+    }
+}
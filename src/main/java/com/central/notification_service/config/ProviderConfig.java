@@ -0,0 +1,32 @@
+package com.central.notification_service.config;
+
+import com.central.notification_service.model.NotificationChannel;
+import com.central.notification_service.provider.ChannelProvider;
+import com.central.notification_service.provider.LoggingChannelProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Logging providers for the channels that are not backed by a real integration. Email uses the pooled SMTP
+ * provider when {@code notification.providers.email=smtp}.
+ */
+@Configuration
+public class ProviderConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "notification.providers.email", havingValue = "log", matchIfMissing = true)
+    public ChannelProvider loggingEmailProvider() {
+        return new LoggingChannelProvider(NotificationChannel.EMAIL);
+    }
+
+    @Bean
+    public ChannelProvider loggingSmsProvider() {
+        return new LoggingChannelProvider(NotificationChannel.SMS);
+    }
+
+    @Bean
+    public ChannelProvider loggingPushProvider() {
+        return new LoggingChannelProvider(NotificationChannel.PUSH);
+    }
+}
@@ -0,0 +1,67 @@
+package com.central.notification_service.config;
+
+import com.central.notification_service.datasource.ReplicaHealthMonitor;
+import com.central.notification_service.datasource.ReplicaProperties;
+import com.central.notification_service.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Primary and replica connection pools with read-only transactions routed to the replica. Only active with
+ * {@code notification.datasource.replica.enabled=true}; otherwise the single auto-configured pool is used.
+ *
+ * <p>The primary pool keeps its {@code spring.datasource.*} configuration. Both pools are Hikari pools with their
+ * own names, so their {@code hikaricp.*} meters are reported separately. The application-wide
+ * {@link DataSource} (JPA, JDBC templates, Flyway) is a lazy proxy over the routing data source; everything that
+ * is not a read-only transaction, migrations included, uses the primary.</p>
+ */
+@Configuration
+@ConditionalOnProperty(name = "notification.datasource.replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(@Value("${spring.datasource.url}") String url,
+                                              @Value("${spring.datasource.username}") String username,
+                                              @Value("${spring.datasource.password}") String password) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties(prefix = "notification.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaHealthMonitor replicaHealthMonitor(@Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                                     ReplicaProperties properties, MeterRegistry meterRegistry) {
+        return new ReplicaHealthMonitor(replicaDataSource, properties, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                 ReplicaHealthMonitor replicaHealthMonitor) {
+        replicaHealthMonitor.check();
+        return new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource, replicaHealthMonitor));
+    }
+}
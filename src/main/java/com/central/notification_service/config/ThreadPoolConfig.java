@@ -3,11 +3,14 @@ package com.central.notification_service.config;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
 import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Configuration class for managing thread pool executors in the application.
@@ -16,9 +19,12 @@ import org.springframework.scheduling.annotation.EnableAsync;
  * 2. CPU-bound task executor using platform threads
  * 
  * The configuration is designed to optimize performance for different types of workloads.
+ * Both executors are instrumented with {@link ExecutorServiceMetrics} ({@code executor.*} meters tagged with
+ * the bean name), which includes the queue depth and active threads of the CPU pool.
  */
 @Configuration
 @EnableAsync
+@EnableScheduling
 public class ThreadPoolConfig {
 
     /**
@@ -44,11 +50,13 @@ public class ThreadPoolConfig {
      * This executor uses virtual threads (Project Loom) which are lightweight
      * and ideal for tasks that spend most of their time waiting (e.g., I/O operations).
      *
+     * @param meterRegistry registry the executor metrics are published to
      * @return Configured ExecutorService for IO-bound tasks
      */
     @Bean(name = "ioTaskExecutor")
-    public ExecutorService ioTaskExecutor() {
-        ioExecutorService = Executors.newVirtualThreadPerTaskExecutor();
+    public ExecutorService ioTaskExecutor(MeterRegistry meterRegistry) {
+        ioExecutorService = ExecutorServiceMetrics.monitor(meterRegistry,
+                Executors.newVirtualThreadPerTaskExecutor(), "ioTaskExecutor");
         return ioExecutorService;
     }
 
@@ -57,14 +65,16 @@ public class ThreadPoolConfig {
      * This executor uses platform threads and is sized based on the number of available processors.
      * Threads are named with the configured prefix for better debugging.
      *
+     * @param meterRegistry registry the executor metrics are published to
      * @return Configured ExecutorService for CPU-bound tasks
      */
     @Bean(name = "cpuTaskExecutor")
-    public ExecutorService cpuTaskExecutor() {
+    public ExecutorService cpuTaskExecutor(MeterRegistry meterRegistry) {
         // Create a thread factory with the configured naming pattern
         ThreadFactory pf = Thread.ofPlatform().name(cpuNamePrefix, 0).factory();
         // Ensure we always have at least 1 thread in the pool
-        cpuExecutorService = Executors.newFixedThreadPool(Math.max(1, cpuPoolSize), pf);
+        cpuExecutorService = ExecutorServiceMetrics.monitor(meterRegistry,
+                Executors.newFixedThreadPool(Math.max(1, cpuPoolSize), pf), "cpuTaskExecutor");
         return cpuExecutorService;
     }
 
@@ -2,5 +2,14 @@ package com.central.notification_service.constants;
 
 public class Constants {
 
+    /**
+     * Page size used by the notification history endpoint when the client does not ask for one.
+     */
+    public static final int DEFAULT_HISTORY_PAGE_SIZE = 50;
+
+    /**
+     * Upper bound for a single notification history page.
+     */
+    public static final int MAX_HISTORY_PAGE_SIZE = 200;
 
 }
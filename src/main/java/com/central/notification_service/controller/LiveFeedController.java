@@ -0,0 +1,47 @@
+package com.central.notification_service.controller;
+
+import com.central.notification_service.live.LiveFeedHub;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Live feed of a user's new notifications as server-sent events, instead of polling the history.
+ *
+ * <p>{@code GET /notifications/{userId}/live} streams a {@code notification} event (the notification as JSON, with
+ * its id as event id) for every notification stored from then on, and a {@code dropped} event with the number of
+ * notifications skipped when the client fell behind. Clients load the history once, then follow the feed, and
+ * reload the history after a {@code dropped} event or a reconnect. A node without free capacity answers 503.</p>
+ *
+ * <p>Documented in the OpenAPI spec under the {@code LiveFeed} tag, but implemented here rather than through the
+ * generated interface because the body is an event stream rather than a model.</p>
+ */
+@RestController
+public class LiveFeedController {
+
+    private static final String RETRY_AFTER_SECONDS = "5";
+
+    @Autowired
+    private LiveFeedHub liveFeedHub;
+
+    @GetMapping(path = "/notifications/{userId}/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> liveNotifications(@PathVariable String userId) {
+        if (userId == null || userId.isBlank()) {
+            throw new IllegalArgumentException("userId must not be blank");
+        }
+        SseEmitter emitter = liveFeedHub.subscribe(userId);
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                    .build();
+        }
+        // Keeps buffering proxies such as nginx from holding events back
+        return ResponseEntity.ok().header("X-Accel-Buffering", "no").body(emitter);
+    }
+}
@@ -1,6 +1,12 @@
 package com.central.notification_service.controller;
 
 
+import com.central.notification_service.constants.Constants;
+import com.central.notification_service.model.ContentMode;
+import com.central.notification_service.model.NotificationChannel;
+import com.central.notification_service.model.NotificationCursor;
+import com.central.notification_service.model.NotificationHistoryQuery;
+import com.central.notification_service.model.NotificationType;
 import com.central.notification_service.service.NotificationService;
 import org.openapitools.api.NotificationsApi;
 import lombok.extern.slf4j.Slf4j;
@@ -9,6 +15,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+
 @Slf4j
 @RestController
 public class NotificationController implements NotificationsApi {
@@ -17,8 +27,30 @@ public class NotificationController implements NotificationsApi {
     private NotificationService notificationService;
 
     @Override
-    public ResponseEntity<NotificationsList> getNotificationsByUserId(String userId) {
-        return notificationService.getNotificationsByUserId(userId);
+    public ResponseEntity<NotificationsList> getNotificationsByUserId(String userId, Integer limit, String cursor,
+                                                                      String type, String channel,
+                                                                      OffsetDateTime from, OffsetDateTime to,
+                                                                      String content) {
+        NotificationHistoryQuery query = NotificationHistoryQuery.builder()
+                .userId(userId)
+                .limit(limit == null
+                        ? Constants.DEFAULT_HISTORY_PAGE_SIZE
+                        : Math.min(Math.max(limit, 1), Constants.MAX_HISTORY_PAGE_SIZE))
+                .cursor(cursor == null || cursor.isBlank() ? null : NotificationCursor.decode(cursor))
+                .type(NotificationType.of(type))
+                .channel(NotificationChannel.of(channel))
+                .from(toLocalDateTime(from))
+                .to(toLocalDateTime(to))
+                .content(ContentMode.of(content))
+                .build();
+        return notificationService.getNotificationsByUserId(query);
+    }
+
+    /**
+     * Converts a request timestamp to the zone in which {@code sent_at} is stored.
+     */
+    private static LocalDateTime toLocalDateTime(OffsetDateTime timestamp) {
+        return timestamp == null ? null : timestamp.atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
     }
 
 }
@@ -0,0 +1,119 @@
+package com.central.notification_service.controller;
+
+import com.central.notification_service.export.ExportFormat;
+import com.central.notification_service.export.NotificationExporter;
+import com.central.notification_service.model.NotificationChannel;
+import com.central.notification_service.model.NotificationCursor;
+import com.central.notification_service.model.NotificationExportQuery;
+import com.central.notification_service.model.NotificationType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bulk export of notifications for support and compliance, streamed as NDJSON or CSV.
+ *
+ * <p>{@code GET /exports/notifications?userId=...} exports one user's notifications, optionally limited by
+ * {@code from}/{@code to}; exports across users need both {@code from} and {@code to}. Rows come oldest first and
+ * each carries a {@code cursor}; passing the cursor of the last received row as {@code after} resumes the export
+ * behind it. The body is gzip-compressed when the client accepts it.</p>
+ *
+ * <p>Lives outside {@code /notifications/} so it cannot be mistaken for the history of a user named
+ * {@code export}. Documented in the OpenAPI spec under the {@code Exports} tag, but implemented here rather than
+ * through the generated interface because the body is streamed rather than returned as a model.</p>
+ */
+@Slf4j
+@RestController
+public class NotificationExportController {
+
+    @Autowired
+    private NotificationExporter notificationExporter;
+
+    @GetMapping("/exports/notifications")
+    public ResponseEntity<StreamingResponseBody> exportNotifications(
+            @RequestParam(required = false) String userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String channel,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "0") long limit,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        if ((userId == null || userId.isBlank()) && (from == null || to == null)) {
+            throw new IllegalArgumentException("An export needs a userId or both from and to");
+        }
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit must not be negative");
+        }
+        ExportFormat exportFormat = ExportFormat.of(format);
+        NotificationExportQuery query = NotificationExportQuery.builder()
+                .userId(userId == null || userId.isBlank() ? null : userId)
+                .type(NotificationType.of(type))
+                .channel(NotificationChannel.of(channel))
+                .from(toLocalDateTime(from))
+                .to(toLocalDateTime(to))
+                .after(after == null || after.isBlank() ? null : NotificationCursor.decode(after))
+                .limit(limit)
+                .build();
+
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+        StreamingResponseBody body = out -> {
+            OutputStream target = nonClosing(out);
+            if (gzip) {
+                try (GZIPOutputStream compressed = new GZIPOutputStream(target, 64 * 1024)) {
+                    notificationExporter.export(query, exportFormat, compressed);
+                }
+            } else {
+                notificationExporter.export(query, exportFormat, target);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(exportFormat.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"notifications." + exportFormat.extension() + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    /**
+     * The writers close their stream when done; the response stream itself is closed by the container.
+     */
+    private static OutputStream nonClosing(OutputStream out) {
+        return new FilterOutputStream(out) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+    }
+
+    private static LocalDateTime toLocalDateTime(OffsetDateTime timestamp) {
+        return timestamp == null ? null : timestamp.atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+    }
+}
@@ -0,0 +1,76 @@
+package com.central.notification_service.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Periodically checks that the replica answers and how far it lags behind the primary. Reads are routed to the
+ * primary while the replica is unreachable or lags by more than {@code max-lag}.
+ *
+ * <p>Meters: {@code notification.datasource.replica.available} (1 or 0) and
+ * {@code notification.datasource.replica.lag} in seconds.</p>
+ */
+@Slf4j
+public class ReplicaHealthMonitor {
+
+    /**
+     * A replica that has replayed everything it received is not lagging, even if the last replayed transaction
+     * is old because the primary has been idle.
+     */
+    private static final String LAG_SQL = """
+            SELECT CASE
+                       WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                       ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+                   END
+            """;
+
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final Duration maxLag;
+    private volatile boolean available;
+    private volatile double lagSeconds;
+
+    public ReplicaHealthMonitor(DataSource replica, ReplicaProperties properties, MeterRegistry meterRegistry) {
+        this.replicaJdbcTemplate = new JdbcTemplate(replica);
+        this.replicaJdbcTemplate.setQueryTimeout((int) Math.max(1, properties.getHealthCheckInterval().toSeconds()));
+        this.maxLag = properties.getMaxLag();
+        Gauge.builder("notification.datasource.replica.available", this, monitor -> monitor.available ? 1 : 0)
+                .description("Whether read-only transactions are routed to the replica")
+                .register(meterRegistry);
+        Gauge.builder("notification.datasource.replica.lag", this, monitor -> monitor.lagSeconds)
+                .description("Replication lag of the replica")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    @Scheduled(fixedDelayString = "${notification.datasource.replica.health-check-interval:5s}")
+    public void check() {
+        boolean healthy;
+        try {
+            Double lag = replicaJdbcTemplate.queryForObject(LAG_SQL, Double.class);
+            lagSeconds = lag == null ? 0 : lag;
+            healthy = lagSeconds * 1000 <= maxLag.toMillis();
+            if (!healthy && available) {
+                log.warn("Replica lags {} s behind the primary, routing reads to the primary", lagSeconds);
+            }
+        } catch (RuntimeException e) {
+            healthy = false;
+            if (available) {
+                log.warn("Replica health check failed, routing reads to the primary. Error: {}", e.getMessage());
+            }
+        }
+        if (healthy && !available) {
+            log.info("Replica is healthy (lag {} s), routing read-only transactions to it", lagSeconds);
+        }
+        available = healthy;
+    }
+}
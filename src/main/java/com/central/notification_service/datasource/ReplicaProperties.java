@@ -0,0 +1,30 @@
+package com.central.notification_service.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Read replica routing, bound from {@code notification.datasource.replica.*}. The replica pool itself is
+ * configured under {@code notification.datasource.replica.hikari.*} like any Hikari pool.
+ */
+@Data
+@ConfigurationProperties(prefix = "notification.datasource.replica")
+public class ReplicaProperties {
+
+    /**
+     * Route read-only transactions to the replica pool.
+     */
+    private boolean enabled;
+
+    /**
+     * Replication lag above which reads go to the primary until the replica has caught up.
+     */
+    private Duration maxLag = Duration.ofSeconds(10);
+
+    /**
+     * How often the replica's availability and lag are checked.
+     */
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+}
@@ -0,0 +1,199 @@
+package com.central.notification_service.dispatch;
+
+import com.central.notification_service.metrics.NotificationMetrics;
+import com.central.notification_service.model.NotificationChannel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs channel deliveries on the virtual-thread {@code ioTaskExecutor} with per-channel bulkheads.
+ *
+ * <p>Each channel has two limits: the number of provider calls running concurrently and the number of
+ * deliveries accepted (running plus waiting). When a channel is full the caller waits at most
+ * {@code acquireTimeout} for a slot; if none frees up the delivery is rejected and the caller puts it back.
+ * While a channel is full all Kafka listener containers are paused, so the consumers stop adding to the backlog
+ * while it drains. They are resumed once every channel has dropped below the configured resume threshold.</p>
+ */
+@Slf4j
+@Component
+public class ChannelDispatcher {
+
+    private final ExecutorService ioTaskExecutor;
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final NotificationMetrics metrics;
+    private final double resumeThreshold;
+    private final long acquireTimeoutNanos;
+    private final Map<NotificationChannel, ChannelLane> lanes = new EnumMap<>(NotificationChannel.class);
+    private final AtomicBoolean listenersPaused = new AtomicBoolean();
+
+    @Autowired
+    public ChannelDispatcher(@Qualifier("ioTaskExecutor") ExecutorService ioTaskExecutor,
+                             KafkaListenerEndpointRegistry listenerRegistry,
+                             DispatchProperties properties,
+                             NotificationMetrics metrics) {
+        this.ioTaskExecutor = ioTaskExecutor;
+        this.listenerRegistry = listenerRegistry;
+        this.metrics = metrics;
+        this.resumeThreshold = properties.getResumeThreshold();
+        this.acquireTimeoutNanos = properties.getAcquireTimeout().toNanos();
+        for (NotificationChannel channel : NotificationChannel.values()) {
+            DispatchProperties.ChannelLimits limits = properties.limitsFor(channel);
+            lanes.put(channel, new ChannelLane(limits.getMaxConcurrency(), limits.getQueueCapacity()));
+            metrics.registerDispatchLane(channel, () -> inFlight(channel), () -> pending(channel));
+            log.info("Dispatch lane {} configured with concurrency {} and queue capacity {}",
+                    channel, limits.getMaxConcurrency(), limits.getQueueCapacity());
+        }
+    }
+
+    /**
+     * Submits a delivery for the given channel. Waits at most {@code acquireTimeout} while the channel is at
+     * capacity.
+     *
+     * @param channel   the channel the delivery goes through
+     * @param reference identifier used in log lines (e.g. the transaction id)
+     * @param delivery  the blocking provider call
+     * @return a future completed when the delivery finished, exceptionally if it failed or was rejected
+     */
+    public CompletableFuture<Void> dispatch(NotificationChannel channel, String reference, Runnable delivery) {
+        return dispatch(channel, reference, 0, delivery);
+    }
+
+    /**
+     * Submits a delivery that may only call the provider after a delay, e.g. once its rate limit permit is valid.
+     * The delay is spent before taking a concurrency slot, so waiting deliveries do not hold up others.
+     *
+     * @param channel    the channel the delivery goes through
+     * @param reference  identifier used in log lines (e.g. the transaction id)
+     * @param delayNanos time to wait before calling the provider
+     * @param delivery   the blocking provider call
+     * @return a future completed when the delivery finished, exceptionally if it failed; when the channel stayed
+     * full for {@code acquireTimeout} it is already failed with a {@link RejectedExecutionException} on return and
+     * the delivery was not run
+     */
+    public CompletableFuture<Void> dispatch(NotificationChannel channel, String reference, long delayNanos,
+                                            Runnable delivery) {
+        ChannelLane lane = lanes.get(channel);
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        if (!lane.capacity.tryAcquire()) {
+            if (listenersPaused.compareAndSet(false, true)) {
+                log.warn("{} dispatch lane is saturated, pausing Kafka listeners", channel);
+                listenerRegistry.getListenerContainers().forEach(MessageListenerContainer::pause);
+            }
+            if (!tryAcquire(lane)) {
+                result.completeExceptionally(new RejectedExecutionException(channel + " dispatch lane is full"));
+                return result;
+            }
+        }
+
+        try {
+            ioTaskExecutor.execute(() -> runDelivery(channel, lane, reference, delayNanos, delivery, result));
+        } catch (RejectedExecutionException e) {
+            lane.capacity.release();
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    /**
+     * @return the number of deliveries currently calling the channel's provider
+     */
+    public int inFlight(NotificationChannel channel) {
+        ChannelLane lane = lanes.get(channel);
+        return lane.maxConcurrency - lane.concurrency.availablePermits();
+    }
+
+    /**
+     * @return the number of deliveries accepted for the channel and not yet finished
+     */
+    public int pending(NotificationChannel channel) {
+        ChannelLane lane = lanes.get(channel);
+        return lane.queueCapacity - lane.capacity.availablePermits();
+    }
+
+    private void runDelivery(NotificationChannel channel, ChannelLane lane, String reference, long delayNanos,
+                             Runnable delivery, CompletableFuture<Void> result) {
+        try {
+            if (delayNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(delayNanos);
+            }
+            lane.concurrency.acquire();
+            long start = System.nanoTime();
+            try {
+                delivery.run();
+                long elapsed = System.nanoTime() - start;
+                metrics.recordDispatch(channel, elapsed, true);
+                if (log.isDebugEnabled()) {
+                    log.debug("Successfully sent {} for transaction: {} - Took {} ms",
+                            channel, reference, TimeUnit.NANOSECONDS.toMillis(elapsed));
+                }
+                result.complete(null);
+            } catch (Exception e) {
+                metrics.recordDispatch(channel, System.nanoTime() - start, false);
+                throw e;
+            } finally {
+                lane.concurrency.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.completeExceptionally(e);
+        } catch (Exception e) {
+            log.error("Failed to send {} for transaction {}. Error: {}", channel, reference, e.getMessage(), e);
+            result.completeExceptionally(e);
+        } finally {
+            lane.capacity.release();
+            resumeListenersIfDrained();
+        }
+    }
+
+    private boolean tryAcquire(ChannelLane lane) {
+        try {
+            return lane.capacity.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void resumeListenersIfDrained() {
+        if (!listenersPaused.get()) {
+            return;
+        }
+        for (ChannelLane lane : lanes.values()) {
+            if (lane.queueCapacity - lane.capacity.availablePermits() > lane.queueCapacity * resumeThreshold) {
+                return;
+            }
+        }
+        if (listenersPaused.compareAndSet(true, false)) {
+            log.info("Dispatch lanes drained below {}% of capacity, resuming Kafka listeners",
+                    (int) (resumeThreshold * 100));
+            listenerRegistry.getListenerContainers().forEach(MessageListenerContainer::resume);
+        }
+    }
+
+    private static final class ChannelLane {
+        private final int maxConcurrency;
+        private final int queueCapacity;
+        private final Semaphore concurrency;
+        private final Semaphore capacity;
+
+        private ChannelLane(int maxConcurrency, int queueCapacity) {
+            this.maxConcurrency = Math.max(1, maxConcurrency);
+            this.queueCapacity = Math.max(this.maxConcurrency, queueCapacity);
+            this.concurrency = new Semaphore(this.maxConcurrency);
+            this.capacity = new Semaphore(this.queueCapacity);
+        }
+    }
+}
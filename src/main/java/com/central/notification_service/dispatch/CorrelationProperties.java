@@ -0,0 +1,51 @@
+package com.central.notification_service.dispatch;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Event-time correlation of reward pushes with their transaction notifications, bound from
+ * {@code notification.correlation.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "notification.correlation")
+public class CorrelationProperties {
+
+    /**
+     * Hold reward deliveries whose transaction has not been consumed yet.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Longest time a reward delivery is held for its transaction; it is sent afterwards in any case.
+     */
+    private Duration maxHold = Duration.ofSeconds(5);
+
+    /**
+     * How far behind the newest record of a transaction partition its stragglers may still arrive. The watermark
+     * of a partition trails its newest record timestamp by this much.
+     */
+    private Duration allowedLateness = Duration.ofSeconds(1);
+
+    /**
+     * Partitions without records for this long no longer hold the watermark back.
+     */
+    private Duration idleTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Maximum number of rewards held in memory; further rewards are sent without waiting.
+     */
+    private int maxHeld = 50_000;
+
+    /**
+     * Maximum number of transactions whose notifications are remembered for rewards that arrive later.
+     */
+    private long maxTrackedTransactions = 200_000;
+
+    /**
+     * How long the notifications of a transaction are remembered.
+     */
+    private Duration partnerRetention = Duration.ofMinutes(10);
+}
@@ -0,0 +1,136 @@
+package com.central.notification_service.dispatch;
+
+import com.central.notification_service.model.DeliveryStatus;
+import com.central.notification_service.model.Notification;
+import com.central.notification_service.model.NotificationChannel;
+import com.central.notification_service.model.OutboxDelivery;
+import com.central.notification_service.preferences.PreferenceStore;
+import com.central.notification_service.preferences.UserPreferences;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decides through which channels, and to which addresses, a notification is delivered.
+ * Users with preferences get every channel they enabled and have an address for, unless they opted out of the
+ * notification type; everyone else gets the default channels of the type. Preferences are looked up in memory.
+ * Deliveries of channels that are coalesced into digests are held until the end of the digest window.
+ * Deliveries of a scheduled send, and of the types configured in {@code notification.schedule.quiet-hours-types}
+ * during the user's quiet hours, are not due before that time; they are never coalesced.
+ */
+@Component
+public class DeliveryPlanner {
+
+    private static final int SMS_CONTENT_LENGTH = 100;
+
+    private final DigestProperties digestProperties;
+    private final PreferenceStore preferenceStore;
+    private final ScheduleProperties scheduleProperties;
+
+    @Autowired
+    public DeliveryPlanner(DigestProperties digestProperties, PreferenceStore preferenceStore,
+                           ScheduleProperties scheduleProperties) {
+        this.digestProperties = digestProperties;
+        this.preferenceStore = preferenceStore;
+        this.scheduleProperties = scheduleProperties;
+    }
+
+    /**
+     * Creates the outbox deliveries for a batch of notifications.
+     *
+     * @param notifications saved notifications (ids already assigned)
+     * @param sendAt        earliest time to send, {@code null} or past to send right away
+     * @return one delivery per notification and channel
+     */
+    public List<OutboxDelivery> plan(List<Notification> notifications, Instant sendAt) {
+        Instant instant = Instant.now();
+        LocalDateTime now = LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+        List<OutboxDelivery> deliveries = new ArrayList<>(notifications.size() * 2);
+        for (Notification notification : notifications) {
+            UserPreferences preferences = preferenceStore.find(notification.getUserId());
+            Slot slot = new Slot(now, notBefore(notification, preferences, sendAt, instant));
+            if (preferences != null) {
+                planByPreferences(notification, preferences, deliveries, slot);
+                continue;
+            }
+            switch (notification.getType()) {
+                case TRANSACTION_SUCCESS, TRANSACTION_FAILED -> {
+                    deliveries.add(delivery(notification, NotificationChannel.EMAIL,
+                            notification.getUserId() + "@example.com", notification.getContent(), slot));
+                    // For demo, using a dummy phone number based on userId
+                    deliveries.add(delivery(notification, NotificationChannel.SMS,
+                            "+1" + notification.getUserId().hashCode() % 1000000000, smsBody(notification), slot));
+                }
+                case REWARD_GRANTED -> deliveries.add(delivery(notification, NotificationChannel.PUSH,
+                        notification.getUserId(), notification.getContent(), slot));
+            }
+        }
+        return deliveries;
+    }
+
+    /**
+     * @return the time before which the notification must not be delivered, {@code null} for no restriction
+     */
+    private LocalDateTime notBefore(Notification notification, UserPreferences preferences, Instant sendAt,
+                                    Instant now) {
+        Instant notBefore = sendAt != null && sendAt.isAfter(now) ? sendAt : null;
+        if (preferences != null && scheduleProperties.getQuietHoursTypes().contains(notification.getType())) {
+            Instant quietUntil = preferences.quietUntil(notBefore != null ? notBefore : now);
+            if (quietUntil != null) {
+                notBefore = quietUntil;
+            }
+        }
+        return notBefore == null ? null : LocalDateTime.ofInstant(notBefore, ZoneId.systemDefault());
+    }
+
+    private void planByPreferences(Notification notification, UserPreferences preferences,
+                                   List<OutboxDelivery> deliveries, Slot slot) {
+        for (NotificationChannel channel : NotificationChannel.values()) {
+            if (!preferences.allows(notification.getType(), channel)) {
+                continue;
+            }
+            String recipient = preferences.recipient(channel, notification.getUserId());
+            if (recipient != null && !recipient.isBlank()) {
+                deliveries.add(delivery(notification, channel, recipient,
+                        channel == NotificationChannel.SMS ? smsBody(notification) : notification.getContent(), slot));
+            }
+        }
+    }
+
+    private static String smsBody(Notification notification) {
+        String content = notification.getContent();
+        return notification.getSubject() + " - " + content.substring(0, Math.min(SMS_CONTENT_LENGTH, content.length()));
+    }
+
+    private OutboxDelivery delivery(Notification notification, NotificationChannel channel, String recipient,
+                                    String body, Slot slot) {
+        LocalDateTime now = slot.now();
+        boolean coalesced = slot.notBefore() == null && digestProperties.appliesTo(channel);
+        return OutboxDelivery.builder()
+                .notificationId(notification.getNotificationId())
+                .transactionId(notification.getTransactionId())
+                .userId(notification.getUserId())
+                .notificationType(notification.getType())
+                .channel(channel)
+                .recipient(recipient)
+                .subject(notification.getSubject())
+                .body(body)
+                .status(DeliveryStatus.PENDING)
+                .nextAttemptAt(slot.notBefore() != null ? slot.notBefore()
+                        : coalesced ? now.plus(digestProperties.getWindow()) : now)
+                .createdAt(now)
+                .digestKey(coalesced ? notification.getUserId() + ':' + channel.name() : null)
+                .build();
+    }
+
+    /**
+     * Planning time and the earliest send time of a notification's deliveries.
+     */
+    private record Slot(LocalDateTime now, LocalDateTime notBefore) {
+    }
+}
@@ -0,0 +1,220 @@
+package com.central.notification_service.dispatch;
+
+import com.central.notification_service.model.DeliveryStatus;
+import com.central.notification_service.model.OutboxDelivery;
+import com.central.notification_service.repository.OutboxDeliveryBatchRepository.PromotedDelivery;
+import com.central.notification_service.repository.OutboxDeliveryRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Brings deferred deliveries (quiet hours, scheduled sends, holds) out on time without scanning the outbox.
+ *
+ * <p>A delivery due within the horizon ({@code 2 * bucket}) is written PENDING as usual and, once its transaction
+ * commits, put on the relay's wake-up wheel, so it is claimed within a wheel tick of its due time. A delivery due
+ * later is written SCHEDULED with a shard derived from its user; the relay's claim query never sees it.</p>
+ *
+ * <p>Every {@code bucket} each replica renews the leases of its shards and then promotes, per owned shard, the
+ * SCHEDULED deliveries due within the horizon to PENDING and onto its wake-up wheel. Promotion is an index range
+ * scan over the next bucket of a shard, however many deliveries are scheduled further ahead. Shards are divided
+ * evenly among the live replicas: a replica takes unowned or expired shards up to its share and gives back those
+ * above it, so a crashed replica's shards move after one lease. Leases use the database clock. Promotion only
+ * touches SCHEDULED rows with {@code SKIP LOCKED}, so a shard briefly owned twice is still promoted once.</p>
+ */
+@Slf4j
+@Component
+public class DeliveryScheduler {
+
+    private static final String CREATE_SHARDS_SQL = """
+            INSERT INTO scheduler_shard_leases (shard)
+            SELECT generate_series(0, ? - 1)
+            ON CONFLICT DO NOTHING
+            """;
+
+    private static final String HEARTBEAT_SQL = """
+            INSERT INTO scheduler_members (owner, alive_until)
+            VALUES (?, clock_timestamp() + ? * interval '1 millisecond')
+            ON CONFLICT (owner) DO UPDATE SET alive_until = excluded.alive_until
+            """;
+
+    private static final String EXPIRE_MEMBERS_SQL =
+            "DELETE FROM scheduler_members WHERE alive_until < clock_timestamp()";
+
+    private static final String COUNT_MEMBERS_SQL = "SELECT count(*) FROM scheduler_members";
+
+    private static final String RENEW_SQL = """
+            UPDATE scheduler_shard_leases SET lease_until = clock_timestamp() + ? * interval '1 millisecond'
+            WHERE owner = ? AND shard < ?
+            RETURNING shard
+            """;
+
+    private static final String ACQUIRE_SQL = """
+            UPDATE scheduler_shard_leases SET owner = ?, lease_until = clock_timestamp() + ? * interval '1 millisecond'
+            WHERE shard IN (SELECT shard FROM scheduler_shard_leases
+                            WHERE shard < ? AND lease_until < clock_timestamp()
+                            ORDER BY shard
+                            LIMIT ?
+                            FOR UPDATE SKIP LOCKED)
+            RETURNING shard
+            """;
+
+    private static final String RELEASE_SQL = """
+            UPDATE scheduler_shard_leases SET owner = NULL, lease_until = '-infinity'
+            WHERE owner = ? AND shard = ?
+            """;
+
+    private static final String RELEASE_ALL_SQL = """
+            UPDATE scheduler_shard_leases SET owner = NULL, lease_until = '-infinity' WHERE owner = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OutboxDeliveryRepository outboxRepository;
+    private final OutboxRelay outboxRelay;
+    private final ScheduleProperties properties;
+    private final String owner = UUID.randomUUID().toString();
+
+    private boolean shardsCreated;
+
+    @Autowired
+    public DeliveryScheduler(JdbcTemplate jdbcTemplate, OutboxDeliveryRepository outboxRepository,
+                             OutboxRelay outboxRelay, ScheduleProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.outboxRepository = outboxRepository;
+        this.outboxRelay = outboxRelay;
+        this.properties = properties;
+    }
+
+    /**
+     * Marks deliveries due beyond the horizon as SCHEDULED and arranges wake-ups for the nearer ones. Must be
+     * called before the deliveries are saved. Deliveries of digest windows are left to the digest tracker.
+     *
+     * @param deliveries planned deliveries
+     */
+    public void schedule(List<OutboxDelivery> deliveries) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime horizon = now.plus(properties.horizon());
+        List<OutboxDelivery> nearTerm = new ArrayList<>();
+        for (OutboxDelivery delivery : deliveries) {
+            if (delivery.getDigestKey() != null || !delivery.getNextAttemptAt().isAfter(now)) {
+                continue;
+            }
+            if (delivery.getNextAttemptAt().isBefore(horizon)) {
+                nearTerm.add(delivery);
+            } else {
+                delivery.setStatus(DeliveryStatus.SCHEDULED);
+                delivery.setScheduleShard((short) Math.floorMod(delivery.getUserId().hashCode(),
+                        properties.getShards()));
+            }
+        }
+        if (nearTerm.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    wakeUpRelay(nearTerm);
+                }
+            });
+        } else {
+            wakeUpRelay(nearTerm);
+        }
+    }
+
+    /**
+     * Renews this replica's shards and promotes their deliveries due within the horizon.
+     */
+    @Scheduled(fixedDelayString = "${notification.schedule.bucket:5s}")
+    public synchronized void promoteDueDeliveries() {
+        try {
+            List<Integer> shards = renewLeases();
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime horizon = now.plus(properties.horizon());
+            int batchSize = properties.getPromoteBatchSize();
+            int promoted = 0;
+            for (int shard : shards) {
+                int promotedFromShard = 0;
+                List<PromotedDelivery> batch;
+                do {
+                    batch = outboxRepository.promoteScheduled(shard, horizon, batchSize);
+                    for (PromotedDelivery delivery : batch) {
+                        outboxRelay.wakeUpAfter(delivery.deliveryId(), Duration.between(now, delivery.dueAt()));
+                    }
+                    promotedFromShard += batch.size();
+                } while (batch.size() == batchSize && promotedFromShard < properties.getMaxPromotedPerShard());
+                promoted += promotedFromShard;
+            }
+            if (promoted > 0) {
+                log.debug("Promoted {} scheduled deliveries from {} shards", promoted, shards.size());
+            }
+        } catch (DataAccessException e) {
+            log.warn("Failed to promote scheduled deliveries. Error: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Hands this replica's shards to the others right away instead of after the lease.
+     */
+    @PreDestroy
+    public synchronized void releaseLeases() {
+        try {
+            jdbcTemplate.update(RELEASE_ALL_SQL, owner);
+            jdbcTemplate.update("DELETE FROM scheduler_members WHERE owner = ?", owner);
+        } catch (DataAccessException e) {
+            log.warn("Failed to release scheduler shards. Error: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return the shards this replica owns for the next lease period
+     */
+    private List<Integer> renewLeases() {
+        int shardCount = properties.getShards();
+        long leaseMillis = properties.getLease().toMillis();
+        if (!shardsCreated) {
+            jdbcTemplate.update(CREATE_SHARDS_SQL, shardCount);
+            shardsCreated = true;
+        }
+        jdbcTemplate.update(HEARTBEAT_SQL, owner, leaseMillis);
+        jdbcTemplate.update(EXPIRE_MEMBERS_SQL);
+        Integer members = jdbcTemplate.queryForObject(COUNT_MEMBERS_SQL, Integer.class);
+        int share = Math.ceilDiv(shardCount, Math.max(1, members == null ? 1 : members));
+
+        List<Integer> owned = new ArrayList<>(jdbcTemplate.queryForList(RENEW_SQL, Integer.class,
+                leaseMillis, owner, shardCount));
+        if (owned.size() < share) {
+            owned.addAll(jdbcTemplate.queryForList(ACQUIRE_SQL, Integer.class,
+                    owner, leaseMillis, shardCount, share - owned.size()));
+        } else if (owned.size() > share) {
+            List<Integer> surplus = owned.subList(share, owned.size());
+            jdbcTemplate.batchUpdate(RELEASE_SQL, surplus, surplus.size(),
+                    (ps, shard) -> {
+                        ps.setString(1, owner);
+                        ps.setInt(2, shard);
+                    });
+            log.info("Handed {} scheduler shards over to other replicas", surplus.size());
+            surplus.clear();
+        }
+        return owned;
+    }
+
+    private void wakeUpRelay(List<OutboxDelivery> deliveries) {
+        LocalDateTime now = LocalDateTime.now();
+        for (OutboxDelivery delivery : deliveries) {
+            outboxRelay.wakeUpAfter(delivery.getDeliveryId(), Duration.between(now, delivery.getNextAttemptAt()));
+        }
+    }
+}
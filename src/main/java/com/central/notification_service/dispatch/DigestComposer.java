@@ -0,0 +1,54 @@
+package com.central.notification_service.dispatch;
+
+import com.central.notification_service.model.OutboxDelivery;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Combines the deliveries of a digest window into the single message sent to the user.
+ */
+public final class DigestComposer {
+
+    private static final int SMS_DIGEST_LENGTH = 320;
+
+    private DigestComposer() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * @param deliveries deliveries of one window (same user and channel)
+     * @return a transient delivery carrying the combined message; it is never persisted
+     */
+    public static OutboxDelivery compose(List<OutboxDelivery> deliveries) {
+        List<OutboxDelivery> ordered = deliveries.stream()
+                .sorted(Comparator.comparing(OutboxDelivery::getCreatedAt))
+                .toList();
+        OutboxDelivery first = ordered.get(0);
+        String subject = String.format("You have %d new notifications", ordered.size());
+
+        String body = switch (first.getChannel()) {
+            case EMAIL -> ordered.stream()
+                    .map(delivery -> delivery.getSubject() + "\n" + delivery.getBody())
+                    .collect(Collectors.joining("\n\n"));
+            case SMS, PUSH -> truncate(ordered.size() + " new notifications: " + ordered.stream()
+                    .map(OutboxDelivery::getSubject)
+                    .collect(Collectors.joining("; ")));
+        };
+
+        return OutboxDelivery.builder()
+                .transactionId(first.getTransactionId())
+                .userId(first.getUserId())
+                .channel(first.getChannel())
+                .recipient(first.getRecipient())
+                .subject(subject)
+                .body(body)
+                .digestKey(first.getDigestKey())
+                .build();
+    }
+
+    private static String truncate(String text) {
+        return text.length() <= SMS_DIGEST_LENGTH ? text : text.substring(0, SMS_DIGEST_LENGTH - 3) + "...";
+    }
+}
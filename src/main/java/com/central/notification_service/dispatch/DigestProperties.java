@@ -0,0 +1,50 @@
+package com.central.notification_service.dispatch;
+
+import com.central.notification_service.model.NotificationChannel;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Coalescing of a user's deliveries into digests, bound from {@code notification.digest.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "notification.digest")
+public class DigestProperties {
+
+    /**
+     * Hold deliveries of the configured channels and send them as one combined message per window.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Channels whose deliveries are coalesced.
+     */
+    private Set<NotificationChannel> channels = EnumSet.of(NotificationChannel.EMAIL, NotificationChannel.SMS);
+
+    /**
+     * Time from the first delivery of a window until the digest is sent.
+     */
+    private Duration window = Duration.ofMinutes(2);
+
+    /**
+     * Number of deliveries after which a window is sent early.
+     */
+    private int maxCount = 10;
+
+    /**
+     * Maximum number of open windows tracked in memory. Windows evicted under pressure are sent early.
+     */
+    private long maxTrackedWindows = 100_000;
+
+    /**
+     * @param channel a delivery channel
+     * @return whether deliveries of the channel are coalesced
+     */
+    public boolean appliesTo(NotificationChannel channel) {
+        return enabled && channels.contains(channel);
+    }
+}
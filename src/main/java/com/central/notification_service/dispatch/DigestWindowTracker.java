@@ -0,0 +1,127 @@
+package com.central.notification_service.dispatch;
+
+import com.central.notification_service.model.OutboxDelivery;
+import com.central.notification_service.repository.OutboxDeliveryRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the deliveries of open digest windows so a window can be sent before its time is up.
+ *
+ * <p>The windows themselves are persisted: every coalesced delivery is a PENDING outbox row with a digest key and a
+ * {@code next_attempt_at} at the end of its window. This tracker only keeps the per-window counts, bounded in
+ * size. A window is released early, i.e. its rows are made due immediately by the relay, when it reaches the
+ * maximum count or when it is evicted because too many windows are open. After a restart the counts are rebuilt
+ * from the pending rows.</p>
+ */
+@Slf4j
+@Component
+public class DigestWindowTracker {
+
+    private final DigestProperties properties;
+    private final OutboxDeliveryRepository outboxRepository;
+    private final Cache<String, AtomicInteger> openWindows;
+    private final Queue<String> releasedWindows = new ConcurrentLinkedQueue<>();
+
+    @Autowired
+    public DigestWindowTracker(DigestProperties properties, OutboxDeliveryRepository outboxRepository) {
+        this.properties = properties;
+        this.outboxRepository = outboxRepository;
+        this.openWindows = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxTrackedWindows())
+                // Windows are sent by the relay once due; the entry only has to outlive its window
+                .expireAfterWrite(properties.getWindow().multipliedBy(2))
+                .executor(Runnable::run)
+                .removalListener((String digestKey, AtomicInteger count, RemovalCause cause) -> {
+                    if (cause == RemovalCause.SIZE) {
+                        releasedWindows.add(digestKey);
+                    }
+                })
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        List<Object[]> pending = outboxRepository.countPendingDigests();
+        for (Object[] row : pending) {
+            count((String) row[0], ((Number) row[1]).intValue());
+        }
+        log.info("Rebuilt {} open digest windows from the outbox", pending.size());
+    }
+
+    /**
+     * Counts coalesced deliveries once the transaction that stored them has committed.
+     *
+     * @param deliveries deliveries written to the outbox
+     */
+    public void track(List<OutboxDelivery> deliveries) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        List<String> digestKeys = new ArrayList<>();
+        for (OutboxDelivery delivery : deliveries) {
+            if (delivery.getDigestKey() != null) {
+                digestKeys.add(delivery.getDigestKey());
+            }
+        }
+        if (digestKeys.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    digestKeys.forEach(digestKey -> count(digestKey, 1));
+                }
+            });
+        } else {
+            digestKeys.forEach(digestKey -> count(digestKey, 1));
+        }
+    }
+
+    /**
+     * @return windows to send now, removed from the queue
+     */
+    public List<String> drainReleasedWindows() {
+        List<String> released = new ArrayList<>();
+        String digestKey;
+        while ((digestKey = releasedWindows.poll()) != null) {
+            released.add(digestKey);
+        }
+        return released;
+    }
+
+    /**
+     * Forgets windows whose deliveries were claimed by the relay.
+     *
+     * @param digestKeys the sent windows
+     */
+    public void closed(Iterable<String> digestKeys) {
+        openWindows.invalidateAll(digestKeys);
+    }
+
+    private void count(String digestKey, int deliveries) {
+        int count = openWindows.get(digestKey, key -> new AtomicInteger()).addAndGet(deliveries);
+        if (count >= properties.getMaxCount()) {
+            openWindows.invalidate(digestKey);
+            releasedWindows.add(digestKey);
+        }
+    }
+}
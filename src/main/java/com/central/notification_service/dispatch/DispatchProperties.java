@@ -0,0 +1,50 @@
+package com.central.notification_service.dispatch;
+
+import com.central.notification_service.model.NotificationChannel;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-channel limits for outbound deliveries, bound from {@code notification.dispatch.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "notification.dispatch")
+public class DispatchProperties {
+
+    /**
+     * Limits keyed by channel; channels without an entry use the defaults of {@link ChannelLimits}.
+     */
+    private Map<NotificationChannel, ChannelLimits> channels = new HashMap<>();
+
+    /**
+     * Paused listeners are resumed once every channel is filled to at most this fraction of its queue capacity.
+     */
+    private double resumeThreshold = 0.5;
+
+    /**
+     * How long a caller waits for room in a full channel before the delivery is rejected.
+     */
+    private Duration acquireTimeout = Duration.ofMillis(50);
+
+    public ChannelLimits limitsFor(NotificationChannel channel) {
+        return channels.getOrDefault(channel, new ChannelLimits());
+    }
+
+    @Data
+    public static class ChannelLimits {
+
+        /**
+         * Maximum number of provider calls running at the same time.
+         */
+        private int maxConcurrency = 32;
+
+        /**
+         * Maximum number of deliveries accepted for the channel, running or waiting for a concurrency slot.
+         */
+        private int queueCapacity = 1000;
+    }
+}
@@ -0,0 +1,40 @@
+package com.central.notification_service.dispatch;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the outbox relay, bound from {@code notification.outbox.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "notification.outbox")
+public class OutboxProperties {
+
+    /**
+     * Maximum number of deliveries claimed per relay iteration.
+     */
+    private int batchSize = 200;
+
+    /**
+     * How long the relay waits for new work when the outbox is drained. Saves wake it up immediately.
+     */
+    private Duration pollInterval = Duration.ofMillis(500);
+
+    /**
+     * How long a claimed delivery stays reserved for the claiming replica before others may take it over.
+     */
+    private Duration lease = Duration.ofSeconds(60);
+
+    /**
+     * Attempts after which a failing delivery is marked FAILED.
+     */
+    private int maxAttempts = 5;
+
+    /**
+     * How long deliveries that reached a final status (SENT, FAILED, SKIPPED) are kept after they were created.
+     * Older ones are purged by the {@code PartitionMaintenanceJob}.
+     */
+    private Duration retention = Duration.ofDays(7);
+}
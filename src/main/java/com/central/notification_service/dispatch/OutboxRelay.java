@@ -0,0 +1,485 @@
+package com.central.notification_service.dispatch;
+
+import com.central.notification_service.model.DeliveryOutcome;
+import com.central.notification_service.model.DeliveryStatus;
+import com.central.notification_service.model.NotificationChannel;
+import com.central.notification_service.model.NotificationType;
+import com.central.notification_service.model.NotificationsSavedEvent;
+import com.central.notification_service.model.OutboxDelivery;
+import com.central.notification_service.preferences.PreferenceStore;
+import com.central.notification_service.provider.ChannelProvider;
+import com.central.notification_service.provider.ChannelProviders;
+import com.central.notification_service.provider.OutboundMessage;
+import com.central.notification_service.provider.SendResult;
+import com.central.notification_service.ratelimit.ProviderRateLimiter;
+import com.central.notification_service.ratelimit.RateLimitProperties;
+import com.central.notification_service.repository.OutboxDeliveryRepository;
+import com.central.notification_service.retry.RetryBackoff;
+import com.central.notification_service.retry.RetryProperties;
+import com.central.notification_service.retry.TimingWheel;
+import com.central.notification_service.utils.SnowflakeIdGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains the transactional outbox and hands due deliveries to the {@link ChannelDispatcher}.
+ *
+ * <p>Each iteration claims a batch with {@code SELECT ... FOR UPDATE SKIP LOCKED}, marks it IN_FLIGHT under a
+ * lease and commits, so the provider calls happen outside of any database transaction and other replicas skip
+ * the claimed rows. Results are buffered and written back in one JDBC batch per iteration. Every claim stamps a
+ * new lease token and results are only written while the row still carries it, so a relay that overran its
+ * lease cannot overwrite the outcome of the replica that took the delivery over. The relay polls at a fixed
+ * interval and is additionally woken up as soon as a batch of notifications commits.</p>
+ *
+ * <p>Deliveries held by the {@link TransactionCorrelator} are made due as soon as it releases them.</p>
+ *
+ * <p>When a claimed delivery belongs to a digest window, the other pending deliveries of that window are claimed
+ * with it and sent as one combined message; the outcome of that send applies to each of them.</p>
+ *
+ * <p>Deliveries to users who have since opted out of the channel or of the notification type are marked SKIPPED
+ * instead of being sent, before digests are composed; the check is an in-memory lookup in the
+ * {@link PreferenceStore}.</p>
+ *
+ * <p>Every message reserves a permit from the {@link ProviderRateLimiter} before it is dispatched and waits until
+ * the permit is valid. Messages whose permit would take longer than the maximum wait are put back to PENDING and
+ * become due again after that wait, without using up an attempt. The same applies, with the poll interval as
+ * wait, to messages the dispatcher rejects because their channel's lane stayed full; the rest of that channel's
+ * messages in the batch are put back with them, so the relay waits at most one acquire timeout per channel.</p>
+ *
+ * <p>Failed deliveries are retried with a per-channel exponential backoff with jitter. The retry state lives in
+ * the outbox row ({@code attempts}, {@code next_attempt_at}) and so survives restarts; in addition each retry is
+ * put on a {@link TimingWheel} that wakes the relay when the retry becomes due instead of waiting for the next
+ * poll. Deferred and scheduled deliveries use the same wheel once they come within reach (see
+ * {@link DeliveryScheduler}).</p>
+ */
+@Slf4j
+@Component
+public class OutboxRelay implements SmartLifecycle {
+
+    /**
+     * Held deliveries made due per statement, keeping the IN list within reasonable bounds.
+     */
+    private static final int RELEASE_CHUNK_SIZE = 1000;
+
+    private final OutboxDeliveryRepository outboxRepository;
+    private final ChannelDispatcher channelDispatcher;
+    private final ChannelProviders channelProviders;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxProperties properties;
+    private final DigestWindowTracker digestWindowTracker;
+    private final TransactionCorrelator transactionCorrelator;
+    private final PreferenceStore preferenceStore;
+    private final ProviderRateLimiter rateLimiter;
+    private final RateLimitProperties rateLimitProperties;
+    private final RetryBackoff retryBackoff;
+    private final TimingWheel<Long> retryWheel;
+    private final SnowflakeIdGenerator idGenerator;
+
+    private final Queue<DeliveryOutcome> outcomes = new ConcurrentLinkedQueue<>();
+    private final Semaphore wakeUpSignal = new Semaphore(0);
+
+    private volatile boolean running;
+    private Thread worker;
+
+    @Autowired
+    public OutboxRelay(OutboxDeliveryRepository outboxRepository, ChannelDispatcher channelDispatcher,
+                       ChannelProviders channelProviders, PlatformTransactionManager transactionManager,
+                       OutboxProperties properties, DigestWindowTracker digestWindowTracker,
+                       TransactionCorrelator transactionCorrelator, PreferenceStore preferenceStore,
+                       ProviderRateLimiter rateLimiter, RateLimitProperties rateLimitProperties,
+                       RetryBackoff retryBackoff, RetryProperties retryProperties,
+                       SnowflakeIdGenerator idGenerator) {
+        this.outboxRepository = outboxRepository;
+        this.channelDispatcher = channelDispatcher;
+        this.channelProviders = channelProviders;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.digestWindowTracker = digestWindowTracker;
+        this.transactionCorrelator = transactionCorrelator;
+        this.preferenceStore = preferenceStore;
+        this.rateLimiter = rateLimiter;
+        this.rateLimitProperties = rateLimitProperties;
+        this.retryBackoff = retryBackoff;
+        this.retryWheel = new TimingWheel<>(retryProperties.getWheelTick().toNanos(), TimeUnit.NANOSECONDS,
+                retryProperties.getWheelSlots());
+        this.idGenerator = idGenerator;
+    }
+
+    /**
+     * Wakes the relay up once newly saved deliveries are visible to other transactions.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onNotificationsSaved(NotificationsSavedEvent event) {
+        wakeUp();
+    }
+
+    /**
+     * Wakes the relay up when a delivery that is already PENDING, but not yet due, becomes due.
+     */
+    public void wakeUpAfter(long deliveryId, Duration delay) {
+        retryWheel.schedule(deliveryId, Math.max(0, delay.toNanos()), TimeUnit.NANOSECONDS);
+    }
+
+    public void wakeUp() {
+        if (wakeUpSignal.availablePermits() == 0) {
+            wakeUpSignal.release();
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        worker = Thread.ofPlatform().name("outbox-relay").daemon().start(this::relayLoop);
+        log.info("Outbox relay started with batch size {} and poll interval {}",
+                properties.getBatchSize(), properties.getPollInterval());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        wakeUp();
+        try {
+            worker.join(properties.getPollInterval().toMillis() * 4);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushOutcomes();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void relayLoop() {
+        long nextLeaseSweep = 0;
+        while (running) {
+            try {
+                flushOutcomes();
+                if (System.nanoTime() - nextLeaseSweep >= 0) {
+                    releaseExpiredLeases();
+                    nextLeaseSweep = System.nanoTime() + properties.getLease().toNanos() / 2;
+                }
+                if (relayBatch() < properties.getBatchSize()) {
+                    awaitWork();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Outbox relay iteration failed. Error: {}", e.getMessage(), e);
+                sleepQuietly();
+            }
+        }
+    }
+
+    /**
+     * Claims one batch of due deliveries and submits them to the dispatcher. Messages of a channel whose provider
+     * accepts batches are handed over up to {@link ChannelProvider#maxBatchSize()} at a time.
+     *
+     * @return the number of deliveries claimed
+     */
+    private int relayBatch() {
+        List<List<OutboxDelivery>> claimed = transactionTemplate.execute(status -> claimDueDeliveries());
+        if (claimed == null || claimed.isEmpty()) {
+            return 0;
+        }
+        int claimedCount = 0;
+        int deferred = 0;
+        int skipped = 0;
+        Map<NotificationChannel, List<PendingMessage>> byChannel = new EnumMap<>(NotificationChannel.class);
+        for (List<OutboxDelivery> claimedGroup : claimed) {
+            claimedCount += claimedGroup.size();
+            List<OutboxDelivery> group = withoutOptedOut(claimedGroup);
+            skipped += claimedGroup.size() - group.size();
+            if (group.isEmpty()) {
+                continue;
+            }
+            OutboxDelivery message = group.size() == 1 ? group.get(0) : DigestComposer.compose(group);
+            long delayNanos = rateLimiter.reserve(message.getChannel(), message.getRecipient());
+            if (delayNanos < 0) {
+                defer(group, rateLimitProperties.getMaxWait());
+                deferred += group.size();
+                continue;
+            }
+            byChannel.computeIfAbsent(message.getChannel(), channel -> new ArrayList<>())
+                    .add(new PendingMessage(group, message, delayNanos));
+        }
+        for (Map.Entry<NotificationChannel, List<PendingMessage>> entry : byChannel.entrySet()) {
+            NotificationChannel channel = entry.getKey();
+            List<PendingMessage> messages = entry.getValue();
+            ChannelProvider provider = channelProviders.get(channel);
+            int batchSize = provider.maxBatchSize();
+            for (int from = 0; from < messages.size(); from += batchSize) {
+                List<PendingMessage> chunk = messages.subList(from, Math.min(messages.size(), from + batchSize));
+                if (!dispatch(channel, provider, chunk)) {
+                    // The lane stayed full: the rest of the channel waits for the next poll rather than for the lane
+                    for (PendingMessage message : messages.subList(from, messages.size())) {
+                        defer(message.group(), properties.getPollInterval());
+                        deferred += message.group().size();
+                    }
+                    break;
+                }
+            }
+        }
+        log.debug("Claimed {} outbox deliveries in {} messages", claimedCount, claimed.size());
+        if (skipped > 0) {
+            log.debug("Skipped {} outbox deliveries to users who opted out", skipped);
+        }
+        if (deferred > 0) {
+            log.info("Deferred {} outbox deliveries because of provider rate limits or full dispatch lanes",
+                    deferred);
+        }
+        // A fully deferred batch is not a reason to poll again right away
+        return claimedCount - deferred;
+    }
+
+    /**
+     * Sends messages of one channel as a single dispatcher task, once the latest of their rate limit permits is
+     * valid. A single message goes through {@link ChannelProvider#send} so its failure fails the task; for a batch
+     * each message gets its own outcome. The recorded latency is that of the whole provider call.
+     *
+     * @return {@code false} when the dispatcher rejected the task because the channel's lane stayed full; nothing
+     * was sent and no outcome was recorded
+     */
+    private boolean dispatch(NotificationChannel channel, ChannelProvider provider, List<PendingMessage> messages) {
+        long delayNanos = 0;
+        for (PendingMessage message : messages) {
+            delayNanos = Math.max(delayNanos, message.delayNanos());
+        }
+        String reference = messages.size() == 1
+                ? messages.get(0).reference()
+                : "batch of " + messages.size() + " starting with " + messages.get(0).reference();
+
+        CompletableFuture<Void> dispatched = channelDispatcher.dispatch(channel, reference, delayNanos, () -> {
+            long start = System.nanoTime();
+            List<SendResult> results;
+            if (messages.size() == 1) {
+                sendSingle(provider, messages.get(0).toOutbound());
+                results = List.of(SendResult.SENT);
+            } else {
+                results = provider.sendBatch(messages.stream().map(PendingMessage::toOutbound).toList());
+            }
+            long latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            for (int i = 0; i < messages.size(); i++) {
+                SendResult result = results.get(i);
+                PendingMessage message = messages.get(i);
+                if (result.sent()) {
+                    message.group().forEach(delivery ->
+                            outcomes.add(DeliveryOutcome.sent(delivery, latencyMs)));
+                } else {
+                    log.warn("Failed to send {} for transaction {} in batch. Error: {}",
+                            channel, message.reference(), result.error().getMessage());
+                    message.group().forEach(delivery -> outcomes.add(failureOutcome(delivery, result.error())));
+                }
+            }
+        });
+        if (dispatched.state() == Future.State.FAILED
+                && dispatched.exceptionNow() instanceof RejectedExecutionException) {
+            return false;
+        }
+        dispatched.whenComplete((ignored, error) -> {
+            if (error != null) {
+                messages.forEach(message -> message.group()
+                        .forEach(delivery -> outcomes.add(failureOutcome(delivery, error))));
+            }
+            wakeUp();
+        });
+        return true;
+    }
+
+    /**
+     * @return the claimed deliveries, grouped into the messages to send: a single delivery, or all pending
+     * deliveries of a digest window
+     */
+    private List<List<OutboxDelivery>> claimDueDeliveries() {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> releasedWindows = digestWindowTracker.drainReleasedWindows();
+        if (!releasedWindows.isEmpty()) {
+            outboxRepository.releaseDigests(releasedWindows, now);
+        }
+        List<Long> releasedDeliveries = transactionCorrelator.drainReleasedDeliveries();
+        for (int from = 0; from < releasedDeliveries.size(); from += RELEASE_CHUNK_SIZE) {
+            outboxRepository.releaseDeliveries(
+                    releasedDeliveries.subList(from, Math.min(releasedDeliveries.size(), from + RELEASE_CHUNK_SIZE)),
+                    now);
+        }
+
+        List<OutboxDelivery> due = outboxRepository.lockDueDeliveries(now, properties.getBatchSize());
+        Map<Long, OutboxDelivery> claimed = new LinkedHashMap<>();
+        Set<String> digestKeys = new LinkedHashSet<>();
+        for (OutboxDelivery delivery : due) {
+            claimed.put(delivery.getDeliveryId(), delivery);
+            if (delivery.getDigestKey() != null) {
+                digestKeys.add(delivery.getDigestKey());
+            }
+        }
+        if (!digestKeys.isEmpty()) {
+            outboxRepository.lockPendingDigests(digestKeys)
+                    .forEach(delivery -> claimed.putIfAbsent(delivery.getDeliveryId(), delivery));
+            digestWindowTracker.closed(digestKeys);
+        }
+
+        LocalDateTime leaseExpiry = now.plus(properties.getLease());
+        long leaseToken = idGenerator.nextId();
+        List<List<OutboxDelivery>> messages = new ArrayList<>(claimed.size());
+        Map<String, List<OutboxDelivery>> digests = new LinkedHashMap<>();
+        for (OutboxDelivery delivery : claimed.values()) {
+            // Flushed as batched updates when the claiming transaction commits
+            delivery.setStatus(DeliveryStatus.IN_FLIGHT);
+            delivery.setAttempts(delivery.getAttempts() + 1);
+            delivery.setLockedUntil(leaseExpiry);
+            delivery.setLeaseToken(leaseToken);
+            if (delivery.getDigestKey() == null) {
+                messages.add(List.of(delivery));
+            } else {
+                digests.computeIfAbsent(delivery.getDigestKey(), key -> new ArrayList<>()).add(delivery);
+            }
+        }
+        messages.addAll(digests.values());
+        return messages;
+    }
+
+    private static void sendSingle(ChannelProvider provider, OutboundMessage message) {
+        try {
+            provider.send(message);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * Marks the deliveries the user no longer wants, by channel or by notification type, as SKIPPED.
+     *
+     * @return the remaining deliveries of the group
+     */
+    private List<OutboxDelivery> withoutOptedOut(List<OutboxDelivery> group) {
+        List<OutboxDelivery> wanted = new ArrayList<>(group.size());
+        for (OutboxDelivery delivery : group) {
+            NotificationType type = delivery.getNotificationType();
+            if (preferenceStore.optedOut(delivery.getUserId(), type, delivery.getChannel())) {
+                outcomes.add(DeliveryOutcome.skipped(delivery, type == null
+                        ? "Opted out of " + delivery.getChannel()
+                        : "Opted out of " + type + " on " + delivery.getChannel()));
+            } else {
+                wanted.add(delivery);
+            }
+        }
+        return wanted.size() == group.size() ? group : wanted;
+    }
+
+    /**
+     * Puts claimed deliveries back to PENDING, due after {@code wait}, without counting the claim as an attempt.
+     */
+    private void defer(List<OutboxDelivery> group, Duration wait) {
+        LocalDateTime retryAt = LocalDateTime.now().plus(wait);
+        group.forEach(delivery -> {
+            outcomes.add(DeliveryOutcome.deferred(delivery, retryAt));
+            retryWheel.schedule(delivery.getDeliveryId(), wait.toNanos(), TimeUnit.NANOSECONDS);
+        });
+    }
+
+    private DeliveryOutcome failureOutcome(OutboxDelivery delivery, Throwable error) {
+        if (delivery.getAttempts() >= properties.getMaxAttempts()) {
+            log.error("Giving up on {} delivery {} for transaction {} after {} attempts", delivery.getChannel(),
+                    delivery.getDeliveryId(), delivery.getTransactionId(), delivery.getAttempts());
+            return DeliveryOutcome.failed(delivery, error);
+        }
+        Duration delay = retryBackoff.delay(delivery.getChannel(), delivery.getAttempts());
+        retryWheel.schedule(delivery.getDeliveryId(), delay.toNanos(), TimeUnit.NANOSECONDS);
+        return DeliveryOutcome.retry(delivery, LocalDateTime.now().plus(delay), error);
+    }
+
+    /**
+     * Waits up to the poll interval for a wake-up. While retries are scheduled the wait is cut into wheel ticks so
+     * the relay returns as soon as one of them becomes due.
+     */
+    private void awaitWork() throws InterruptedException {
+        long deadline = System.nanoTime() + properties.getPollInterval().toNanos();
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            long wait = retryWheel.isEmpty() ? remaining : Math.min(remaining, retryWheel.tickNanos());
+            if (wakeUpSignal.tryAcquire(wait, TimeUnit.NANOSECONDS)
+                    || retryWheel.advance(deliveryId -> { }) > 0) {
+                break;
+            }
+        }
+        wakeUpSignal.drainPermits();
+    }
+
+    private void flushOutcomes() {
+        List<DeliveryOutcome> batch = new ArrayList<>();
+        DeliveryOutcome outcome;
+        while ((outcome = outcomes.poll()) != null) {
+            batch.add(outcome);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> outboxRepository.applyOutcomes(batch));
+        } catch (RuntimeException e) {
+            // Keep the results for the next iteration rather than re-sending after the lease expires
+            outcomes.addAll(batch);
+            throw e;
+        }
+    }
+
+    private void releaseExpiredLeases() {
+        Integer released = transactionTemplate.execute(status -> outboxRepository.releaseExpiredLeases(
+                LocalDateTime.now(), DeliveryStatus.PENDING, DeliveryStatus.IN_FLIGHT));
+        if (released != null && released > 0) {
+            log.warn("Released {} outbox deliveries with expired leases", released);
+        }
+    }
+
+    private void sleepQuietly() {
+        try {
+            Thread.sleep(properties.getPollInterval().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * A message ready to be sent: a single delivery or a composed digest, with its rate limit delay.
+     */
+    private record PendingMessage(List<OutboxDelivery> group, OutboxDelivery message, long delayNanos) {
+
+        String reference() {
+            return group.size() == 1
+                    ? message.getTransactionId()
+                    : message.getTransactionId() + " (digest of " + group.size() + ")";
+        }
+
+        OutboundMessage toOutbound() {
+            return new OutboundMessage(message.getRecipient(), message.getSubject(), message.getBody(), reference());
+        }
+    }
+}
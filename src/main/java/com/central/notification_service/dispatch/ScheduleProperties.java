@@ -0,0 +1,53 @@
+package com.central.notification_service.dispatch;
+
+import com.central.notification_service.model.NotificationType;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Deferred and scheduled deliveries, bound from {@code notification.schedule.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "notification.schedule")
+public class ScheduleProperties {
+
+    /**
+     * Notification types held back until the end of the user's quiet hours.
+     */
+    private Set<NotificationType> quietHoursTypes = EnumSet.of(NotificationType.REWARD_GRANTED);
+
+    /**
+     * Number of shards scheduled deliveries are spread over; the unit of ownership between replicas. Must not be
+     * lowered while scheduled deliveries exist, the rows of dropped shards would never be promoted.
+     */
+    private int shards = 64;
+
+    /**
+     * Interval at which owned shards are promoted. Each run promotes the deliveries due within the next two
+     * buckets, so they are PENDING, and in the relay's wake-up wheel, ahead of their due time.
+     */
+    private Duration bucket = Duration.ofSeconds(5);
+
+    /**
+     * How long a replica owns a shard without renewing it; a crashed replica's shards are taken over after this.
+     */
+    private Duration lease = Duration.ofSeconds(30);
+
+    /**
+     * Deliveries promoted per statement.
+     */
+    private int promoteBatchSize = 1000;
+
+    /**
+     * Deliveries promoted per shard and run; the rest follow in the next run.
+     */
+    private int maxPromotedPerShard = 20000;
+
+    public Duration horizon() {
+        return bucket.multipliedBy(2);
+    }
+}
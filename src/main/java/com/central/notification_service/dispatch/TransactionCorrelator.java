@@ -0,0 +1,311 @@
+package com.central.notification_service.dispatch;
+
+import com.central.notification_service.model.Notification;
+import com.central.notification_service.model.NotificationType;
+import com.central.notification_service.model.OutboxDelivery;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Keeps the reward push of a transaction from overtaking the transaction's own notifications.
+ *
+ * <p>Sender, receiver and reward events are consumed from separate topics, so a reward can be stored before the
+ * transaction it belongs to. Transaction notifications are never held. A reward notification is held when its
+ * user has no notification for the transaction yet and the transaction topics have not progressed past the reward's
+ * event time: its deliveries are written with {@code next_attempt_at} at the end of {@code max-hold}. The hold is
+ * released, i.e. the rows are made due by the relay, as soon as the partner notification commits or the watermark
+ * passes the reward, whichever comes first; waiting rewards are released in event-time order.</p>
+ *
+ * <p>The watermark is the oldest of the newest record timestamps of the consumed transaction partitions, minus
+ * {@code allowed-lateness}; producers stamp a record when they send the event, just after its event time.
+ * Partitions that went quiet stop holding it back after {@code idle-timeout}, and with no active partition at all
+ * nothing is held. A reward without a partner is therefore only delayed while the
+ * transaction topics lag behind it.</p>
+ *
+ * <p>State is bounded: at most {@code max-held} rewards and {@code max-tracked-transactions} transactions. Holds
+ * are persisted in the outbox, so when the state is lost (restart, or a partner consumed by another replica) a
+ * held reward is still sent after {@code max-hold}.</p>
+ */
+@Slf4j
+@Component
+public class TransactionCorrelator {
+
+    private static final Comparator<HeldReward> BY_EVENT_TIME = Comparator.comparing(HeldReward::eventTime);
+
+    private final CorrelationProperties properties;
+    private final Cache<String, Set<String>> partners;
+    private final Queue<Long> releasedDeliveries = new ConcurrentLinkedQueue<>();
+
+    // Guarded by this
+    private final Map<String, List<HeldReward>> heldByTransaction = new HashMap<>();
+    private final PriorityQueue<HeldReward> heldByEventTime = new PriorityQueue<>(BY_EVENT_TIME);
+    private final ArrayDeque<HeldReward> heldByExpiry = new ArrayDeque<>();
+    private final Map<String, PartitionClock> partitions = new HashMap<>();
+
+    @Autowired
+    public TransactionCorrelator(CorrelationProperties properties) {
+        this.properties = properties;
+        this.partners = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxTrackedTransactions())
+                .expireAfterWrite(properties.getPartnerRetention())
+                .build();
+    }
+
+    /**
+     * Holds the deliveries of rewards whose transaction has not been seen yet. Must be called before the
+     * deliveries are saved; the notifications are correlated once the transaction that stores them has committed.
+     *
+     * @param notifications stored notifications
+     * @param deliveries    their planned deliveries
+     */
+    public void correlate(List<Notification> notifications, List<OutboxDelivery> deliveries) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Map<Long, List<OutboxDelivery>> deliveriesByNotification = new HashMap<>();
+        for (OutboxDelivery delivery : deliveries) {
+            deliveriesByNotification.computeIfAbsent(delivery.getNotificationId(), id -> new ArrayList<>())
+                    .add(delivery);
+        }
+
+        LocalDateTime holdFrom = LocalDateTime.now();
+        LocalDateTime holdUntil = holdFrom.plus(properties.getMaxHold());
+        List<Notification> transactions = new ArrayList<>();
+        List<PendingHold> holds = new ArrayList<>();
+        synchronized (this) {
+            Instant watermark = watermark();
+            // Released holds stay in the expiry queue until they run out, so its size bounds all the structures
+            int capacity = properties.getMaxHeld() - heldByExpiry.size();
+            for (Notification notification : notifications) {
+                if (notification.getType() != NotificationType.REWARD_GRANTED) {
+                    transactions.add(notification);
+                    continue;
+                }
+                Instant eventTime = eventTime(notification);
+                if (holds.size() >= capacity || hasPartner(notification) || !eventTime.isAfter(watermark)) {
+                    continue;
+                }
+                // Deliveries deferred by quiet hours, a scheduled send or a digest are not held: releasing them
+                // would send them early
+                List<OutboxDelivery> rewardDeliveries =
+                        deliveriesByNotification.getOrDefault(notification.getNotificationId(), List.of()).stream()
+                                .filter(delivery -> delivery.getDigestKey() == null
+                                        && !delivery.getNextAttemptAt().isAfter(holdFrom))
+                                .toList();
+                if (rewardDeliveries.isEmpty()) {
+                    continue;
+                }
+                rewardDeliveries.forEach(delivery -> delivery.setNextAttemptAt(holdUntil));
+                holds.add(new PendingHold(notification, eventTime, rewardDeliveries));
+            }
+        }
+        if (transactions.isEmpty() && holds.isEmpty()) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    committed(transactions, holds);
+                }
+            });
+        } else {
+            committed(transactions, holds);
+        }
+    }
+
+    /**
+     * Moves the watermark of a transaction partition forward.
+     *
+     * @param partition     topic and partition the records were consumed from
+     * @param lastTimestamp timestamp of the newest record consumed from it
+     */
+    public void advanceWatermark(String partition, Instant lastTimestamp) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        synchronized (this) {
+            PartitionClock clock = partitions.computeIfAbsent(partition, key -> new PartitionClock());
+            if (lastTimestamp.isAfter(clock.lastTimestamp)) {
+                clock.lastTimestamp = lastTimestamp;
+            }
+            clock.lastSeenNanos = System.nanoTime();
+            releaseUpToWatermark();
+        }
+    }
+
+    /**
+     * Releases rewards once their partitions went idle and forgets holds that already ran out in the outbox.
+     */
+    @Scheduled(fixedDelayString = "${notification.correlation.sweep-interval:1s}")
+    public void sweep() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        synchronized (this) {
+            long now = System.nanoTime();
+            HeldReward oldest;
+            while ((oldest = heldByExpiry.peekFirst()) != null && now - oldest.expiresAtNanos >= 0) {
+                heldByExpiry.pollFirst();
+                if (!oldest.released) {
+                    forget(oldest);
+                }
+            }
+            releaseUpToWatermark();
+        }
+    }
+
+    /**
+     * @return deliveries to make due now, removed from the queue
+     */
+    public List<Long> drainReleasedDeliveries() {
+        List<Long> released = new ArrayList<>();
+        Long deliveryId;
+        while ((deliveryId = releasedDeliveries.poll()) != null) {
+            released.add(deliveryId);
+        }
+        return released;
+    }
+
+    private void committed(List<Notification> transactions, List<PendingHold> holds) {
+        synchronized (this) {
+            for (Notification notification : transactions) {
+                partners.asMap()
+                        .computeIfAbsent(notification.getTransactionId(), id -> new HashSet<>())
+                        .add(notification.getUserId());
+                List<HeldReward> waiting = heldByTransaction.get(notification.getTransactionId());
+                if (waiting != null) {
+                    for (HeldReward reward : List.copyOf(waiting)) {
+                        if (reward.userId.equals(notification.getUserId())) {
+                            release(reward);
+                        }
+                    }
+                }
+            }
+            long expiresAtNanos = System.nanoTime() + properties.getMaxHold().toNanos();
+            for (PendingHold hold : holds) {
+                List<Long> deliveryIds = hold.deliveries().stream().map(OutboxDelivery::getDeliveryId).toList();
+                HeldReward reward = new HeldReward(hold.notification().getTransactionId(),
+                        hold.notification().getUserId(), hold.eventTime(), deliveryIds, expiresAtNanos);
+                heldByTransaction.computeIfAbsent(reward.transactionId, id -> new ArrayList<>()).add(reward);
+                heldByEventTime.add(reward);
+                heldByExpiry.addLast(reward);
+                // The partner may have committed between the hold decision and now
+                if (hasPartner(hold.notification())) {
+                    release(reward);
+                }
+            }
+            releaseUpToWatermark();
+        }
+    }
+
+    private void releaseUpToWatermark() {
+        if (heldByEventTime.isEmpty()) {
+            return;
+        }
+        Instant watermark = watermark();
+        HeldReward earliest;
+        while ((earliest = heldByEventTime.peek()) != null
+                && (earliest.released || !earliest.eventTime.isAfter(watermark))) {
+            heldByEventTime.poll();
+            if (!earliest.released) {
+                release(earliest);
+            }
+        }
+    }
+
+    private void release(HeldReward reward) {
+        forget(reward);
+        releasedDeliveries.addAll(reward.deliveryIds);
+        log.debug("Released reward of transaction {} for user {}", reward.transactionId, reward.userId);
+    }
+
+    private void forget(HeldReward reward) {
+        reward.released = true;
+        List<HeldReward> waiting = heldByTransaction.get(reward.transactionId);
+        if (waiting != null) {
+            waiting.remove(reward);
+            if (waiting.isEmpty()) {
+                heldByTransaction.remove(reward.transactionId);
+            }
+        }
+    }
+
+    private boolean hasPartner(Notification reward) {
+        Set<String> users = partners.getIfPresent(reward.getTransactionId());
+        return users != null && users.contains(reward.getUserId());
+    }
+
+    /**
+     * @return event time up to which all transaction notifications are expected to have been consumed
+     */
+    private Instant watermark() {
+        long now = System.nanoTime();
+        long idleNanos = properties.getIdleTimeout().toNanos();
+        Instant oldest = null;
+        for (PartitionClock clock : partitions.values()) {
+            if (now - clock.lastSeenNanos < idleNanos
+                    && (oldest == null || clock.lastTimestamp.isBefore(oldest))) {
+                oldest = clock.lastTimestamp;
+            }
+        }
+        // Without active transaction partitions there is nothing to wait for
+        return oldest == null ? Instant.MAX : oldest.minus(properties.getAllowedLateness());
+    }
+
+    private static Instant eventTime(Notification notification) {
+        return notification.getSentAt().atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    private record PendingHold(Notification notification, Instant eventTime, List<OutboxDelivery> deliveries) {
+    }
+
+    private static final class HeldReward {
+        private final String transactionId;
+        private final String userId;
+        private final Instant eventTime;
+        private final List<Long> deliveryIds;
+        private final long expiresAtNanos;
+        private boolean released;
+
+        private HeldReward(String transactionId, String userId, Instant eventTime, List<Long> deliveryIds,
+                           long expiresAtNanos) {
+            this.transactionId = transactionId;
+            this.userId = userId;
+            this.eventTime = eventTime;
+            this.deliveryIds = deliveryIds;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        private Instant eventTime() {
+            return eventTime;
+        }
+    }
+
+    private static final class PartitionClock {
+        private Instant lastTimestamp = Instant.EPOCH;
+        private long lastSeenNanos;
+    }
+}
@@ -0,0 +1,135 @@
+package com.central.notification_service.export;
+
+import com.central.notification_service.model.Notification;
+import com.central.notification_service.model.NotificationCursor;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes exported notifications one at a time, without holding more than the current row.
+ *
+ * <p>Every row carries a {@code cursor}: the continuation token to pass as {@code after} to resume an interrupted
+ * export right behind that row.</p>
+ */
+abstract class ExportWriter implements AutoCloseable {
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ISO_OFFSET_DATE_TIME;
+
+    static ExportWriter open(ExportFormat format, OutputStream out, JsonMapper jsonMapper) {
+        return switch (format) {
+            case NDJSON -> new NdjsonWriter(out, jsonMapper);
+            case CSV -> new CsvWriter(out);
+        };
+    }
+
+    abstract void write(Notification notification);
+
+    @Override
+    public abstract void close();
+
+    static String sentAt(Notification notification) {
+        return notification.getSentAt().atZone(ZoneId.systemDefault()).toOffsetDateTime().format(TIMESTAMP);
+    }
+
+    static String cursor(Notification notification) {
+        return NotificationCursor.after(notification).encode();
+    }
+
+    private static final class NdjsonWriter extends ExportWriter {
+
+        private final JsonGenerator generator;
+
+        private NdjsonWriter(OutputStream out, JsonMapper jsonMapper) {
+            this.generator = jsonMapper.writer().withRootValueSeparator("").createGenerator(out);
+        }
+
+        @Override
+        void write(Notification notification) {
+            generator.writeStartObject();
+            generator.writeNumberProperty("notificationId", notification.getNotificationId());
+            generator.writeStringProperty("transactionId", notification.getTransactionId());
+            generator.writeStringProperty("userId", notification.getUserId());
+            generator.writeStringProperty("type", notification.getType().name());
+            generator.writeStringProperty("channel",
+                    notification.getChannel() == null ? null : notification.getChannel().name());
+            generator.writeStringProperty("subject", notification.getSubject());
+            generator.writeStringProperty("content", notification.getContent());
+            generator.writeStringProperty("sentAt", sentAt(notification));
+            generator.writeStringProperty("cursor", cursor(notification));
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void close() {
+            generator.close();
+        }
+    }
+
+    private static final class CsvWriter extends ExportWriter {
+
+        private static final String HEADER =
+                "notificationId,transactionId,userId,type,channel,subject,content,sentAt,cursor\r\n";
+
+        private final Writer writer;
+
+        private CsvWriter(OutputStream out) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            append(HEADER);
+        }
+
+        @Override
+        void write(Notification notification) {
+            append(String.valueOf(notification.getNotificationId()));
+            field(notification.getTransactionId());
+            field(notification.getUserId());
+            field(notification.getType().name());
+            field(notification.getChannel() == null ? null : notification.getChannel().name());
+            field(notification.getSubject());
+            field(notification.getContent());
+            field(sentAt(notification));
+            field(cursor(notification));
+            append("\r\n");
+        }
+
+        @Override
+        public void close() {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void field(String value) {
+            append(",");
+            if (value == null) {
+                return;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                    && value.indexOf('\r') < 0) {
+                append(value);
+            } else {
+                append("\"" + value.replace("\"", "\"\"") + "\"");
+            }
+        }
+
+        private void append(String value) {
+            try {
+                writer.write(value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.central.notification_service.export;
+
+import com.central.notification_service.model.Notification;
+import com.central.notification_service.model.NotificationExportQuery;
+import com.central.notification_service.repository.NotificationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Streams notifications from the database into an export response with constant memory: rows are read through a
+ * cursor in {@code fetch-size} chunks, detached and written one by one, so heap usage does not depend on the size
+ * of the export.
+ */
+@Slf4j
+@Service
+public class NotificationExporter {
+
+    private final NotificationRepository notificationRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final JsonMapper jsonMapper;
+
+    /**
+     * Rows fetched from the database per round trip.
+     */
+    @Value("${notification.export.fetch-size:1000}")
+    private int fetchSize;
+
+    @Autowired
+    public NotificationExporter(NotificationRepository notificationRepository,
+                                PlatformTransactionManager transactionManager, JsonMapper jsonMapper) {
+        this.notificationRepository = notificationRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.jsonMapper = jsonMapper;
+    }
+
+    /**
+     * Writes the matching notifications to {@code out}. The database cursor only lives within a transaction, so
+     * the transaction is held open for the whole export.
+     *
+     * @param query  filters and resume position
+     * @param format output format
+     * @param out    response body; not closed
+     * @return the number of exported rows
+     */
+    public long export(NotificationExportQuery query, ExportFormat format, OutputStream out) {
+        long start = System.nanoTime();
+        Long rows = readOnlyTransaction.execute(status -> {
+            long count = 0;
+            try (Stream<Notification> notifications = notificationRepository.streamForExport(query, fetchSize);
+                 ExportWriter writer = ExportWriter.open(format, out, jsonMapper)) {
+                for (Notification notification : (Iterable<Notification>) notifications::iterator) {
+                    writer.write(notification);
+                    count++;
+                }
+            }
+            return count;
+        });
+        log.info("Exported {} notifications as {} (user: {}, from: {}, to: {}) in {} ms", rows, format,
+                query.getUserId(), query.getFrom(), query.getTo(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return rows == null ? 0 : rows;
+    }
+}
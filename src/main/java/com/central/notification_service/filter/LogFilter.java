@@ -7,10 +7,11 @@ import org.springframework.stereotype.Component;
 
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 /**
- * This class is a filter that logs the start and end of a transaction. It logs the HTTP method, URL, and the time
- * taken to complete the transaction.
+ * This class is a filter that logs the start and end of a transaction. It logs the HTTP method, path, and the time
+ * taken to complete the transaction. The start line is only written at DEBUG, so a request costs a single INFO line.
  */
 @Component
 @Slf4j
@@ -31,19 +32,19 @@ public class LogFilter implements Filter {
             throws IOException, ServletException {
         final HttpServletRequest request = (HttpServletRequest) servletRequest;
 
-        // Log the start of the transaction
-        log.info("Transaction Started for : {} {}", request.getMethod(), request.getRequestURL());
+        // Log the start of the transaction; getRequestURI() avoids rebuilding the full URL per request
+        log.debug("Transaction Started for : {} {}", request.getMethod(), request.getRequestURI());
 
         // Get the current time
-        long time = System.currentTimeMillis();
+        long start = System.nanoTime();
 
         // Call the next filter in the chain
         filterChain.doFilter(servletRequest, servletResponse);
 
-        // Calculate the time taken to complete the transaction
-        time = System.currentTimeMillis() - time;
-
         // Log the end of the transaction
-        log.info("Transaction Completed for : {} {} in {} ms", request.getMethod(), request.getRequestURL(), time);
+        if (log.isInfoEnabled()) {
+            log.info("Transaction Completed for : {} {} in {} ms", request.getMethod(), request.getRequestURI(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
     }
 }
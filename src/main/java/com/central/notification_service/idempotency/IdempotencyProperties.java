@@ -0,0 +1,24 @@
+package com.central.notification_service.idempotency;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Bounds of the in-process cache of recently processed events, bound from {@code notification.idempotency.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "notification.idempotency")
+public class IdempotencyProperties {
+
+    /**
+     * Maximum number of event keys kept in memory.
+     */
+    private long maxSize = 500_000;
+
+    /**
+     * How long an event key is remembered. Should cover the redelivery window after a rebalance.
+     */
+    private Duration ttl = Duration.ofMinutes(30);
+}
@@ -0,0 +1,115 @@
+package com.central.notification_service.idempotency;
+
+import com.central.notification_service.model.Notification;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * First idempotency layer: a size and TTL bounded set of recently persisted event keys.
+ *
+ * <p>An event key identifies the notification an event produces ({@code transactionId:eventSource:userId}). The
+ * source rather than the notification type is part of the key, so the SENDER and RECEIVER notifications of a
+ * transfer to oneself are told apart. Keys are only added after the transaction that stored the notification has
+ * committed, so a batch that is rolled back and redelivered is never mistaken for a duplicate. Anything that is not
+ * in the cache (evicted, expired, or processed by another replica) is caught by the primary key of
+ * {@code notification_event_keys}.</p>
+ */
+@Component
+public class ProcessedEventCache {
+
+    private final Cache<String, Boolean> processedKeys;
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+    private final Counter databaseConflicts;
+
+    @Autowired
+    public ProcessedEventCache(IdempotencyProperties properties, MeterRegistry meterRegistry) {
+        this.processedKeys = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, processedKeys, "processedEvents");
+        this.cacheHits = dedupeCounter(meterRegistry, "cache_hit");
+        this.cacheMisses = dedupeCounter(meterRegistry, "cache_miss");
+        this.databaseConflicts = dedupeCounter(meterRegistry, "db_conflict");
+    }
+
+    /**
+     * @param notification the notification built from an event
+     * @return the key identifying the event that produced it
+     */
+    public static String eventKey(Notification notification) {
+        return notification.getTransactionId() + ':' + notification.getEventSource().name() + ':'
+                + notification.getUserId();
+    }
+
+    /**
+     * Removes notifications whose event was already processed, as well as repeats within the same batch.
+     *
+     * @param notifications candidate notifications
+     * @return the notifications that still need to be persisted, in their original order
+     */
+    public List<Notification> filterUnseen(List<Notification> notifications) {
+        Set<String> batchKeys = new HashSet<>(notifications.size() * 2);
+        List<Notification> unseen = new ArrayList<>(notifications.size());
+        for (Notification notification : notifications) {
+            String key = eventKey(notification);
+            if (!batchKeys.add(key) || processedKeys.getIfPresent(key) != null) {
+                cacheHits.increment();
+            } else {
+                cacheMisses.increment();
+                unseen.add(notification);
+            }
+        }
+        return unseen;
+    }
+
+    /**
+     * Records duplicates that passed the cache but were rejected by the unique index.
+     *
+     * @param count number of rejected rows
+     */
+    public void recordDatabaseConflicts(int count) {
+        databaseConflicts.increment(count);
+    }
+
+    /**
+     * Remembers the events of the given notifications once the current transaction commits
+     * (immediately if there is no transaction).
+     *
+     * @param notifications notifications that are, or are about to be, durable
+     */
+    public void markProcessed(List<Notification> notifications) {
+        List<String> keys = notifications.stream().map(ProcessedEventCache::eventKey).toList();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    keys.forEach(key -> processedKeys.put(key, Boolean.TRUE));
+                }
+            });
+        } else {
+            keys.forEach(key -> processedKeys.put(key, Boolean.TRUE));
+        }
+    }
+
+    private static Counter dedupeCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("notification.dedupe")
+                .description("Idempotency checks of consumed events by result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
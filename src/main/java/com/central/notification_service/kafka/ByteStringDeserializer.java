@@ -0,0 +1,29 @@
+package com.central.notification_service.kafka;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Hands record values to the listeners as a {@link ByteString} over the consumer's own buffer.
+ *
+ * <p>{@code ByteArrayDeserializer} copies every value out of the fetched batch into a new array. This wraps the
+ * value slice the consumer passes in instead, which is safe because the consumer allocates a buffer per fetch and
+ * never reuses it. The {@link EventView}s then read it through an aliasing {@code CodedInputStream}, so a record's
+ * string fields are never copied before they are decoded.</p>
+ */
+public class ByteStringDeserializer implements Deserializer<ByteString> {
+
+    @Override
+    public ByteString deserialize(String topic, byte[] data) {
+        return data == null ? null : UnsafeByteOperations.unsafeWrap(data);
+    }
+
+    @Override
+    public ByteString deserialize(String topic, Headers headers, ByteBuffer data) {
+        return data == null ? null : UnsafeByteOperations.unsafeWrap(data);
+    }
+}
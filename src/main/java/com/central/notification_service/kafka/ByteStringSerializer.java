@@ -0,0 +1,16 @@
+package com.central.notification_service.kafka;
+
+import com.google.protobuf.ByteString;
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Counterpart of {@link ByteStringDeserializer}, used to publish consumed records unchanged to the dead-letter
+ * topics.
+ */
+public class ByteStringSerializer implements Serializer<ByteString> {
+
+    @Override
+    public byte[] serialize(String topic, ByteString data) {
+        return data == null ? null : data.toByteArray();
+    }
+}
@@ -0,0 +1,37 @@
+package com.central.notification_service.kafka;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+
+import java.time.Instant;
+
+/**
+ * Consumed event that decodes only what notifications are built from.
+ *
+ * <p>Parsing a view checks the wire format of the whole record but only keeps the fields of interest, as slices
+ * of the record, and decodes their strings on first access. Everything else, like timestamps and free text
+ * descriptions, is skipped over and only decoded if the complete event is needed, e.g. for payload logging.</p>
+ */
+public sealed interface EventView permits TransactionEventView, RewardEventView {
+
+    String getTransactionId();
+
+    /**
+     * @return when the event happened according to its producer, or {@code null} if it carries no timestamp
+     */
+    Instant getEventTime();
+
+    /**
+     * @return the encoded event as received, sharing the consumer's buffer
+     */
+    ByteString raw();
+
+    /**
+     * Decodes the complete event.
+     *
+     * @return the protobuf message
+     * @throws InvalidProtocolBufferException if a field the view skipped is malformed
+     */
+    Message toMessage() throws InvalidProtocolBufferException;
+}
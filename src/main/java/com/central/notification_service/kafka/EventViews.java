@@ -0,0 +1,76 @@
+package com.central.notification_service.kafka;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Timestamp;
+import com.google.protobuf.WireFormat;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Wire format helpers shared by the {@link EventView} implementations.
+ */
+final class EventViews {
+
+    private static final int TAG_TYPE_BITS = 3;
+
+    private static final int SECONDS_TAG = tag(Timestamp.SECONDS_FIELD_NUMBER, WireFormat.WIRETYPE_VARINT);
+    private static final int NANOS_TAG = tag(Timestamp.NANOS_FIELD_NUMBER, WireFormat.WIRETYPE_VARINT);
+
+    private EventViews() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    static int tag(int fieldNumber, int wireType) {
+        return (fieldNumber << TAG_TYPE_BITS) | wireType;
+    }
+
+    /**
+     * A {@link ByteString} is immutable, so the stream reading it may return length-delimited fields as slices of
+     * it instead of copies.
+     */
+    static CodedInputStream aliasingInput(ByteString raw) {
+        CodedInputStream input = raw.newCodedInput();
+        input.enableAliasing(true);
+        return input;
+    }
+
+    /**
+     * Reads a string field without decoding it, validating it like the generated parsers do for proto3 strings.
+     */
+    static ByteString readUtf8(CodedInputStream input) throws IOException {
+        ByteString value = input.readBytes();
+        if (!value.isValidUtf8()) {
+            throw new InvalidProtocolBufferException("Protocol message had invalid UTF-8.");
+        }
+        return value;
+    }
+
+    /**
+     * Reads a {@code google.protobuf.Timestamp} field in place instead of building the message.
+     */
+    static Instant readTimestamp(CodedInputStream input) throws IOException {
+        int oldLimit = input.pushLimit(input.readRawVarint32());
+        long seconds = 0;
+        int nanos = 0;
+        int tag;
+        while ((tag = input.readTag()) != 0) {
+            if (tag == SECONDS_TAG) {
+                seconds = input.readInt64();
+            } else if (tag == NANOS_TAG) {
+                nanos = input.readInt32();
+            } else if (!input.skipField(tag)) {
+                break;
+            }
+        }
+        input.checkLastTagWas(0);
+        input.popLimit(oldLimit);
+        return Instant.ofEpochSecond(seconds, nanos);
+    }
+
+    static InvalidProtocolBufferException invalid(IOException e) {
+        return e instanceof InvalidProtocolBufferException invalid ? invalid : new InvalidProtocolBufferException(e);
+    }
+}
@@ -1,195 +1,253 @@
 package com.central.notification_service.kafka;
 
+import com.central.notification_service.dispatch.TransactionCorrelator;
+import com.central.notification_service.metrics.NotificationMetrics;
 import com.central.notification_service.model.Notification;
 import com.central.notification_service.service.NotificationService;
+import com.google.protobuf.ByteString;
 import com.google.protobuf.InvalidProtocolBufferException;
-import notification.events.TransactionEvent;
-import notification.events.RewardEvent;
+import com.google.protobuf.TextFormat;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
 import org.springframework.stereotype.Component;
 
-import java.util.concurrent.CompletableFuture;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import static com.central.notification_service.utils.ServiceUtils.createNotificationFromEvent;
 
 @Slf4j
 @Component
 public class KafkaNotificationsConsumer {
-    private static final String SENDER_TOPIC = "txn-sender-events";
-    private static final String RECEIVER_TOPIC = "txn-receiver-events";
-    private static final String REWARD_TOPIC = "reward-generated-events";
+    private static final TextFormat.Printer PAYLOAD_PRINTER = TextFormat.printer().emittingSingleLine(true);
 
-    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final DeadLetterPublishingRecoverer deadLetterRecoverer;
 
     private final NotificationService notificationService;
 
+    private final NotificationMetrics metrics;
+
+    private final PayloadLogSampler payloadLogSampler;
+
+    private final KeyOrderedProcessor keyOrderedProcessor;
+
+    private final TransactionCorrelator transactionCorrelator;
+
     @Autowired
-    public KafkaNotificationsConsumer(KafkaTemplate<String,  byte[]> kafkaTemplate, NotificationService notificationService) {
-        this.kafkaTemplate = kafkaTemplate;
+    public KafkaNotificationsConsumer(DeadLetterPublishingRecoverer deadLetterRecoverer,
+                                      NotificationService notificationService, NotificationMetrics metrics,
+                                      PayloadLogSampler payloadLogSampler, KeyOrderedProcessor keyOrderedProcessor,
+                                      TransactionCorrelator transactionCorrelator) {
+        this.deadLetterRecoverer = deadLetterRecoverer;
         this.notificationService = notificationService;
+        this.metrics = metrics;
+        this.payloadLogSampler = payloadLogSampler;
+        this.keyOrderedProcessor = keyOrderedProcessor;
+        this.transactionCorrelator = transactionCorrelator;
     }
-    @KafkaListener(topics = SENDER_TOPIC, groupId = "notification-service")
-    public void handleSenderTransaction(byte[] event) {
-        consumeTransaction(event, "SENDER");
+
+    @KafkaListener(topics = "${kafka.topics.sender-events}", groupId = "notification-service",
+            concurrency = "${kafka.listener.concurrency.sender-events:1}")
+    public void handleSenderTransaction(List<ConsumerRecord<String, ByteString>> records) {
+        consumeTransactions(records, "SENDER");
     }
 
-    @KafkaListener(topics = RECEIVER_TOPIC, groupId = "notification-service")
-    public void handleReceiverTransaction(byte[] event) {
-        consumeTransaction(event, "RECEIVER");
+    @KafkaListener(topics = "${kafka.topics.receiver-events}", groupId = "notification-service",
+            concurrency = "${kafka.listener.concurrency.receiver-events:1}")
+    public void handleReceiverTransaction(List<ConsumerRecord<String, ByteString>> records) {
+        consumeTransactions(records, "RECEIVER");
     }
 
-    @KafkaListener(topics = REWARD_TOPIC, groupId = "notification-service")
-    public void handleRewardEvent(byte[] event) {
-        consumeRewardEvent(event);
+    @KafkaListener(topics = "${kafka.topics.reward-events}", groupId = "notification-service",
+            concurrency = "${kafka.listener.concurrency.reward-events:1}")
+    public void handleRewardEvent(List<ConsumerRecord<String, ByteString>> records) {
+        consumeRewardEvents(records);
     }
 
-    public void consumeTransaction(byte[] event, String eventType) {
-        long startTime = System.currentTimeMillis();
-        String transactionId = "";
-        
-        try {
-            log.info("Successfully received {} notification for transaction: {} - Took {} ms",
-                    eventType.toLowerCase(), transactionId, System.currentTimeMillis());
-            
-            TransactionEvent transactionEvent = TransactionEvent.parseFrom(event);
-            transactionId = transactionEvent.getTransactionId();
-            log.info("Processing {} event - Transaction ID: {} - Event data: {}", 
-                    eventType.toLowerCase(), transactionId, transactionEvent);
-            
-            // Process and save notification
-            long processStart = System.currentTimeMillis();
-            Notification notification = createNotificationFromEvent(transactionEvent, eventType);
-            notificationService.saveNotification(notification);
-            log.info("Successfully processed and saved {} notification for transaction: {} - Took {} ms", 
-                   eventType.toLowerCase(), transactionId, (System.currentTimeMillis() - processStart));
-
-            // Send both email and SMS for transaction events
-            sendEmailNotifications(notification);
-            sendSmsNotifications(notification);
-            
-        } catch (InvalidProtocolBufferException e) {
-            log.error("Failed to parse transaction event after {} ms. Error: {}", 
-                    (System.currentTimeMillis() - startTime), e.getMessage(), e);
-            throw new RuntimeException("Failed to process transaction event", e);
-        } finally {
-            log.info("Completed processing for transaction: {} - Total time taken: {} ms", 
-                    transactionId, (System.currentTimeMillis() - startTime));
+    /**
+     * Processes a polled batch of transaction events. Record values still share the consumer's fetch buffer (see
+     * {@link ByteStringDeserializer}) and are parsed into {@link TransactionEventView}s in parallel by the
+     * {@link KeyOrderedProcessor}, keeping records with the same key in order, and the resulting notifications
+     * are persisted together with their outbox deliveries (email and SMS). Offsets are committed by the
+     * container once this method returns, i.e. after the batch is durable.
+     * A record that cannot be parsed is published to the dead-letter topic and skipped so it does not fail the
+     * rest of the batch; any other failure persists the records before it and hands the failed record to the
+     * container's error handler, which retries it with backoff and finally dead-letters it as well.
+     * Once the whole batch is stored, the {@link TransactionCorrelator} watermarks of its partitions move forward.
+     *
+     * @param records   The polled Kafka records
+     * @param eventType The type of event (SENDER or RECEIVER)
+     */
+    public void consumeTransactions(List<ConsumerRecord<String, ByteString>> records, String eventType) {
+        if (records.isEmpty()) {
+            return;
         }
+        long startTime = System.nanoTime();
+        NotificationMetrics.ConsumerMeters meters = metrics.consumer(records.get(0).topic());
+        meters.consumed(records.size());
+
+        KeyOrderedProcessor.Result<Notification> result = keyOrderedProcessor.process(records,
+                consumerRecord -> toTransactionNotification(consumerRecord, eventType, meters));
+
+        persist(Collections.singletonMap(null, result.completed()), meters, eventType.toLowerCase(), records.size(),
+                startTime);
+        result.throwIfFailed();
+        advanceWatermarks(records);
     }
-    
+
     /**
-     * Processes reward events by sending push notifications
-     * @param event The raw Kafka message containing the reward event
+     * Processes a polled batch of reward events by persisting them together with their push deliveries.
+     * Notifications of events with a future {@code deliver_at} are stored right away as well, but scheduled for
+     * delivery at that time.
+     * A record that cannot be parsed is published to the dead-letter topic and skipped so it does not fail the
+     * rest of the batch.
+     *
+     * @param records The polled Kafka records containing reward events
      */
-    public void consumeRewardEvent(byte[] event) {
-        long startTime = System.currentTimeMillis();
-        String transactionId = "";
-        
+    public void consumeRewardEvents(List<ConsumerRecord<String, ByteString>> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        long startTime = System.nanoTime();
+        NotificationMetrics.ConsumerMeters meters = metrics.consumer(records.get(0).topic());
+        meters.consumed(records.size());
+
+        KeyOrderedProcessor.Result<RewardNotification> result = keyOrderedProcessor.process(records,
+                consumerRecord -> toRewardNotification(consumerRecord, meters));
+
+        Instant now = Instant.now();
+        Map<Instant, List<Notification>> byDeliverAt = new LinkedHashMap<>();
+        for (RewardNotification completed : result.completed()) {
+            Instant deliverAt = completed.deliverAt() != null && completed.deliverAt().isAfter(now)
+                    ? completed.deliverAt() : null;
+            byDeliverAt.computeIfAbsent(deliverAt, key -> new ArrayList<>()).add(completed.notification());
+        }
+        persist(byDeliverAt, meters, "reward", records.size(), startTime);
+        result.throwIfFailed();
+    }
+
+    private Notification toTransactionNotification(ConsumerRecord<String, ByteString> consumerRecord, String eventType,
+                                                   NotificationMetrics.ConsumerMeters meters) {
+        meters.recordAge(consumerRecord.timestamp());
+        try {
+            long parseStart = System.nanoTime();
+            TransactionEventView transactionEvent = TransactionEventView.parse(value(consumerRecord));
+            long buildStart = System.nanoTime();
+            meters.recordParse(buildStart - parseStart);
+            logPayload(eventType, transactionEvent);
+            Notification notification = createNotificationFromEvent(transactionEvent, eventType);
+            meters.recordBuild(System.nanoTime() - buildStart);
+            return notification;
+        } catch (InvalidProtocolBufferException | IllegalArgumentException e) {
+            meters.failed();
+            log.error("Dead-lettering malformed {} event at {}-{}@{}. Error: {}", eventType.toLowerCase(),
+                    consumerRecord.topic(), consumerRecord.partition(), consumerRecord.offset(), e.getMessage());
+            deadLetterRecoverer.accept(consumerRecord, e);
+            return null;
+        }
+    }
+
+    private RewardNotification toRewardNotification(ConsumerRecord<String, ByteString> consumerRecord,
+                                                    NotificationMetrics.ConsumerMeters meters) {
+        meters.recordAge(consumerRecord.timestamp());
         try {
-            log.info("Processing reward event");
-
-            RewardEvent rewardEvent = RewardEvent.parseFrom(event);
-            transactionId = rewardEvent.getTransactionId();
-            log.info("Processing REWARD event - Transaction ID: {} - Event data: {}", 
-                    transactionId, rewardEvent);
-            
-            // Process and save notification
-            long processStart = System.currentTimeMillis();
+            long parseStart = System.nanoTime();
+            RewardEventView rewardEvent = RewardEventView.parse(value(consumerRecord));
+            long buildStart = System.nanoTime();
+            meters.recordParse(buildStart - parseStart);
+            logPayload("REWARD", rewardEvent);
             Notification notification = createNotificationFromEvent(rewardEvent, "REWARD");
-            notificationService.saveNotification(notification);
-            log.info("Successfully processed and saved REWARD notification for transaction: {} - Took {} ms", 
-                    transactionId, (System.currentTimeMillis() - processStart));
-            
-            // Send push notification for reward
-            sendPushNotification(notification);
-            
+            meters.recordBuild(System.nanoTime() - buildStart);
+            return new RewardNotification(notification, rewardEvent.getDeliverAt());
         } catch (InvalidProtocolBufferException e) {
-            log.error("Failed to parse reward event after {} ms. Error: {}", 
-                    (System.currentTimeMillis() - startTime), e.getMessage(), e);
-            throw new RuntimeException("Failed to process reward event", e);
-        } finally {
-            log.info("Completed processing for reward: {} - Total time taken: {} ms", 
-                    transactionId, (System.currentTimeMillis() - startTime));
+            meters.failed();
+            log.error("Dead-lettering malformed reward event at {}-{}@{}. Error: {}",
+                    consumerRecord.topic(), consumerRecord.partition(), consumerRecord.offset(), e.getMessage());
+            deadLetterRecoverer.accept(consumerRecord, e);
+            return null;
         }
     }
-    
+
     /**
-     * Sends transaction notifications (email and SMS)
-     * @param notification The notification to send
+     * Reports the newest record timestamp of every partition in the batch to the correlator.
      */
-    private void sendEmailNotifications(Notification notification) {
-        // Send email asynchronously with timing
-        CompletableFuture.runAsync(() -> {
-            long emailStart = System.currentTimeMillis();
-            try {
-                log.info("Sending email for transaction: {} - Start time: {}", 
-                        notification.getTransactionId(), emailStart);
-                        
-                notificationService.sendEmail(
-                    notification.getUserId() + "@example.com",
-                    notification.getSubject(), 
-                    notification.getContent()
-                );
-                
-                log.info("Successfully sent email for transaction: {} - Took {} ms",
-                        notification.getTransactionId(), (System.currentTimeMillis() - emailStart));
-            } catch (Exception e) {
-                log.error("Failed to send email for transaction {} after {} ms. Error: {}",
-                        notification.getTransactionId(), (System.currentTimeMillis() - emailStart), e.getMessage(), e);
-            }
-        });
+    private void advanceWatermarks(List<ConsumerRecord<String, ByteString>> records) {
+        Map<String, Long> newest = new HashMap<>();
+        for (ConsumerRecord<String, ByteString> consumerRecord : records) {
+            newest.merge(consumerRecord.topic() + '-' + consumerRecord.partition(), consumerRecord.timestamp(),
+                    Math::max);
+        }
+        newest.forEach((partition, timestamp) ->
+                transactionCorrelator.advanceWatermark(partition, Instant.ofEpochMilli(timestamp)));
     }
 
-    private void sendSmsNotifications(Notification notification) {
-        // Send SMS asynchronously with timing
-        CompletableFuture.runAsync(() -> {
-            long smsStart = System.currentTimeMillis();
-            try {
-                log.info("Sending SMS for transaction: {} - Start time: {}",
-                        notification.getTransactionId(), smsStart);
-
-                // For demo, using a dummy phone number based on userId
-                String phoneNumber = "+1" + notification.getUserId().hashCode() % 1000000000;
-                notificationService.sendSms(phoneNumber,
-                    notification.getSubject() + " - " +
-                    notification.getContent().substring(0, Math.min(100, notification.getContent().length())));
-
-                log.info("Successfully sent SMS for transaction: {} - Took {} ms",
-                        notification.getTransactionId(), (System.currentTimeMillis() - smsStart));
-            } catch (Exception e) {
-                log.error("Failed to send SMS for transaction {} after {} ms. Error: {}",
-                        notification.getTransactionId(), (System.currentTimeMillis() - smsStart), e.getMessage(), e);
-            }
-        });
+    /**
+     * Stores the notifications of a batch, grouped by when to deliver them; the {@code null} group is delivered
+     * right away.
+     */
+    private void persist(Map<Instant, List<Notification>> byDeliverAt, NotificationMetrics.ConsumerMeters meters,
+                         String eventType, int recordCount, long startTime) {
+        long persistStart = System.nanoTime();
+        int notificationCount = 0;
+        int saved = 0;
+        for (Map.Entry<Instant, List<Notification>> group : byDeliverAt.entrySet()) {
+            notificationCount += group.getValue().size();
+            saved += group.getKey() == null
+                    ? notificationService.saveNotifications(group.getValue())
+                    : notificationService.scheduleNotifications(group.getValue(), group.getKey());
+        }
+        long persistNanos = System.nanoTime() - persistStart;
+        meters.recordPersist(persistNanos);
+        meters.deduplicated(notificationCount - saved);
+
+        log.info("Completed {} batch - records: {}, saved: {}, persist: {} ms, total: {} ms",
+                eventType, recordCount, saved, TimeUnit.NANOSECONDS.toMillis(persistNanos),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
     }
-    
+
     /**
-     * Sends a push notification for rewards
-     * @param notification The reward notification to send
+     * @throws InvalidProtocolBufferException for records without a value, which cannot be an event
      */
-    private void sendPushNotification(Notification notification) {
-        CompletableFuture.runAsync(() -> {
-            long pushStart = System.currentTimeMillis();
-            try {
-                log.info("Sending push notification for reward: {} - Start time: {}", 
-                        notification.getTransactionId(), pushStart);
-                        
-                notificationService.sendPushNotification(
-                    notification.getUserId(),
-                    notification.getSubject(),
-                    notification.getContent()
-                );
-                
-                log.info("Successfully sent push notification for reward: {} - Took {} ms",
-                        notification.getTransactionId(), (System.currentTimeMillis() - pushStart));
-            } catch (Exception e) {
-                log.error("Failed to send push notification for reward {} after {} ms. Error: {}",
-                        notification.getTransactionId(), (System.currentTimeMillis() - pushStart), e.getMessage(), e);
-            }
-        });
+    private static ByteString value(ConsumerRecord<String, ByteString> consumerRecord)
+            throws InvalidProtocolBufferException {
+        if (consumerRecord.value() == null) {
+            throw new InvalidProtocolBufferException("Record has no value");
+        }
+        return consumerRecord.value();
+    }
+
+    /**
+     * Logs the payload of a consumed event at DEBUG, or at INFO for sampled events. The complete event is only
+     * decoded, and its single-line rendering built, when the line is actually written.
+     */
+    private void logPayload(String eventType, EventView event) {
+        if (log.isDebugEnabled()) {
+            log.debug("Processing {} event - Transaction ID: {} - Event data: {}",
+                    eventType, event.getTransactionId(), render(event));
+        } else if (payloadLogSampler.sample()) {
+            log.info("Sampled {} event - Transaction ID: {} - Event data: {}",
+                    eventType, event.getTransactionId(), render(event));
+        }
+    }
+
+    private record RewardNotification(Notification notification, Instant deliverAt) {
+    }
+
+    private static String render(EventView event) {
+        try {
+            return PAYLOAD_PRINTER.printToString(event.toMessage());
+        } catch (InvalidProtocolBufferException e) {
+            return "<" + event.raw().size() + " bytes, not decodable: " + e.getMessage() + ">";
+        }
     }
 
 }
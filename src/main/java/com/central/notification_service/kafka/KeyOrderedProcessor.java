@@ -0,0 +1,173 @@
+package com.central.notification_service.kafka;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Processes a polled batch in parallel while keeping records with the same key in order.
+ *
+ * <p>Records are assigned to a fixed number of lanes by the hash of their key (records without a key by their
+ * partition). Each lane handles its records sequentially as one task on the {@code cpuTaskExecutor}, so records
+ * of different users run concurrently and records of one user never overtake each other. Results are returned in
+ * the original record order. Handling a record is CPU-bound (parsing and rendering), so the lanes share the
+ * bounded platform pool rather than virtual threads: that caps the parallelism of all listener containers at the
+ * number of cores, and the per-thread render buffers of the templates are reused across batches.</p>
+ *
+ * <p>When a record fails, its lane stops and the batch is reported as completed only up to the lowest failed
+ * index. The caller persists that prefix and rethrows, so the container commits offsets just below the failed
+ * record and redelivers the rest.</p>
+ */
+@Slf4j
+@Component
+public class KeyOrderedProcessor {
+
+    /**
+     * Batches smaller than this are processed on the listener thread; handing them off costs more than it saves.
+     */
+    private static final int MIN_PARALLEL_BATCH = 32;
+
+    private final ExecutorService cpuTaskExecutor;
+    private final int lanes;
+
+    @Autowired
+    public KeyOrderedProcessor(@Qualifier("cpuTaskExecutor") ExecutorService cpuTaskExecutor,
+                               @Value("${kafka.listener.key-lanes:8}") int lanes) {
+        this.cpuTaskExecutor = cpuTaskExecutor;
+        this.lanes = Math.max(1, lanes);
+    }
+
+    /**
+     * @param records the polled batch
+     * @param handler converts a record; returns {@code null} for records that are skipped
+     * @param <K>     record key type
+     * @param <V>     record value type
+     * @param <R>     result type
+     * @return the results up to the first failed record
+     */
+    public <K, V, R> Result<R> process(List<ConsumerRecord<K, V>> records, Function<ConsumerRecord<K, V>, R> handler) {
+        Object[] results = new Object[records.size()];
+        AtomicReference<Failure> failure = new AtomicReference<>(new Failure(records.size(), null));
+
+        if (lanes == 1 || records.size() < MIN_PARALLEL_BATCH) {
+            runLane(records, allIndices(records.size()), handler, results, failure);
+        } else {
+            List<List<Integer>> laneIndices = new ArrayList<>(lanes);
+            for (int i = 0; i < lanes; i++) {
+                laneIndices.add(new ArrayList<>(records.size() / lanes + 1));
+            }
+            for (int i = 0; i < records.size(); i++) {
+                laneIndices.get(laneOf(records.get(i))).add(i);
+            }
+
+            List<CompletableFuture<Void>> running = new ArrayList<>(lanes);
+            for (List<Integer> indices : laneIndices) {
+                if (!indices.isEmpty()) {
+                    running.add(CompletableFuture.runAsync(
+                            () -> runLane(records, indices, handler, results, failure), cpuTaskExecutor));
+                }
+            }
+            CompletableFuture.allOf(running.toArray(CompletableFuture[]::new)).join();
+        }
+        Failure first = failure.get();
+        return new Result<>(results, first.index(), first.cause());
+    }
+
+    private <K, V, R> void runLane(List<ConsumerRecord<K, V>> records, List<Integer> indices,
+                                   Function<ConsumerRecord<K, V>, R> handler, Object[] results,
+                                   AtomicReference<Failure> failure) {
+        for (int index : indices) {
+            if (index > failure.get().index()) {
+                // Everything from the failed record on is redelivered anyway
+                return;
+            }
+            try {
+                results[index] = handler.apply(records.get(index));
+            } catch (RuntimeException e) {
+                ConsumerRecord<K, V> consumerRecord = records.get(index);
+                log.error("Failed to process record at {}-{}@{}. Error: {}", consumerRecord.topic(),
+                        consumerRecord.partition(), consumerRecord.offset(), e.getMessage(), e);
+                // Index and exception change together, so the reported exception is always the lowest index's
+                Failure failed = new Failure(index, e);
+                failure.accumulateAndGet(failed, (current, candidate) ->
+                        candidate.index() < current.index() ? candidate : current);
+                return;
+            }
+        }
+    }
+
+    /**
+     * The lowest failed index so far, or the batch size with no cause while every record succeeded.
+     */
+    private record Failure(int index, RuntimeException cause) {
+    }
+
+    private int laneOf(ConsumerRecord<?, ?> consumerRecord) {
+        int hash = consumerRecord.key() != null ? consumerRecord.key().hashCode() : consumerRecord.partition();
+        return Math.floorMod(hash ^ (hash >>> 16), lanes);
+    }
+
+    private static List<Integer> allIndices(int size) {
+        List<Integer> indices = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            indices.add(i);
+        }
+        return indices;
+    }
+
+    /**
+     * Outcome of a processed batch.
+     *
+     * @param <R> result type
+     */
+    public static final class Result<R> {
+
+        private final Object[] results;
+        private final int failedIndex;
+        private final RuntimeException failure;
+
+        private Result(Object[] results, int failedIndex, RuntimeException failure) {
+            this.results = results;
+            this.failedIndex = failedIndex;
+            this.failure = failure;
+        }
+
+        /**
+         * @return non-null results of the records before the first failed one, in record order
+         */
+        @SuppressWarnings("unchecked")
+        public List<R> completed() {
+            List<R> completed = new ArrayList<>(failedIndex);
+            for (Object result : Arrays.asList(results).subList(0, failedIndex)) {
+                if (result != null) {
+                    completed.add((R) result);
+                }
+            }
+            return completed;
+        }
+
+        /**
+         * Signals the container to commit offsets below the first failed record and redeliver from there.
+         *
+         * @throws BatchListenerFailedException if a record failed
+         */
+        public void throwIfFailed() {
+            if (failure != null) {
+                throw new BatchListenerFailedException("Failed to process record " + failedIndex + " of batch",
+                        failure, failedIndex);
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.central.notification_service.kafka;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides which consumed events get their payload logged when the consumer runs at INFO.
+ * Payload dumps are expensive (protobuf {@code toString} of every field), so by default they are only written at
+ * DEBUG; a sample rate of N additionally logs roughly one in N events.
+ */
+@Component
+public class PayloadLogSampler {
+
+    private final int sampleRate;
+
+    public PayloadLogSampler(@Value("${notification.logging.payload-sample-rate:0}") int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * @return whether the payload of the current event should be logged
+     */
+    public boolean sample() {
+        return sampleRate > 0 && (sampleRate == 1 || ThreadLocalRandom.current().nextInt(sampleRate) == 0);
+    }
+}
@@ -0,0 +1,119 @@
+package com.central.notification_service.kafka;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Parser;
+import com.google.protobuf.WireFormat;
+import notification.events.RewardEvent;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Lazy view of a {@link RewardEvent}: transaction id, user id, reward value, creation and delivery time. The
+ * description and the notification message are skipped.
+ */
+public final class RewardEventView implements EventView {
+
+    private static final Parser<RewardEvent> PARSER = RewardEvent.parser();
+
+    private static final int TRANSACTION_ID_TAG =
+            EventViews.tag(RewardEvent.TRANSACTION_ID_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+    private static final int USER_ID_TAG =
+            EventViews.tag(RewardEvent.USER_ID_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+    private static final int REWARD_VALUE_TAG =
+            EventViews.tag(RewardEvent.REWARD_VALUE_FIELD_NUMBER, WireFormat.WIRETYPE_FIXED64);
+    private static final int CREATED_AT_TAG =
+            EventViews.tag(RewardEvent.CREATED_AT_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+    private static final int DELIVER_AT_TAG =
+            EventViews.tag(RewardEvent.DELIVER_AT_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+
+    private final ByteString raw;
+    private ByteString transactionIdBytes = ByteString.EMPTY;
+    private ByteString userIdBytes = ByteString.EMPTY;
+    private double rewardValue;
+    private Instant createdAt;
+    private Instant deliverAt;
+
+    private String transactionId;
+    private String userId;
+
+    private RewardEventView(ByteString raw) {
+        this.raw = raw;
+    }
+
+    /**
+     * Reads the fields of interest from an encoded event. String fields alias {@code raw} instead of being copied.
+     *
+     * @param raw the encoded event
+     * @return the view
+     * @throws InvalidProtocolBufferException if the event is not well-formed
+     */
+    public static RewardEventView parse(ByteString raw) throws InvalidProtocolBufferException {
+        RewardEventView view = new RewardEventView(raw);
+        CodedInputStream input = EventViews.aliasingInput(raw);
+        try {
+            int tag;
+            while ((tag = input.readTag()) != 0) {
+                if (tag == TRANSACTION_ID_TAG) {
+                    view.transactionIdBytes = EventViews.readUtf8(input);
+                } else if (tag == USER_ID_TAG) {
+                    view.userIdBytes = EventViews.readUtf8(input);
+                } else if (tag == REWARD_VALUE_TAG) {
+                    view.rewardValue = input.readDouble();
+                } else if (tag == CREATED_AT_TAG) {
+                    view.createdAt = EventViews.readTimestamp(input);
+                } else if (tag == DELIVER_AT_TAG) {
+                    view.deliverAt = EventViews.readTimestamp(input);
+                } else if (!input.skipField(tag)) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            throw EventViews.invalid(e);
+        }
+        return view;
+    }
+
+    @Override
+    public String getTransactionId() {
+        if (transactionId == null) {
+            transactionId = transactionIdBytes.toStringUtf8();
+        }
+        return transactionId;
+    }
+
+    public String getUserId() {
+        if (userId == null) {
+            userId = userIdBytes.toStringUtf8();
+        }
+        return userId;
+    }
+
+    public double getRewardValue() {
+        return rewardValue;
+    }
+
+    @Override
+    public Instant getEventTime() {
+        return createdAt;
+    }
+
+    /**
+     * @return the earliest time to deliver the notification, or {@code null} to deliver it right away
+     */
+    public Instant getDeliverAt() {
+        return deliverAt;
+    }
+
+    @Override
+    public ByteString raw() {
+        return raw;
+    }
+
+    @Override
+    public RewardEvent toMessage() throws InvalidProtocolBufferException {
+        return PARSER.parseFrom(raw);
+    }
+}
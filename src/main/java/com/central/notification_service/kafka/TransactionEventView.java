@@ -0,0 +1,127 @@
+package com.central.notification_service.kafka;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Parser;
+import com.google.protobuf.WireFormat;
+import notification.events.TransactionEvent;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Lazy view of a {@link TransactionEvent}: transaction, sender and receiver id, the amount and the timestamps.
+ */
+public final class TransactionEventView implements EventView {
+
+    private static final Parser<TransactionEvent> PARSER = TransactionEvent.parser();
+
+    private static final int TRANSACTION_ID_TAG =
+            EventViews.tag(TransactionEvent.TRANSACTION_ID_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+    private static final int SENDER_ID_TAG =
+            EventViews.tag(TransactionEvent.SENDER_ID_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+    private static final int RECEIVER_ID_TAG =
+            EventViews.tag(TransactionEvent.RECEIVER_ID_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+    private static final int AMOUNT_TAG =
+            EventViews.tag(TransactionEvent.AMOUNT_FIELD_NUMBER, WireFormat.WIRETYPE_FIXED64);
+    private static final int CREATED_AT_TAG =
+            EventViews.tag(TransactionEvent.CREATED_AT_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+    private static final int UPDATED_AT_TAG =
+            EventViews.tag(TransactionEvent.UPDATED_AT_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+
+    private final ByteString raw;
+    private ByteString transactionIdBytes = ByteString.EMPTY;
+    private ByteString senderIdBytes = ByteString.EMPTY;
+    private ByteString receiverIdBytes = ByteString.EMPTY;
+    private double amount;
+    private Instant createdAt;
+    private Instant updatedAt;
+
+    private String transactionId;
+    private String senderId;
+    private String receiverId;
+
+    private TransactionEventView(ByteString raw) {
+        this.raw = raw;
+    }
+
+    /**
+     * Reads the fields of interest from an encoded event. String fields alias {@code raw} instead of being copied.
+     *
+     * @param raw the encoded event
+     * @return the view
+     * @throws InvalidProtocolBufferException if the event is not well-formed
+     */
+    public static TransactionEventView parse(ByteString raw) throws InvalidProtocolBufferException {
+        TransactionEventView view = new TransactionEventView(raw);
+        CodedInputStream input = EventViews.aliasingInput(raw);
+        try {
+            int tag;
+            while ((tag = input.readTag()) != 0) {
+                if (tag == TRANSACTION_ID_TAG) {
+                    view.transactionIdBytes = EventViews.readUtf8(input);
+                } else if (tag == SENDER_ID_TAG) {
+                    view.senderIdBytes = EventViews.readUtf8(input);
+                } else if (tag == RECEIVER_ID_TAG) {
+                    view.receiverIdBytes = EventViews.readUtf8(input);
+                } else if (tag == AMOUNT_TAG) {
+                    view.amount = input.readDouble();
+                } else if (tag == CREATED_AT_TAG) {
+                    view.createdAt = EventViews.readTimestamp(input);
+                } else if (tag == UPDATED_AT_TAG) {
+                    view.updatedAt = EventViews.readTimestamp(input);
+                } else if (!input.skipField(tag)) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            throw EventViews.invalid(e);
+        }
+        return view;
+    }
+
+    @Override
+    public String getTransactionId() {
+        if (transactionId == null) {
+            transactionId = transactionIdBytes.toStringUtf8();
+        }
+        return transactionId;
+    }
+
+    public String getSenderId() {
+        if (senderId == null) {
+            senderId = senderIdBytes.toStringUtf8();
+        }
+        return senderId;
+    }
+
+    public String getReceiverId() {
+        if (receiverId == null) {
+            receiverId = receiverIdBytes.toStringUtf8();
+        }
+        return receiverId;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    /**
+     * @return when the transaction last changed, i.e. completed, falling back to when it was created
+     */
+    @Override
+    public Instant getEventTime() {
+        return updatedAt != null ? updatedAt : createdAt;
+    }
+
+    @Override
+    public ByteString raw() {
+        return raw;
+    }
+
+    @Override
+    public TransactionEvent toMessage() throws InvalidProtocolBufferException {
+        return PARSER.parseFrom(raw);
+    }
+}
@@ -0,0 +1,247 @@
+package com.central.notification_service.live;
+
+import com.central.notification_service.model.Notification;
+import com.central.notification_service.model.NotificationsSavedEvent;
+import com.central.notification_service.model.RemoteNotificationsSavedEvent;
+import com.central.notification_service.repository.NotificationRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Passes stored notifications on to the live feed subscribers connected to other nodes, over PostgreSQL
+ * {@code LISTEN/NOTIFY}.
+ *
+ * <p>The transaction that stores a batch also notifies the {@code live_feed} channel with the ids and users of its
+ * notifications, so the message goes out exactly when the batch commits. Payloads are limited to 8000 bytes; large
+ * batches are split over several messages. Every node listens on a connection of its own and, for the users with
+ * a live feed open on that node, loads the notifications and hands them to its {@link LiveFeedHub}. A node skips
+ * its own messages, which the hub already received in-process.</p>
+ *
+ * <p>The notifications are loaded in a read-write transaction of their own so they are read from the primary: the
+ * message arrives right after the commit, before a replica has necessarily caught up. Should some of them still
+ * not be found, the subscribers are told to reload their history rather than silently missing them.</p>
+ *
+ * <p>Every message from another node is also published as a {@link RemoteNotificationsSavedEvent} for all of its
+ * users, so caches of the users' history on this node are invalidated whether or not a live feed is open.</p>
+ *
+ * <p>Messages sent while a node's listening connection is down are lost, so after reconnecting the node tells its
+ * subscribers to reload their history and reports the loss as a {@link RemoteNotificationsSavedEvent#lost()}.
+ * Notifying serialises committing transactions on a database-wide lock, at one message per stored batch; a
+ * deployment with a single replica can turn it off with {@code notification.live-feed.broadcast=false}.</p>
+ */
+@Slf4j
+@Component
+public class LiveFeedBroadcaster {
+
+    private static final String CHANNEL = "live_feed";
+    private static final int MAX_PAYLOAD_BYTES = 7900;
+    private static final int POLL_TIMEOUT_MILLIS = 500;
+
+    private final LiveFeedHub liveFeedHub;
+    private final LiveFeedProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final NotificationRepository notificationRepository;
+    private final TransactionTemplate primaryTransaction;
+    private final ExecutorService ioTaskExecutor;
+    private final JsonMapper jsonMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String origin = UUID.randomUUID().toString();
+
+    private volatile boolean running;
+
+    @Autowired
+    public LiveFeedBroadcaster(LiveFeedHub liveFeedHub, LiveFeedProperties properties, JdbcTemplate jdbcTemplate,
+                               DataSource dataSource, NotificationRepository notificationRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Qualifier("ioTaskExecutor") ExecutorService ioTaskExecutor, JsonMapper jsonMapper,
+                               ApplicationEventPublisher eventPublisher) {
+        this.liveFeedHub = liveFeedHub;
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+        this.notificationRepository = notificationRepository;
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+        this.primaryTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ioTaskExecutor = ioTaskExecutor;
+        this.jsonMapper = jsonMapper;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isBroadcast()) {
+            return;
+        }
+        running = true;
+        ioTaskExecutor.execute(this::listenLoop);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+    }
+
+    /**
+     * Notifies the other nodes of the batch as part of the transaction that stores it.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onNotificationsSaved(NotificationsSavedEvent event) {
+        if (!properties.isBroadcast()) {
+            return;
+        }
+        List<Entry> entries = new ArrayList<>();
+        int size = 0;
+        for (Notification notification : event.notifications()) {
+            Entry entry = new Entry(notification.getUserId(), notification.getNotificationId());
+            // Generous estimate of the entry's JSON; user ids are short ASCII strings in practice
+            int entrySize = entry.userId().length() * 6 + 40;
+            if (!entries.isEmpty() && size + entrySize > MAX_PAYLOAD_BYTES) {
+                notify(entries);
+                entries = new ArrayList<>();
+                size = 0;
+            }
+            entries.add(entry);
+            size += entrySize;
+        }
+        if (!entries.isEmpty()) {
+            notify(entries);
+        }
+    }
+
+    private void notify(List<Entry> entries) {
+        String payload = jsonMapper.writeValueAsString(new Message(origin, entries));
+        jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, CHANNEL, payload);
+    }
+
+    private void listenLoop() {
+        boolean reconnect = false;
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                if (reconnect) {
+                    log.info("Listening to live feed notifications of other nodes again");
+                    reportLostMessages();
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            receive(notification.getParameter());
+                        }
+                    }
+                }
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("UNLISTEN " + CHANNEL);
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Lost the live feed notifications of other nodes, reconnecting in {}. Error: {}",
+                        properties.getReconnectDelay(), e.getMessage());
+                reconnect = true;
+                try {
+                    TimeUnit.MILLISECONDS.sleep(properties.getReconnectDelay().toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Hands the notifications of a message from another node to the subscribers on this node.
+     *
+     * @param payload the JSON payload of a {@code live_feed} notification
+     */
+    void receive(String payload) {
+        Message message;
+        try {
+            message = jsonMapper.readValue(payload, Message.class);
+        } catch (JacksonException e) {
+            log.warn("Failed to read live feed notifications of another node. Error: {}", e.getMessage());
+            reportLostMessages();
+            return;
+        }
+        if (origin.equals(message.origin())) {
+            return;
+        }
+        Set<String> userIds = new HashSet<>();
+        for (Entry entry : message.notifications()) {
+            userIds.add(entry.userId());
+        }
+        eventPublisher.publishEvent(RemoteNotificationsSavedEvent.of(userIds));
+
+        try {
+            List<Long> notificationIds = new ArrayList<>();
+            for (Entry entry : message.notifications()) {
+                if (liveFeedHub.hasSubscribers(entry.userId())) {
+                    notificationIds.add(entry.notificationId());
+                }
+            }
+            if (notificationIds.isEmpty()) {
+                return;
+            }
+            List<Notification> notifications = new ArrayList<>(
+                    primaryTransaction.execute(status -> notificationRepository.findAllById(notificationIds)));
+            notifications.sort(Comparator.comparing(Notification::getNotificationId));
+            liveFeedHub.publish(notifications);
+            if (notifications.size() < notificationIds.size()) {
+                log.warn("Found {} of {} live feed notifications of another node", notifications.size(),
+                        notificationIds.size());
+                liveFeedHub.reportGap();
+            }
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Failed to pass on live feed notifications of another node. Error: {}", e.getMessage());
+            liveFeedHub.reportGap();
+        }
+    }
+
+    private void reportLostMessages() {
+        liveFeedHub.reportGap();
+        eventPublisher.publishEvent(RemoteNotificationsSavedEvent.lost());
+    }
+
+    private record Message(String origin, List<Entry> notifications) {
+    }
+
+    private record Entry(String userId, long notificationId) {
+    }
+}
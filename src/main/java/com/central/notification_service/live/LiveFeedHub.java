@@ -0,0 +1,246 @@
+package com.central.notification_service.live;
+
+import com.central.notification_service.metrics.NotificationMetrics;
+import com.central.notification_service.model.Notification;
+import com.central.notification_service.model.NotificationsSavedEvent;
+import com.central.notification_service.utils.ServiceUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes newly stored notifications to the live feed subscribers of their user.
+ *
+ * <p>Once a batch of notifications has committed, each notification of a user with subscribers is rendered to
+ * JSON once and offered to every subscriber's bounded buffer. Offering never blocks the committing thread: when
+ * a buffer is full its oldest event is dropped, and the subscriber is told how many it missed (a {@code dropped}
+ * event) so it can catch up through the history endpoint. Every connection has its own writer on the
+ * virtual-thread {@code ioTaskExecutor}, which waits on the buffer and writes to the connection; a slow client
+ * therefore only blocks its own writer. Idle connections get a keep-alive comment every {@code heartbeat}.</p>
+ *
+ * <p>Source events are spread over the replicas by Kafka partition, so most notifications are stored by another
+ * node than the one a subscriber is connected to; {@link LiveFeedBroadcaster} passes those on to this hub.</p>
+ */
+@Slf4j
+@Component
+public class LiveFeedHub {
+
+    private final ExecutorService ioTaskExecutor;
+    private final LiveFeedProperties properties;
+    private final NotificationMetrics metrics;
+    private final JsonMapper jsonMapper;
+    private final Map<String, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    @Autowired
+    public LiveFeedHub(@Qualifier("ioTaskExecutor") ExecutorService ioTaskExecutor, LiveFeedProperties properties,
+                       NotificationMetrics metrics, JsonMapper jsonMapper) {
+        this.ioTaskExecutor = ioTaskExecutor;
+        this.properties = properties;
+        this.metrics = metrics;
+        this.jsonMapper = jsonMapper;
+        metrics.registerLiveFeed(subscriberCount::get);
+    }
+
+    /**
+     * Opens a subscription to the user's new notifications.
+     *
+     * @return the event stream, or {@code null} when the feed is disabled or this node has no capacity left
+     */
+    public SseEmitter subscribe(String userId) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        if (subscriberCount.incrementAndGet() > properties.getMaxSubscribers()) {
+            subscriberCount.decrementAndGet();
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+        Subscription subscription = new Subscription(userId, emitter);
+        boolean[] added = {false};
+        subscriptions.compute(userId, (key, userSubscriptions) -> {
+            Set<Subscription> target = userSubscriptions != null ? userSubscriptions : ConcurrentHashMap.newKeySet();
+            if (target.size() < properties.getMaxSubscribersPerUser()) {
+                added[0] = target.add(subscription);
+            }
+            return target.isEmpty() ? null : target;
+        });
+        if (!added[0]) {
+            subscriberCount.decrementAndGet();
+            return null;
+        }
+        emitter.onCompletion(() -> subscription.close());
+        emitter.onTimeout(() -> subscription.close());
+        emitter.onError(error -> subscription.close());
+        ioTaskExecutor.execute(subscription::writeLoop);
+        return emitter;
+    }
+
+    /**
+     * Fans the committed notifications out to the subscribers of their users.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onNotificationsSaved(NotificationsSavedEvent event) {
+        publish(event.notifications());
+    }
+
+    /**
+     * @return whether the user has a live feed open on this node
+     */
+    public boolean hasSubscribers(String userId) {
+        return subscriptions.containsKey(userId);
+    }
+
+    /**
+     * Offers notifications stored by any node to the subscribers of their users on this node.
+     */
+    public void publish(List<Notification> notifications) {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        for (Notification notification : notifications) {
+            Set<Subscription> userSubscriptions = subscriptions.get(notification.getUserId());
+            if (userSubscriptions == null) {
+                continue;
+            }
+            LiveEvent liveEvent = new LiveEvent(String.valueOf(notification.getNotificationId()),
+                    jsonMapper.writeValueAsString(ServiceUtils.constructNotificationResponse(notification)));
+            for (Subscription subscription : userSubscriptions) {
+                subscription.offer(liveEvent);
+            }
+        }
+    }
+
+    /**
+     * Tells every subscriber that it may have missed notifications, e.g. while notifications of other nodes could
+     * not be received, so it reloads the history.
+     */
+    public void reportGap() {
+        for (Set<Subscription> userSubscriptions : subscriptions.values()) {
+            for (Subscription subscription : userSubscriptions) {
+                subscription.markDropped();
+            }
+        }
+    }
+
+    private record LiveEvent(String id, String json) {
+    }
+
+    private final class Subscription {
+
+        /**
+         * Wakes up the writer once the subscription is closed; compared by identity.
+         */
+        private static final LiveEvent CLOSED = new LiveEvent("", "");
+
+        /**
+         * Wakes up the writer without an event to send; compared by identity.
+         */
+        private static final LiveEvent WAKE_UP = new LiveEvent("", "");
+
+        private final String userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<LiveEvent> buffer;
+        private final AtomicInteger dropped = new AtomicInteger();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscription(String userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(Math.max(1, properties.getBufferSize()));
+        }
+
+        /**
+         * Adds an event without blocking, dropping the oldest buffered events to make room.
+         */
+        private void offer(LiveEvent event) {
+            while (!buffer.offer(event)) {
+                LiveEvent oldest = buffer.poll();
+                if (oldest == CLOSED) {
+                    buffer.offer(CLOSED);
+                    return;
+                }
+                if (oldest != null && oldest != WAKE_UP) {
+                    dropped.incrementAndGet();
+                    metrics.recordLiveFeedDropped();
+                }
+            }
+        }
+
+        /**
+         * Makes the writer send a {@code dropped} event even though no buffered event was dropped.
+         */
+        private void markDropped() {
+            dropped.incrementAndGet();
+            buffer.offer(WAKE_UP);
+        }
+
+        private void writeLoop() {
+            long heartbeatNanos = properties.getHeartbeat().toNanos();
+            try {
+                emitter.send(SseEmitter.event().comment("subscribed"));
+                while (!closed.get()) {
+                    LiveEvent event = buffer.poll(heartbeatNanos, TimeUnit.NANOSECONDS);
+                    if (event == CLOSED) {
+                        return;
+                    }
+                    int missed = dropped.getAndSet(0);
+                    if (missed > 0) {
+                        emitter.send(SseEmitter.event().name("dropped").data(missed));
+                    }
+                    if (event != null && event != WAKE_UP) {
+                        emitter.send(SseEmitter.event().id(event.id()).name("notification")
+                                .data(event.json(), MediaType.APPLICATION_JSON));
+                    } else if (event == null && missed == 0) {
+                        emitter.send(SseEmitter.event().comment("keep-alive"));
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | IllegalStateException e) {
+                // Client went away, or the request completed meanwhile
+                log.debug("Live feed of user {} closed. Error: {}", userId, e.getMessage());
+            } finally {
+                if (close()) {
+                    emitter.complete();
+                }
+            }
+        }
+
+        /**
+         * @return whether this call closed the subscription
+         */
+        private boolean close() {
+            if (!closed.compareAndSet(false, true)) {
+                return false;
+            }
+            subscriptions.computeIfPresent(userId, (key, userSubscriptions) -> {
+                userSubscriptions.remove(this);
+                return userSubscriptions.isEmpty() ? null : userSubscriptions;
+            });
+            subscriberCount.decrementAndGet();
+            while (!buffer.offer(CLOSED)) {
+                buffer.poll();
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.central.notification_service.live;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Live notification feed, bound from {@code notification.live-feed.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "notification.live-feed")
+public class LiveFeedProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Events buffered per subscriber. When a slow subscriber's buffer is full the oldest event is dropped.
+     */
+    private int bufferSize = 32;
+
+    /**
+     * Open connections per node; further subscriptions are rejected with 503.
+     */
+    private int maxSubscribers = 50000;
+
+    private int maxSubscribersPerUser = 8;
+
+    /**
+     * Idle time after which a keep-alive comment is sent, so proxies do not close the connection.
+     */
+    private Duration heartbeat = Duration.ofSeconds(20);
+
+    /**
+     * Lifetime of a connection; clients reconnect afterwards.
+     */
+    private Duration timeout = Duration.ofMinutes(30);
+
+    /**
+     * Passes notifications on to the subscribers connected to other nodes, see {@link LiveFeedBroadcaster}, and
+     * invalidates the history cached by other nodes. Independent of {@code enabled}; only a deployment with a
+     * single replica may turn it off.
+     */
+    private boolean broadcast = true;
+
+    /**
+     * Wait before listening again after the connection that receives other nodes' notifications failed.
+     */
+    private Duration reconnectDelay = Duration.ofSeconds(5);
+}
@@ -0,0 +1,202 @@
+package com.central.notification_service.metrics;
+
+import com.central.notification_service.model.NotificationChannel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Meters of the event-to-notification pipeline.
+ *
+ * <p>Stage timers publish percentile histograms so p99 can be computed and aggregated across replicas in
+ * Prometheus. Durations are measured with {@link System#nanoTime()} by the callers; only the age of consumed
+ * records is based on the wall clock, since it is derived from the Kafka record timestamp.</p>
+ *
+ * <ul>
+ *     <li>{@code notification.consumer.parse} / {@code .build} - per record, tagged by topic</li>
+ *     <li>{@code notification.consumer.persist} - per polled batch, tagged by topic</li>
+ *     <li>{@code notification.consumer.record.age} - time between production and consumption, tagged by topic</li>
+ *     <li>{@code notification.events.consumed} / {@code .failed} / {@code .deduplicated} - tagged by topic</li>
+ *     <li>{@code notification.dispatch} - provider call duration, tagged by channel and outcome</li>
+ *     <li>{@code notification.dispatch.in_flight} / {@code .pending} - dispatch lane occupancy by channel</li>
+ *     <li>{@code notification.live.subscribers} / {@code .dropped} - open live feed connections and events dropped
+ *     for slow subscribers</li>
+ * </ul>
+ */
+@Component
+public class NotificationMetrics {
+
+    private static final Duration MIN_STAGE_DURATION = Duration.ofNanos(500);
+    private static final Duration MAX_STAGE_DURATION = Duration.ofSeconds(30);
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, ConsumerMeters> consumerMeters = new ConcurrentHashMap<>();
+    private final Map<NotificationChannel, Timer> dispatchSucceeded = new EnumMap<>(NotificationChannel.class);
+    private final Map<NotificationChannel, Timer> dispatchFailed = new EnumMap<>(NotificationChannel.class);
+    private final Counter liveFeedDropped;
+
+    @Autowired
+    public NotificationMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        for (NotificationChannel channel : NotificationChannel.values()) {
+            dispatchSucceeded.put(channel, dispatchTimer(channel, "success"));
+            dispatchFailed.put(channel, dispatchTimer(channel, "failure"));
+        }
+        this.liveFeedDropped = Counter.builder("notification.live.dropped")
+                .description("Live feed events dropped because the subscriber's buffer was full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param topic the consumed topic
+     * @return the meters of that topic
+     */
+    public ConsumerMeters consumer(String topic) {
+        return consumerMeters.computeIfAbsent(topic, ConsumerMeters::new);
+    }
+
+    /**
+     * Records a provider call of a delivery.
+     *
+     * @param channel     the channel the delivery went through
+     * @param nanos       duration of the provider call
+     * @param successful  whether the call succeeded
+     */
+    public void recordDispatch(NotificationChannel channel, long nanos, boolean successful) {
+        (successful ? dispatchSucceeded : dispatchFailed).get(channel).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Registers the occupancy gauges of a dispatch lane.
+     *
+     * @param channel  the lane's channel
+     * @param inFlight deliveries currently calling the provider
+     * @param pending  deliveries accepted and not yet finished
+     */
+    public void registerDispatchLane(NotificationChannel channel, Supplier<Number> inFlight,
+                                     Supplier<Number> pending) {
+        Gauge.builder("notification.dispatch.in_flight", inFlight)
+                .description("Deliveries currently calling the channel provider")
+                .tag("channel", channel.name())
+                .register(meterRegistry);
+        Gauge.builder("notification.dispatch.pending", pending)
+                .description("Deliveries accepted by the dispatch lane and not yet finished")
+                .tag("channel", channel.name())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registers the gauge of open live feed connections.
+     */
+    public void registerLiveFeed(Supplier<Number> subscribers) {
+        Gauge.builder("notification.live.subscribers", subscribers)
+                .description("Open live feed connections")
+                .register(meterRegistry);
+    }
+
+    public void recordLiveFeedDropped() {
+        liveFeedDropped.increment();
+    }
+
+    private Timer dispatchTimer(NotificationChannel channel, String outcome) {
+        return stageTimer("notification.dispatch", "Duration of channel provider calls")
+                .tag("channel", channel.name())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static Timer.Builder stageTimer(String name, String description) {
+        return Timer.builder(name)
+                .description(description)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MIN_STAGE_DURATION)
+                .maximumExpectedValue(MAX_STAGE_DURATION);
+    }
+
+    /**
+     * Meters of a single consumed topic.
+     */
+    public final class ConsumerMeters {
+
+        private final Timer parse;
+        private final Timer build;
+        private final Timer persist;
+        private final Timer recordAge;
+        private final Counter consumed;
+        private final Counter failed;
+        private final Counter deduplicated;
+
+        private ConsumerMeters(String topic) {
+            this.parse = stageTimer("notification.consumer.parse", "Protobuf decoding of a consumed record")
+                    .tag("topic", topic)
+                    .register(meterRegistry);
+            this.build = stageTimer("notification.consumer.build", "Building the notification of a consumed event")
+                    .tag("topic", topic)
+                    .register(meterRegistry);
+            this.persist = stageTimer("notification.consumer.persist", "Persisting the notifications of a batch")
+                    .tag("topic", topic)
+                    .register(meterRegistry);
+            this.recordAge = Timer.builder("notification.consumer.record.age")
+                    .description("Time between a record being produced and consumed")
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(Duration.ofHours(1))
+                    .tag("topic", topic)
+                    .register(meterRegistry);
+            this.consumed = eventCounter("notification.events.consumed", "Records received from Kafka", topic);
+            this.failed = eventCounter("notification.events.failed", "Records that could not be processed", topic);
+            this.deduplicated = eventCounter("notification.events.deduplicated",
+                    "Events dropped because they were already processed", topic);
+        }
+
+        public void recordParse(long nanos) {
+            parse.record(nanos, TimeUnit.NANOSECONDS);
+        }
+
+        public void recordBuild(long nanos) {
+            build.record(nanos, TimeUnit.NANOSECONDS);
+        }
+
+        public void recordPersist(long nanos) {
+            persist.record(nanos, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * @param recordTimestamp the Kafka record timestamp, in epoch milliseconds
+         */
+        public void recordAge(long recordTimestamp) {
+            if (recordTimestamp > 0) {
+                recordAge.record(Math.max(0, System.currentTimeMillis() - recordTimestamp), TimeUnit.MILLISECONDS);
+            }
+        }
+
+        public void consumed(int count) {
+            consumed.increment(count);
+        }
+
+        public void failed() {
+            failed.increment();
+        }
+
+        public void deduplicated(int count) {
+            deduplicated.increment(count);
+        }
+
+        private Counter eventCounter(String name, String description, String topic) {
+            return Counter.builder(name)
+                    .description(description)
+                    .tag("topic", topic)
+                    .register(meterRegistry);
+        }
+    }
+}
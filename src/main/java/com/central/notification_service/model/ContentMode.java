@@ -0,0 +1,53 @@
+package com.central.notification_service.model;
+
+import java.util.Locale;
+
+/**
+ * How much of a notification's content a history page returns.
+ */
+public enum ContentMode {
+
+    FULL,
+
+    /**
+     * The first characters of the content, up to the configured preview length.
+     */
+    PREVIEW,
+
+    /**
+     * No content; subjects are usually enough for list views.
+     */
+    NONE;
+
+    /**
+     * @param value the content request parameter, {@code null} for the default
+     * @return the matching mode, {@link #FULL} when none is given
+     * @throws IllegalArgumentException if the mode is not supported
+     */
+    public static ContentMode of(String value) {
+        if (value == null || value.isBlank()) {
+            return FULL;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(
+                    "Unsupported content mode: " + value + " (expected FULL, PREVIEW or NONE)");
+        }
+    }
+
+    /**
+     * @param content       the stored content
+     * @param previewLength characters kept by {@link #PREVIEW}
+     * @return the content to return
+     */
+    public String apply(String content, int previewLength) {
+        return switch (this) {
+            case FULL -> content;
+            case PREVIEW -> content == null || content.codePointCount(0, content.length()) <= previewLength
+                    ? content
+                    : content.substring(0, content.offsetByCodePoints(0, previewLength));
+            case NONE -> null;
+        };
+    }
+}
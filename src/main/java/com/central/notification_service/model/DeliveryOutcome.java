@@ -0,0 +1,58 @@
+package com.central.notification_service.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Result of one delivery attempt, buffered by the relay and written back to the outbox in batches.
+ *
+ * @param deliveryId    the outbox row
+ * @param leaseToken    the claim the outcome belongs to; it is discarded when the row was claimed again meanwhile
+ * @param status        the new status (SENT, PENDING for a retry, FAILED or SKIPPED)
+ * @param sentAt        completion time of a successful send
+ * @param nextAttemptAt when a retry becomes due, {@code null} to keep the current value
+ * @param latencyMs     duration of the successful provider call
+ * @param error         failure description or reason for skipping, truncated to the column size
+ * @param attempted     whether the claim counts as an attempt; {@code false} gives the attempt back
+ */
+public record DeliveryOutcome(long deliveryId, long leaseToken, DeliveryStatus status, LocalDateTime sentAt,
+                              LocalDateTime nextAttemptAt, Long latencyMs, String error, boolean attempted) {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    public static DeliveryOutcome sent(OutboxDelivery delivery, long latencyMs) {
+        return new DeliveryOutcome(delivery.getDeliveryId(), delivery.getLeaseToken(), DeliveryStatus.SENT,
+                LocalDateTime.now(), null, latencyMs, null, true);
+    }
+
+    public static DeliveryOutcome retry(OutboxDelivery delivery, LocalDateTime nextAttemptAt, Throwable error) {
+        return new DeliveryOutcome(delivery.getDeliveryId(), delivery.getLeaseToken(), DeliveryStatus.PENDING,
+                null, nextAttemptAt, null, describe(error), true);
+    }
+
+    public static DeliveryOutcome failed(OutboxDelivery delivery, Throwable error) {
+        return new DeliveryOutcome(delivery.getDeliveryId(), delivery.getLeaseToken(), DeliveryStatus.FAILED,
+                null, null, null, describe(error), true);
+    }
+
+    /**
+     * The delivery was claimed but not sent because the provider's rate limit was reached.
+     */
+    public static DeliveryOutcome deferred(OutboxDelivery delivery, LocalDateTime nextAttemptAt) {
+        return new DeliveryOutcome(delivery.getDeliveryId(), delivery.getLeaseToken(), DeliveryStatus.PENDING,
+                null, nextAttemptAt, null, null, false);
+    }
+
+    /**
+     * The delivery was claimed but not sent because the user opted out of the channel.
+     */
+    public static DeliveryOutcome skipped(OutboxDelivery delivery, String reason) {
+        return new DeliveryOutcome(delivery.getDeliveryId(), delivery.getLeaseToken(), DeliveryStatus.SKIPPED,
+                null, null, null, reason, false);
+    }
+
+    private static String describe(Throwable error) {
+        Throwable cause = error.getCause() != null ? error.getCause() : error;
+        String description = cause.getClass().getSimpleName() + ": " + cause.getMessage();
+        return description.length() > MAX_ERROR_LENGTH ? description.substring(0, MAX_ERROR_LENGTH) : description;
+    }
+}
@@ -0,0 +1,16 @@
+package com.central.notification_service.model;
+
+public enum DeliveryStatus {
+    /**
+     * Due beyond the scheduler's horizon; made PENDING by the replica owning its shard shortly before it is due.
+     */
+    SCHEDULED,
+    PENDING,
+    IN_FLIGHT,
+    SENT,
+    FAILED,
+    /**
+     * Not sent because the user opted out after the delivery was planned.
+     */
+    SKIPPED
+}
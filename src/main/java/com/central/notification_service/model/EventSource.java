@@ -0,0 +1,11 @@
+package com.central.notification_service.model;
+
+/**
+ * The kind of consumed event a notification was built from. A transaction event produces a SENDER and a RECEIVER
+ * notification of the same type, which only differ by their source when a user sends money to themselves.
+ */
+public enum EventSource {
+    SENDER,
+    RECEIVER,
+    REWARD
+}
@@ -8,7 +8,13 @@ import lombok.AllArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "central_notifications")
+// Range partitioned by month on sent_at (see db/migration/V6); event uniqueness lives in notification_event_keys
+@Table(name = "central_notifications", indexes = {
+        // Keyset pagination of a user's history, newest first
+        @Index(name = "idx_central_notifications_user_sent", columnList = "user_id, sent_at DESC, notification_id DESC"),
+        // Time range exports across users, oldest first
+        @Index(name = "idx_central_notifications_sent", columnList = "sent_at, notification_id")
+})
 @Data // Generates getters, setters, toString, equals, and hashCode
 @NoArgsConstructor // Generates a no-args constructor
 @AllArgsConstructor // Generates an all-args constructor
@@ -17,10 +23,11 @@ public class Notification {
 
     /**
      * Corresponds to OpenAPI field 'notificationId' (type: integer).
-     * Used as the Primary Key and is auto-generated by the database.
+     * Used as the Primary Key. Generated in the application as a time-ordered 64-bit id so that
+     * inserts need no round trip for the key and can be batched.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     private Long notificationId;
 
     /**
@@ -72,4 +79,11 @@ public class Notification {
      */
     @Column(name = "sent_at", nullable = false)
     private LocalDateTime sentAt;
+
+    /**
+     * The kind of event the notification was built from. Not stored with the notification; it only identifies
+     * the event in {@code notification_event_keys} (see db/migration/V14).
+     */
+    @Transient
+    private EventSource eventSource;
 }
\ No newline at end of file
@@ -1,7 +1,26 @@
 package com.central.notification_service.model;
 
+import java.util.Locale;
+
 public enum NotificationChannel {
     EMAIL,
     SMS,
-    PUSH
+    PUSH;
+
+    /**
+     * @param value the channel request parameter, matched case-insensitively; {@code null} or blank for none
+     * @return the matching channel, {@code null} when none is given
+     * @throws IllegalArgumentException if the channel is not supported
+     */
+    public static NotificationChannel of(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(
+                    "Unsupported channel: " + value + " (expected EMAIL, SMS or PUSH)");
+        }
+    }
 }
@@ -0,0 +1,74 @@
+package com.central.notification_service.model;
+
+import org.openapitools.model.NotificationDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position in a user's notification history, ordered by {@code sent_at desc, notification_id desc}.
+ * Clients receive it as an opaque URL-safe token and hand it back to fetch the next page.
+ *
+ * @param sentAt         send time of the last notification on the previous page
+ * @param notificationId id of the last notification on the previous page
+ */
+public record NotificationCursor(LocalDateTime sentAt, long notificationId) {
+
+    private static final char SEPARATOR = '|';
+
+    /**
+     * Creates the cursor pointing just after the given notification.
+     *
+     * @param notification the last notification returned to the client
+     * @return the cursor for the following page
+     */
+    public static NotificationCursor after(Notification notification) {
+        return new NotificationCursor(notification.getSentAt(), notification.getNotificationId());
+    }
+
+    /**
+     * Creates the cursor pointing just after the given response item, converting its send time back to the zone
+     * in which {@code sent_at} is stored.
+     *
+     * @param notification the last notification returned to the client
+     * @return the cursor for the following page
+     */
+    public static NotificationCursor after(NotificationDTO notification) {
+        return new NotificationCursor(
+                notification.getSentAt().atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime(),
+                notification.getNotificationId());
+    }
+
+    /**
+     * @return the opaque token representation of this cursor
+     */
+    public String encode() {
+        String raw = sentAt.toString() + SEPARATOR + notificationId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parses a token previously produced by {@link #encode()}.
+     *
+     * @param token the opaque cursor token
+     * @return the decoded cursor
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static NotificationCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            return new NotificationCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
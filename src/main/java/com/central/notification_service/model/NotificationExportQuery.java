@@ -0,0 +1,30 @@
+package com.central.notification_service.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Parameters of a bulk export. Rows are exported oldest first, ordered by {@code sent_at, notification_id};
+ * {@code from} is inclusive and {@code to} exclusive. An export either targets one user or a bounded time range.
+ */
+@Value
+@Builder
+public class NotificationExportQuery {
+    String userId;
+    NotificationType type;
+    NotificationChannel channel;
+    LocalDateTime from;
+    LocalDateTime to;
+
+    /**
+     * Position to resume after, taken from the last row a previous export delivered.
+     */
+    NotificationCursor after;
+
+    /**
+     * Maximum number of rows, 0 for all.
+     */
+    long limit;
+}
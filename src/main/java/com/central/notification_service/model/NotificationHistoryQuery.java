@@ -0,0 +1,24 @@
+package com.central.notification_service.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Parameters of a single notification history page request.
+ * All filters except {@code userId} are optional; {@code from} is inclusive and {@code to} exclusive.
+ */
+@Value
+@Builder
+public class NotificationHistoryQuery {
+    String userId;
+    NotificationType type;
+    NotificationChannel channel;
+    LocalDateTime from;
+    LocalDateTime to;
+    NotificationCursor cursor;
+    int limit;
+    @Builder.Default
+    ContentMode content = ContentMode.FULL;
+}
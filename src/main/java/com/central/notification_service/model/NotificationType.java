@@ -1,7 +1,26 @@
 package com.central.notification_service.model;
 
+import java.util.Locale;
+
 public enum NotificationType {
     TRANSACTION_SUCCESS,
     REWARD_GRANTED,
-    TRANSACTION_FAILED,
+    TRANSACTION_FAILED;
+
+    /**
+     * @param value the type request parameter, matched case-insensitively; {@code null} or blank for none
+     * @return the matching notification type, {@code null} when none is given
+     * @throws IllegalArgumentException if the notification type is not supported
+     */
+    public static NotificationType of(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(
+                    "Unsupported notification type: " + value + " (expected TRANSACTION_SUCCESS, REWARD_GRANTED or TRANSACTION_FAILED)");
+        }
+    }
 }
@@ -0,0 +1,12 @@
+package com.central.notification_service.model;
+
+import java.util.List;
+
+/**
+ * Published when a batch of notifications (and their outbox deliveries) has been written.
+ * Listeners that need the data to be durable should use {@code @TransactionalEventListener}.
+ *
+ * @param notifications the notifications that were saved
+ */
+public record NotificationsSavedEvent(List<Notification> notifications) {
+}
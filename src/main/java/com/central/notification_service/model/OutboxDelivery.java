@@ -0,0 +1,117 @@
+package com.central.notification_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A single channel delivery of a {@link Notification}, written in the same transaction as the notification
+ * and drained by the outbox relay.
+ */
+@Entity
+@Table(name = "notification_outbox")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxDelivery {
+
+    @Id
+    @SnowflakeId
+    @Column(name = "delivery_id")
+    private Long deliveryId;
+
+    /**
+     * The notification this delivery belongs to.
+     */
+    @Column(name = "notification_id", nullable = false)
+    private Long notificationId;
+
+    @Column(name = "transaction_id", nullable = false)
+    private String transactionId;
+
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    /**
+     * Type of the notification, {@code null} for deliveries written before it was recorded.
+     */
+    @Column(name = "notification_type")
+    @Enumerated(EnumType.STRING)
+    private NotificationType notificationType;
+
+    @Column(name = "channel", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private NotificationChannel channel;
+
+    /**
+     * Channel specific address: email address, phone number or user id for push.
+     */
+    @Column(name = "recipient", nullable = false)
+    private String recipient;
+
+    @Column(name = "subject")
+    private String subject;
+
+    @Column(name = "body", columnDefinition = "TEXT")
+    private String body;
+
+    @Column(name = "status", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private DeliveryStatus status;
+
+    /**
+     * Number of times the delivery has been claimed for sending.
+     */
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    /**
+     * Earliest time the relay may claim the delivery.
+     */
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    /**
+     * Lease held by the relay that claimed the delivery; expired leases are returned to PENDING.
+     */
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    /**
+     * Identifies the claim holding the lease; outcomes of an earlier claim no longer match it.
+     */
+    @Column(name = "lease_token")
+    private Long leaseToken;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    /**
+     * Duration of the successful provider call in milliseconds.
+     */
+    @Column(name = "latency_ms")
+    private Long latencyMs;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    /**
+     * Window (user and channel) this delivery is coalesced in, or {@code null} when it is sent on its own.
+     */
+    @Column(name = "digest_key")
+    private String digestKey;
+
+    /**
+     * Shard of a SCHEDULED delivery, {@code null} otherwise.
+     */
+    @Column(name = "schedule_shard")
+    private Short scheduleShard;
+}
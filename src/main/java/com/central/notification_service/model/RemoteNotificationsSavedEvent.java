@@ -0,0 +1,29 @@
+package com.central.notification_service.model;
+
+import java.util.Set;
+
+/**
+ * Published when another node has committed notifications, as announced over the {@code live_feed} channel.
+ * Local state derived from the users' notifications, such as cached history, is stale for those users.
+ *
+ * @param userIds the users that received notifications; ignored when {@code gap} is set
+ * @param gap     announcements may have been lost (e.g. while listening was interrupted), so any user may be
+ *                affected
+ */
+public record RemoteNotificationsSavedEvent(Set<String> userIds, boolean gap) {
+
+    /**
+     * @param userIds the users that received notifications
+     * @return the event for notifications of the given users
+     */
+    public static RemoteNotificationsSavedEvent of(Set<String> userIds) {
+        return new RemoteNotificationsSavedEvent(userIds, false);
+    }
+
+    /**
+     * @return the event for announcements that were lost
+     */
+    public static RemoteNotificationsSavedEvent lost() {
+        return new RemoteNotificationsSavedEvent(Set.of(), true);
+    }
+}
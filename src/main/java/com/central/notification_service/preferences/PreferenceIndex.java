@@ -0,0 +1,190 @@
+package com.central.notification_service.preferences;
+
+import com.central.notification_service.model.NotificationChannel;
+import com.central.notification_service.model.NotificationType;
+
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of all user preferences in an open-addressing hash table.
+ *
+ * <p>Instead of a map of objects, each user occupies one slot of parallel arrays: the user id, a byte of
+ * channel and opt-out flags, a byte of opted-out types, the two addresses, the quiet hours as minutes of the day
+ * and an index into a shared table of time zones. Per user that is the id and address strings plus a few
+ * bytes, with no entry, record or boxed objects, and a lookup is one hash probe sequence over the key array.
+ * Quiet hours are kept to the minute.</p>
+ */
+final class PreferenceIndex {
+
+    static final PreferenceIndex EMPTY = new Builder(0).build();
+
+    private static final byte OPTED_OUT = (byte) 0x80;
+    private static final short NO_TIME = -1;
+
+    private final String[] keys;
+    private final int mask;
+    private final int size;
+    private final byte[] flags;
+    private final byte[] optedOutTypes;
+    private final String[] emails;
+    private final String[] phones;
+    private final short[] quietStart;
+    private final short[] quietEnd;
+    private final short[] zones;
+    private final ZoneId[] zoneTable;
+
+    private PreferenceIndex(Builder builder) {
+        int capacity = Integer.highestOneBit(Math.max(4, builder.userIds.size() * 2 - 1)) << 1;
+        this.keys = new String[capacity];
+        this.mask = capacity - 1;
+        this.size = builder.userIds.size();
+        this.flags = new byte[capacity];
+        this.optedOutTypes = new byte[capacity];
+        this.emails = new String[capacity];
+        this.phones = new String[capacity];
+        this.quietStart = new short[capacity];
+        this.quietEnd = new short[capacity];
+        this.zones = new short[capacity];
+        this.zoneTable = builder.zoneTable.toArray(ZoneId[]::new);
+        for (int i = 0; i < size; i++) {
+            String userId = builder.userIds.get(i);
+            UserPreferences preferences = builder.preferences.get(i);
+            int slot = slotFor(userId);
+            keys[slot] = userId;
+            flags[slot] = (byte) (preferences.channels() | (preferences.optedOut() ? OPTED_OUT : 0));
+            optedOutTypes[slot] = (byte) preferences.optedOutTypes();
+            emails[slot] = preferences.email();
+            phones[slot] = preferences.phone();
+            quietStart[slot] = minutes(preferences.quietHoursStart());
+            quietEnd[slot] = minutes(preferences.quietHoursEnd());
+            zones[slot] = builder.zoneIndex.get(preferences.timeZone());
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return the user's preferences, {@code null} if the user has none
+     */
+    UserPreferences find(String userId) {
+        int slot = slotOf(userId);
+        return slot < 0 ? null : preferencesAt(slot);
+    }
+
+    /**
+     * Allocation-free check whether sending the type to the user through the channel is ruled out by their
+     * preferences. A {@code null} type only checks the channel.
+     */
+    boolean optedOut(String userId, NotificationType type, NotificationChannel channel) {
+        int slot = slotOf(userId);
+        if (slot < 0) {
+            return false;
+        }
+        byte flag = flags[slot];
+        return (flag & OPTED_OUT) != 0
+                || (flag & UserPreferences.bit(channel)) == 0
+                || type != null && (optedOutTypes[slot] & UserPreferences.bit(type)) != 0;
+    }
+
+    /**
+     * Adds every entry of this index the builder does not already contain.
+     */
+    void copyInto(Builder builder) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != null && !builder.contains(keys[slot])) {
+                builder.put(keys[slot], preferencesAt(slot));
+            }
+        }
+    }
+
+    private UserPreferences preferencesAt(int slot) {
+        byte flag = flags[slot];
+        return new UserPreferences(emails[slot], phones[slot], flag & ~OPTED_OUT & 0xFF,
+                optedOutTypes[slot] & 0xFF, (flag & OPTED_OUT) != 0, time(quietStart[slot]), time(quietEnd[slot]),
+                zoneTable[zones[slot]]);
+    }
+
+    private int slotOf(String userId) {
+        for (int slot = spread(userId.hashCode()) & mask; ; slot = (slot + 1) & mask) {
+            String key = keys[slot];
+            if (key == null) {
+                return -1;
+            }
+            if (key.equals(userId)) {
+                return slot;
+            }
+        }
+    }
+
+    private int slotFor(String userId) {
+        int slot = spread(userId.hashCode()) & mask;
+        while (keys[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static short minutes(LocalTime time) {
+        return time == null ? NO_TIME : (short) (time.getHour() * 60 + time.getMinute());
+    }
+
+    private static LocalTime time(short minutes) {
+        return minutes == NO_TIME ? null : LocalTime.of(minutes / 60, minutes % 60);
+    }
+
+    /**
+     * Collects entries for a new index. User ids must be unique.
+     */
+    static final class Builder {
+
+        private final List<String> userIds;
+        private final List<UserPreferences> preferences;
+        private final Map<String, Integer> positions;
+        private final List<ZoneId> zoneTable = new ArrayList<>();
+        private final Map<ZoneId, Short> zoneIndex = new HashMap<>();
+
+        Builder(int expectedSize) {
+            this.userIds = new ArrayList<>(expectedSize);
+            this.preferences = new ArrayList<>(expectedSize);
+            this.positions = new HashMap<>();
+        }
+
+        Builder put(String userId, UserPreferences userPreferences) {
+            ZoneId zone = userPreferences.timeZone();
+            if (!zoneIndex.containsKey(zone)) {
+                if (zoneTable.size() == Short.MAX_VALUE) {
+                    throw new IllegalStateException("Too many distinct time zones in user preferences");
+                }
+                zoneIndex.put(zone, (short) zoneTable.size());
+                zoneTable.add(zone);
+            }
+            Integer position = positions.putIfAbsent(userId, userIds.size());
+            if (position != null) {
+                preferences.set(position, userPreferences);
+                return this;
+            }
+            userIds.add(userId);
+            preferences.add(userPreferences);
+            return this;
+        }
+
+        boolean contains(String userId) {
+            return positions.containsKey(userId);
+        }
+
+        PreferenceIndex build() {
+            return new PreferenceIndex(this);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.central.notification_service.preferences;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * In-memory mirror of {@code notification_preferences}, bound from {@code notification.preferences.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "notification.preferences")
+public class PreferenceProperties {
+
+    /**
+     * Route by user preferences. When disabled every user gets the default channels.
+     */
+    private boolean enabled = true;
+
+    /**
+     * How far back each poll of the change feed looks before the newest change seen so far. Rows are stamped when
+     * written but become visible at commit, so a change can show up with a time older than one already seen.
+     */
+    private Duration lookback = Duration.ofSeconds(5);
+
+    /**
+     * Changed rows read per query of the change feed.
+     */
+    private int changeBatchSize = 5000;
+
+    /**
+     * Number of changed users kept next to the snapshot before the snapshot is rebuilt with them.
+     */
+    private int compactionThreshold = 10000;
+}
@@ -0,0 +1,252 @@
+package com.central.notification_service.preferences;
+
+import com.central.notification_service.model.NotificationChannel;
+import com.central.notification_service.model.NotificationType;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serves user preferences from memory, so routing a notification never queries the database.
+ *
+ * <p>All rows of {@code notification_preferences} are loaded into a compact {@link PreferenceIndex} at startup
+ * and on {@code notification.preferences.full-reload-interval}. In between, rows changed since the last poll
+ * (by {@code updated_at}) are read every {@code notification.preferences.refresh-interval} into a small map that
+ * is consulted before the index; once it grows past {@code compaction-threshold} entries the index is rebuilt
+ * with them. Deleted rows are only noticed by the full reload.</p>
+ *
+ * <p>Users without a row have no preferences: they get the default channels and addresses.</p>
+ */
+@Slf4j
+@Component
+public class PreferenceStore {
+
+    private static final String COLUMNS = """
+            user_id, email, phone, channels, opted_out_types, opted_out, quiet_hours_start, quiet_hours_end,
+            time_zone, updated_at
+            """;
+
+    private static final String LOAD_SQL = "SELECT " + COLUMNS + " FROM notification_preferences";
+
+    private static final String FIRST_CHANGES_SQL = "SELECT " + COLUMNS + """
+            FROM notification_preferences
+            WHERE updated_at > ?
+            ORDER BY updated_at, user_id
+            LIMIT ?
+            """;
+
+    private static final String NEXT_CHANGES_SQL = "SELECT " + COLUMNS + """
+            FROM notification_preferences
+            WHERE (updated_at, user_id) > (?, ?)
+            ORDER BY updated_at, user_id
+            LIMIT ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PreferenceProperties properties;
+
+    private final Map<String, UserPreferences> changed = new ConcurrentHashMap<>();
+    private volatile PreferenceIndex snapshot = PreferenceIndex.EMPTY;
+
+    /**
+     * Newest {@code updated_at} seen by a load or poll; only touched under the instance lock.
+     */
+    private LocalDateTime newestChange = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Autowired
+    public PreferenceStore(JdbcTemplate jdbcTemplate, PreferenceProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+    }
+
+    /**
+     * @return the user's preferences, {@code null} if the user has none
+     */
+    public UserPreferences find(String userId) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        UserPreferences preferences = changed.get(userId);
+        return preferences != null ? preferences : snapshot.find(userId);
+    }
+
+    /**
+     * Whether the user has switched the channel off, opted out of the notification type or opted out of all
+     * notifications. Checked right before a delivery is handed to its provider, so opt-outs made after the delivery
+     * was planned are honoured.
+     *
+     * @param type the notification type, {@code null} to only check the channel
+     */
+    public boolean optedOut(String userId, NotificationType type, NotificationChannel channel) {
+        if (!properties.isEnabled()) {
+            return false;
+        }
+        UserPreferences preferences = changed.get(userId);
+        if (preferences == null) {
+            return snapshot.optedOut(userId, type, channel);
+        }
+        return type == null ? !preferences.receives(channel) : !preferences.allows(type, channel);
+    }
+
+    /**
+     * Replaces the index with the current contents of the table.
+     */
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${notification.preferences.full-reload-interval:15m}",
+            initialDelayString = "${notification.preferences.full-reload-interval:15m}")
+    public synchronized void reload() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            PreferenceIndex.Builder builder = new PreferenceIndex.Builder(snapshot.size() + changed.size());
+            LocalDateTime[] newest = {newestChange};
+            jdbcTemplate.query(LOAD_SQL, resultSet -> {
+                builder.put(resultSet.getString("user_id"), map(resultSet));
+                newest[0] = max(newest[0], resultSet.getTimestamp("updated_at").toLocalDateTime());
+            });
+            PreferenceIndex index = builder.build();
+            snapshot = index;
+            changed.clear();
+            newestChange = newest[0];
+            log.info("Loaded preferences of {} users in {} ms", index.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (DataAccessException e) {
+            log.error("Failed to load user preferences, keeping the previous ones. Error: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reads the rows changed since the last poll, a little further back to catch late commits. Rows equal to
+     * what is already known are skipped.
+     */
+    @Scheduled(fixedDelayString = "${notification.preferences.refresh-interval:1s}")
+    public synchronized void pollChanges() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            int batchSize = properties.getChangeBatchSize();
+            ResultSetExtractor<ChangePage> extractor = this::collect;
+            ChangePage page = jdbcTemplate.query(FIRST_CHANGES_SQL, extractor,
+                    Timestamp.valueOf(newestChange.minus(properties.getLookback())), batchSize);
+            while (page != null && page.rows() == batchSize) {
+                page = jdbcTemplate.query(NEXT_CHANGES_SQL, extractor,
+                        Timestamp.valueOf(page.lastUpdatedAt()), page.lastUserId(), batchSize);
+            }
+            if (changed.size() > properties.getCompactionThreshold()) {
+                compact();
+            }
+        } catch (DataAccessException e) {
+            log.warn("Failed to poll user preference changes. Error: {}", e.getMessage());
+        }
+    }
+
+    private ChangePage collect(ResultSet resultSet) throws SQLException {
+        int rows = 0;
+        String userId = null;
+        LocalDateTime updatedAt = null;
+        while (resultSet.next()) {
+            rows++;
+            userId = resultSet.getString("user_id");
+            updatedAt = resultSet.getTimestamp("updated_at").toLocalDateTime();
+            newestChange = max(newestChange, updatedAt);
+            UserPreferences preferences = map(resultSet);
+            if (!preferences.equals(find(userId))) {
+                changed.put(userId, preferences);
+            }
+        }
+        return new ChangePage(rows, userId, updatedAt);
+    }
+
+    /**
+     * Rebuilds the index from the current one and the changed users, without reading the table.
+     */
+    private void compact() {
+        PreferenceIndex.Builder builder = new PreferenceIndex.Builder(snapshot.size() + changed.size());
+        int compacted = changed.size();
+        changed.forEach(builder::put);
+        snapshot.copyInto(builder);
+        snapshot = builder.build();
+        // Only modified under the lock, so nothing was added since the copy
+        changed.clear();
+        log.debug("Compacted {} changed user preferences into the index", compacted);
+    }
+
+    private static UserPreferences map(ResultSet resultSet) throws SQLException {
+        String userId = resultSet.getString("user_id");
+        return new UserPreferences(
+                resultSet.getString("email"),
+                resultSet.getString("phone"),
+                mask(userId, resultSet.getString("channels"), NotificationChannel.class),
+                mask(userId, resultSet.getString("opted_out_types"), NotificationType.class),
+                resultSet.getBoolean("opted_out"),
+                localTime(resultSet.getTime("quiet_hours_start")),
+                localTime(resultSet.getTime("quiet_hours_end")),
+                zone(userId, resultSet.getString("time_zone")));
+    }
+
+    /**
+     * Parses a comma-separated list of enum names into a bit mask. Unknown names are ignored.
+     */
+    private static <E extends Enum<E>> int mask(String userId, String names, Class<E> type) {
+        int mask = 0;
+        if (names == null) {
+            return mask;
+        }
+        for (String name : names.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            try {
+                mask |= UserPreferences.bit(Enum.valueOf(type, trimmed));
+            } catch (IllegalArgumentException e) {
+                log.warn("Ignoring unknown {} '{}' in the preferences of user {}", type.getSimpleName(), trimmed,
+                        userId);
+            }
+        }
+        return mask;
+    }
+
+    private static ZoneId zone(String userId, String zoneId) {
+        try {
+            return zoneId == null || zoneId.isBlank() ? ZoneOffset.UTC : ZoneId.of(zoneId);
+        } catch (DateTimeException e) {
+            log.warn("Ignoring unknown time zone '{}' in the preferences of user {}", zoneId, userId);
+            return ZoneOffset.UTC;
+        }
+    }
+
+    /**
+     * Quiet hours are kept to the minute, as in the index, so reading an unchanged row yields an equal value.
+     */
+    private static LocalTime localTime(Time time) {
+        return time == null ? null : time.toLocalTime().truncatedTo(ChronoUnit.MINUTES);
+    }
+
+    private static LocalDateTime max(LocalDateTime current, LocalDateTime candidate) {
+        return candidate.isAfter(current) ? candidate : current;
+    }
+
+    private record ChangePage(int rows, String lastUserId, LocalDateTime lastUpdatedAt) {
+    }
+}
@@ -0,0 +1,78 @@
+package com.central.notification_service.preferences;
+
+import com.central.notification_service.model.NotificationChannel;
+import com.central.notification_service.model.NotificationType;
+
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+/**
+ * Delivery preferences of one user, a row of {@code notification_preferences}.
+ *
+ * @param email           email address, {@code null} if unknown
+ * @param phone           phone number for SMS, {@code null} if unknown
+ * @param channels        enabled channels, one bit per {@link NotificationChannel} (see {@link #bit(Enum)})
+ * @param optedOutTypes   notification types the user does not want, one bit per {@link NotificationType}
+ * @param optedOut        opted out of all notifications
+ * @param quietHoursStart start of the daily quiet hours in {@code timeZone}, {@code null} for none
+ * @param quietHoursEnd   end of the daily quiet hours; before the start if they span midnight
+ * @param timeZone        zone the quiet hours are given in
+ */
+public record UserPreferences(String email, String phone, int channels, int optedOutTypes, boolean optedOut,
+                              LocalTime quietHoursStart, LocalTime quietHoursEnd, ZoneId timeZone) {
+
+    public static int bit(Enum<?> value) {
+        return 1 << value.ordinal();
+    }
+
+    /**
+     * @return whether notifications of the type may be sent through the channel
+     */
+    public boolean allows(NotificationType type, NotificationChannel channel) {
+        return receives(channel) && (optedOutTypes & bit(type)) == 0;
+    }
+
+    /**
+     * @return whether the channel is enabled and the user has not opted out altogether
+     */
+    public boolean receives(NotificationChannel channel) {
+        return !optedOut && (channels & bit(channel)) != 0;
+    }
+
+    /**
+     * @return the address to deliver to through the channel, {@code null} if none is known. Push notifications
+     * are addressed by user id.
+     */
+    public String recipient(NotificationChannel channel, String userId) {
+        return switch (channel) {
+            case EMAIL -> email;
+            case SMS -> phone;
+            case PUSH -> userId;
+        };
+    }
+
+    public boolean hasQuietHours() {
+        return quietHoursStart != null && quietHoursEnd != null && !quietHoursStart.equals(quietHoursEnd);
+    }
+
+    /**
+     * @return the end of the quiet hours {@code now} falls into, {@code null} if it is outside of them
+     */
+    public Instant quietUntil(Instant now) {
+        if (!hasQuietHours()) {
+            return null;
+        }
+        ZonedDateTime local = now.atZone(timeZone);
+        LocalTime time = local.toLocalTime();
+        boolean quiet = quietHoursStart.isBefore(quietHoursEnd)
+                ? !time.isBefore(quietHoursStart) && time.isBefore(quietHoursEnd)
+                : !time.isBefore(quietHoursStart) || time.isBefore(quietHoursEnd);
+        if (!quiet) {
+            return null;
+        }
+        ZonedDateTime end = local.with(quietHoursEnd);
+        return (end.isAfter(local) ? end : end.plusDays(1)).toInstant();
+    }
+}
@@ -0,0 +1,55 @@
+package com.central.notification_service.provider;
+
+import com.central.notification_service.model.NotificationChannel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sends messages through the external provider of one channel (SMTP server, SMS gateway, push service).
+ *
+ * <p>Calls block the calling thread; concurrency is owned by the {@code ChannelDispatcher} lanes. A provider
+ * that can send several messages cheaper together than one by one overrides {@link #sendBatch} and
+ * {@link #maxBatchSize}.</p>
+ */
+public interface ChannelProvider {
+
+    /**
+     * @return the channel this provider sends
+     */
+    NotificationChannel channel();
+
+    /**
+     * Sends one message.
+     *
+     * @param message the message
+     * @throws Exception if the provider did not accept the message
+     */
+    void send(OutboundMessage message) throws Exception;
+
+    /**
+     * Sends several messages. A failing message does not fail the others.
+     *
+     * @param messages the messages, at most {@link #maxBatchSize()}
+     * @return one result per message, in the order of {@code messages}
+     */
+    default List<SendResult> sendBatch(List<OutboundMessage> messages) {
+        List<SendResult> results = new ArrayList<>(messages.size());
+        for (OutboundMessage message : messages) {
+            try {
+                send(message);
+                results.add(SendResult.SENT);
+            } catch (Exception e) {
+                results.add(SendResult.failed(e));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * @return the largest number of messages worth handing over in one {@link #sendBatch} call
+     */
+    default int maxBatchSize() {
+        return 1;
+    }
+}
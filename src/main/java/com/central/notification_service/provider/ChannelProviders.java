@@ -0,0 +1,41 @@
+package com.central.notification_service.provider;
+
+import com.central.notification_service.model.NotificationChannel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@link ChannelProvider} of every channel. Exactly one provider bean per channel is expected.
+ */
+@Slf4j
+@Component
+public class ChannelProviders {
+
+    private final Map<NotificationChannel, ChannelProvider> providers = new EnumMap<>(NotificationChannel.class);
+
+    @Autowired
+    public ChannelProviders(List<ChannelProvider> providers) {
+        for (ChannelProvider provider : providers) {
+            ChannelProvider previous = this.providers.put(provider.channel(), provider);
+            if (previous != null) {
+                throw new IllegalStateException("Multiple providers for channel " + provider.channel() + ": "
+                        + previous.getClass().getSimpleName() + " and " + provider.getClass().getSimpleName());
+            }
+            log.info("Channel {} sends through {}", provider.channel(), provider.getClass().getSimpleName());
+        }
+        for (NotificationChannel channel : NotificationChannel.values()) {
+            if (!this.providers.containsKey(channel)) {
+                throw new IllegalStateException("No provider configured for channel " + channel);
+            }
+        }
+    }
+
+    public ChannelProvider get(NotificationChannel channel) {
+        return providers.get(channel);
+    }
+}
@@ -0,0 +1,29 @@
+package com.central.notification_service.provider;
+
+import com.central.notification_service.model.NotificationChannel;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Provider that only logs the messages; stands in for channels without a real integration.
+ */
+@Slf4j
+public class LoggingChannelProvider implements ChannelProvider {
+
+    private final NotificationChannel channel;
+
+    public LoggingChannelProvider(NotificationChannel channel) {
+        this.channel = channel;
+    }
+
+    @Override
+    public NotificationChannel channel() {
+        return channel;
+    }
+
+    @Override
+    public void send(OutboundMessage message) {
+        log.debug("{} to: {} - Subject: {} - Reference: {}",
+                channel, message.recipient(), message.subject(), message.reference());
+        log.trace("{} content: {}", channel, message.body());
+    }
+}
@@ -0,0 +1,12 @@
+package com.central.notification_service.provider;
+
+/**
+ * A message handed to a {@link ChannelProvider}.
+ *
+ * @param recipient email address, phone number or user id, depending on the channel
+ * @param subject   subject or title; not used by SMS
+ * @param body      message text
+ * @param reference identifier used in log lines (e.g. the transaction id)
+ */
+public record OutboundMessage(String recipient, String subject, String body, String reference) {
+}
@@ -0,0 +1,19 @@
+package com.central.notification_service.provider;
+
+/**
+ * Result of one message of a {@link ChannelProvider#sendBatch} call.
+ *
+ * @param error the failure, {@code null} if the message was accepted by the provider
+ */
+public record SendResult(Throwable error) {
+
+    public static final SendResult SENT = new SendResult(null);
+
+    public static SendResult failed(Throwable error) {
+        return new SendResult(error);
+    }
+
+    public boolean sent() {
+        return error == null;
+    }
+}
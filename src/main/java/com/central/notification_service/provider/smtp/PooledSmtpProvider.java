@@ -0,0 +1,220 @@
+package com.central.notification_service.provider.smtp;
+
+import com.central.notification_service.model.NotificationChannel;
+import com.central.notification_service.provider.ChannelProvider;
+import com.central.notification_service.provider.OutboundMessage;
+import com.central.notification_service.provider.SendResult;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Email provider sending over a pool of authenticated SMTP connections.
+ *
+ * <p>Opening an SMTP connection costs a TCP handshake, the greeting, EHLO, optionally STARTTLS and AUTH, i.e.
+ * several round trips before the first message. Connections are therefore kept open and reused for up to
+ * {@code max-messages-per-connection} messages; a batch is sent back to back over a single connection. The most
+ * recently used idle connection is handed out first, so surplus connections stay at the back of the pool until
+ * they exceed {@code max-idle} and are closed.
+ * A connection is not probed before reuse (that would cost a NOOP round trip); one that turns out to be broken
+ * fails its message, is discarded, and the rest of the batch continues on a fresh connection.</p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "notification.providers.email", havingValue = "smtp")
+public class PooledSmtpProvider implements ChannelProvider {
+
+    private final SmtpProperties properties;
+    private final Session session;
+    private final InternetAddress from;
+    private final BlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Semaphore connectionPermits;
+
+    @Autowired
+    public PooledSmtpProvider(SmtpProperties properties) throws MessagingException {
+        this.properties = properties;
+        this.session = Session.getInstance(sessionProperties(properties));
+        this.from = new InternetAddress(properties.getFrom());
+        this.connectionPermits = new Semaphore(Math.max(1, properties.getPoolSize()));
+        log.info("SMTP provider configured for {}:{} with {} pooled connections",
+                properties.getHost(), properties.getPort(), properties.getPoolSize());
+    }
+
+    @Override
+    public NotificationChannel channel() {
+        return NotificationChannel.EMAIL;
+    }
+
+    @Override
+    public void send(OutboundMessage message) throws Exception {
+        SendResult result = sendBatch(List.of(message)).get(0);
+        if (!result.sent()) {
+            throw result.error() instanceof Exception e ? e : new MessagingException(result.error().getMessage());
+        }
+    }
+
+    @Override
+    public List<SendResult> sendBatch(List<OutboundMessage> messages) {
+        List<SendResult> results = new ArrayList<>(messages.size());
+        PooledConnection connection = null;
+        try {
+            for (OutboundMessage message : messages) {
+                try {
+                    if (connection == null) {
+                        connection = borrow();
+                    } else if (connection.exhausted(properties.getMaxMessagesPerConnection())) {
+                        discard(connection);
+                        connection = null;
+                        connection = borrow();
+                    }
+                    MimeMessage mimeMessage = toMimeMessage(message);
+                    connection.transport.sendMessage(mimeMessage, mimeMessage.getAllRecipients());
+                    connection.sent++;
+                    results.add(SendResult.SENT);
+                } catch (SendFailedException e) {
+                    // Rejected recipient; the connection is still in a clean state
+                    results.add(SendResult.failed(e));
+                } catch (MessagingException | RuntimeException e) {
+                    results.add(SendResult.failed(e));
+                    if (connection != null) {
+                        discard(connection);
+                        connection = null;
+                    }
+                }
+            }
+        } finally {
+            if (connection != null) {
+                release(connection);
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public int maxBatchSize() {
+        return Math.max(1, properties.getMaxBatchSize());
+    }
+
+    @PreDestroy
+    public void close() {
+        PooledConnection connection;
+        while ((connection = idle.pollFirst()) != null) {
+            closeQuietly(connection);
+        }
+    }
+
+    /**
+     * Takes a connection out of the pool, opening one if none is idle. Every borrowed connection holds a permit,
+     * so at most {@code pool-size} connections are open.
+     */
+    private PooledConnection borrow() throws MessagingException {
+        try {
+            if (!connectionPermits.tryAcquire(properties.getBorrowTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new MessagingException("No SMTP connection available within " + properties.getBorrowTimeout());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted while waiting for an SMTP connection", e);
+        }
+        long now = System.nanoTime();
+        PooledConnection connection;
+        while ((connection = idle.pollFirst()) != null) {
+            if (now - connection.lastUsed < properties.getMaxIdle().toNanos()) {
+                return connection;
+            }
+            closeQuietly(connection);
+        }
+        try {
+            Transport transport = session.getTransport("smtp");
+            transport.connect(properties.getHost(), properties.getPort(),
+                    properties.getUsername(), properties.getPassword());
+            return new PooledConnection(transport);
+        } catch (MessagingException | RuntimeException e) {
+            connectionPermits.release();
+            throw e;
+        }
+    }
+
+    private void release(PooledConnection connection) {
+        if (connection.exhausted(properties.getMaxMessagesPerConnection())) {
+            closeQuietly(connection);
+        } else {
+            connection.lastUsed = System.nanoTime();
+            idle.offerFirst(connection);
+        }
+        connectionPermits.release();
+    }
+
+    private void discard(PooledConnection connection) {
+        closeQuietly(connection);
+        connectionPermits.release();
+    }
+
+    private static void closeQuietly(PooledConnection connection) {
+        try {
+            connection.transport.close();
+        } catch (MessagingException e) {
+            log.debug("Error closing SMTP connection: {}", e.getMessage());
+        }
+    }
+
+    private MimeMessage toMimeMessage(OutboundMessage message) throws MessagingException {
+        MimeMessage mimeMessage = new MimeMessage(session);
+        mimeMessage.setFrom(from);
+        mimeMessage.setRecipients(Message.RecipientType.TO, InternetAddress.parse(message.recipient()));
+        mimeMessage.setSubject(message.subject(), StandardCharsets.UTF_8.name());
+        mimeMessage.setText(message.body(), StandardCharsets.UTF_8.name());
+        mimeMessage.setSentDate(new Date());
+        // Transport.sendMessage, unlike Transport.send, does not finalise the headers itself
+        mimeMessage.saveChanges();
+        return mimeMessage;
+    }
+
+    private static Properties sessionProperties(SmtpProperties properties) {
+        Properties mail = new Properties();
+        mail.put("mail.transport.protocol", "smtp");
+        mail.put("mail.smtp.host", properties.getHost());
+        mail.put("mail.smtp.port", String.valueOf(properties.getPort()));
+        mail.put("mail.smtp.auth", String.valueOf(properties.getUsername() != null
+                && !properties.getUsername().isBlank()));
+        mail.put("mail.smtp.starttls.enable", String.valueOf(properties.isStartTls()));
+        mail.put("mail.smtp.starttls.required", String.valueOf(properties.isStartTls()));
+        mail.put("mail.smtp.connectiontimeout", String.valueOf(properties.getConnectionTimeout().toMillis()));
+        mail.put("mail.smtp.timeout", String.valueOf(properties.getTimeout().toMillis()));
+        mail.put("mail.smtp.writetimeout", String.valueOf(properties.getTimeout().toMillis()));
+        return mail;
+    }
+
+    private static final class PooledConnection {
+        private final Transport transport;
+        private int sent;
+        private long lastUsed = System.nanoTime();
+
+        private PooledConnection(Transport transport) {
+            this.transport = transport;
+        }
+
+        private boolean exhausted(int maxMessages) {
+            return sent >= maxMessages;
+        }
+    }
+}
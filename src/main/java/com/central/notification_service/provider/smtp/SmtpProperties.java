@@ -0,0 +1,67 @@
+package com.central.notification_service.provider.smtp;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the pooled SMTP provider, bound from {@code notification.providers.smtp.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "notification.providers.smtp")
+public class SmtpProperties {
+
+    private String host = "localhost";
+
+    private int port = 25;
+
+    /**
+     * Login user; no authentication when empty.
+     */
+    private String username;
+
+    private String password;
+
+    /**
+     * Upgrade connections with STARTTLS.
+     */
+    private boolean startTls;
+
+    /**
+     * Sender address of every message.
+     */
+    private String from = "no-reply@central-notifications.local";
+
+    /**
+     * Maximum number of open SMTP connections.
+     */
+    private int poolSize = 8;
+
+    /**
+     * Messages sent over one connection before it is replaced; servers commonly limit this.
+     */
+    private int maxMessagesPerConnection = 100;
+
+    /**
+     * Idle connections older than this are closed instead of reused, ahead of the server's own idle timeout.
+     */
+    private Duration maxIdle = Duration.ofSeconds(30);
+
+    /**
+     * How long a send waits for a free connection when all of them are in use.
+     */
+    private Duration borrowTimeout = Duration.ofSeconds(10);
+
+    private Duration connectionTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Socket read and write timeout.
+     */
+    private Duration timeout = Duration.ofSeconds(10);
+
+    /**
+     * Messages handed over by the relay in one batch, all sent over the same connection.
+     */
+    private int maxBatchSize = 50;
+}
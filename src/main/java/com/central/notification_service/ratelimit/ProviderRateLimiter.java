@@ -0,0 +1,131 @@
+package com.central.notification_service.ratelimit;
+
+import com.central.notification_service.model.NotificationChannel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token buckets of the outbound providers: one per channel and, for email, optionally one per recipient domain.
+ *
+ * <p>Meters: {@code notification.ratelimit.permitted} and {@code notification.ratelimit.throttled}, tagged by
+ * channel. A throttled delivery is one that could not get a permit within the maximum wait and was deferred.</p>
+ */
+@Slf4j
+@Component
+public class ProviderRateLimiter {
+
+    private final RateLimitProperties properties;
+    private final Map<NotificationChannel, TokenBucket> channelBuckets = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> domainBuckets = new ConcurrentHashMap<>();
+    private final Map<NotificationChannel, Counter> permitted = new EnumMap<>(NotificationChannel.class);
+    private final Map<NotificationChannel, Counter> throttled = new EnumMap<>(NotificationChannel.class);
+
+    @Autowired
+    public ProviderRateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        properties.getChannels().forEach((channel, limit) ->
+                channelBuckets.put(channel, new TokenBucket(limit.getPermitsPerSecond(), limit.getBurst())));
+        properties.getDomains().forEach((domain, limit) ->
+                domainBuckets.put(domain.toLowerCase(Locale.ROOT),
+                        new TokenBucket(limit.getPermitsPerSecond(), limit.getBurst())));
+        for (NotificationChannel channel : NotificationChannel.values()) {
+            permitted.put(channel, Counter.builder("notification.ratelimit.permitted")
+                    .description("Provider calls that obtained a rate limit permit")
+                    .tag("channel", channel.name())
+                    .register(meterRegistry));
+            throttled.put(channel, Counter.builder("notification.ratelimit.throttled")
+                    .description("Deliveries deferred because the provider rate limit was reached")
+                    .tag("channel", channel.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Reserves a permit for one provider call.
+     *
+     * @param channel   the channel of the call
+     * @param recipient the recipient address, used for per-domain email limits
+     * @return nanoseconds to wait before calling the provider, or -1 if the call has to be deferred
+     */
+    public long reserve(NotificationChannel channel, String recipient) {
+        if (!properties.isEnabled()) {
+            return 0;
+        }
+        long maxWait = properties.getMaxWait().toNanos();
+        long delay = 0;
+
+        TokenBucket domainBucket = channel == NotificationChannel.EMAIL ? domainBucket(recipient) : null;
+        if (domainBucket != null) {
+            delay = domainBucket.reserve(maxWait);
+            if (delay < 0) {
+                throttled.get(channel).increment();
+                return -1;
+            }
+        }
+        TokenBucket channelBucket = channelBuckets.get(channel);
+        if (channelBucket != null) {
+            // Reserved domain permit is not returned; it only delays the domain's next call by one interval
+            long channelDelay = channelBucket.reserve(maxWait - delay);
+            if (channelDelay < 0) {
+                throttled.get(channel).increment();
+                return -1;
+            }
+            delay = Math.max(delay, channelDelay);
+        }
+        permitted.get(channel).increment();
+        return delay;
+    }
+
+    /**
+     * @return the current limits, keyed by channel name or recipient domain
+     */
+    public Map<String, TokenBucket> limits() {
+        Map<String, TokenBucket> limits = new LinkedHashMap<>();
+        channelBuckets.forEach((channel, bucket) -> limits.put(channel.name(), bucket));
+        limits.putAll(domainBuckets);
+        return limits;
+    }
+
+    /**
+     * Changes or introduces the limit of a channel (by name) or of an email recipient domain.
+     *
+     * @param name             channel name ({@code EMAIL}, {@code SMS}, {@code PUSH}) or recipient domain
+     * @param permitsPerSecond sustained rate
+     * @param burst            calls allowed at once
+     */
+    public void update(String name, double permitsPerSecond, int burst) {
+        NotificationChannel channel = channelOf(name);
+        TokenBucket bucket = channel != null
+                ? channelBuckets.computeIfAbsent(channel, key -> new TokenBucket(permitsPerSecond, burst))
+                : domainBuckets.computeIfAbsent(name.toLowerCase(Locale.ROOT),
+                        key -> new TokenBucket(permitsPerSecond, burst));
+        bucket.reconfigure(permitsPerSecond, burst);
+        log.info("Rate limit of {} set to {}/s with burst {}", name, permitsPerSecond, burst);
+    }
+
+    private TokenBucket domainBucket(String recipient) {
+        if (domainBuckets.isEmpty() || recipient == null) {
+            return null;
+        }
+        int at = recipient.lastIndexOf('@');
+        return at < 0 ? null : domainBuckets.get(recipient.substring(at + 1).toLowerCase(Locale.ROOT));
+    }
+
+    private static NotificationChannel channelOf(String name) {
+        for (NotificationChannel channel : NotificationChannel.values()) {
+            if (channel.name().equalsIgnoreCase(name)) {
+                return channel;
+            }
+        }
+        return null;
+    }
+}
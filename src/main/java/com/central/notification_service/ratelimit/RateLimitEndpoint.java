@@ -0,0 +1,51 @@
+package com.central.notification_service.ratelimit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code /actuator/ratelimits}: lists the provider limits and changes them at runtime.
+ * <pre>
+ * POST /actuator/ratelimits/SMS        {"permitsPerSecond": 20, "burst": 5}
+ * POST /actuator/ratelimits/gmail.com  {"permitsPerSecond": 10, "burst": 10}
+ * </pre>
+ */
+@Component
+@Endpoint(id = "ratelimits")
+public class RateLimitEndpoint {
+
+    private final ProviderRateLimiter rateLimiter;
+
+    @Autowired
+    public RateLimitEndpoint(ProviderRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @ReadOperation
+    public Map<String, LimitDescriptor> limits() {
+        Map<String, LimitDescriptor> limits = new LinkedHashMap<>();
+        rateLimiter.limits().forEach((name, bucket) ->
+                limits.put(name, new LimitDescriptor(bucket.getPermitsPerSecond(), bucket.getBurst())));
+        return limits;
+    }
+
+    @WriteOperation
+    public LimitDescriptor update(@Selector String name, double permitsPerSecond, int burst) {
+        rateLimiter.update(name, permitsPerSecond, burst);
+        return new LimitDescriptor(permitsPerSecond, burst);
+    }
+
+    /**
+     * @param permitsPerSecond sustained rate
+     * @param burst            calls allowed at once
+     */
+    public record LimitDescriptor(double permitsPerSecond, int burst) {
+    }
+}
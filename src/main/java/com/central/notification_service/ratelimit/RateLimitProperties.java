@@ -0,0 +1,54 @@
+package com.central.notification_service.ratelimit;
+
+import com.central.notification_service.model.NotificationChannel;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Outbound provider limits, bound from {@code notification.rate-limit.*}. The limits are the initial values;
+ * they can be changed at runtime through the {@code ratelimits} actuator endpoint.
+ */
+@Data
+@ConfigurationProperties(prefix = "notification.rate-limit")
+public class RateLimitProperties {
+
+    /**
+     * Shape provider calls to the configured rates.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Limits per channel. Channels without an entry are not limited.
+     */
+    private Map<NotificationChannel, Limit> channels = new EnumMap<>(NotificationChannel.class);
+
+    /**
+     * Additional email limits per recipient domain (e.g. {@code gmail.com}), applied on top of the channel limit.
+     */
+    private Map<String, Limit> domains = new HashMap<>();
+
+    /**
+     * Longest a delivery waits for its permit. Deliveries that would wait longer go back to the outbox and are
+     * retried after this delay, without counting as a failed attempt.
+     */
+    private Duration maxWait = Duration.ofSeconds(2);
+
+    @Data
+    public static class Limit {
+
+        /**
+         * Sustained number of provider calls per second.
+         */
+        private double permitsPerSecond = 50;
+
+        /**
+         * Calls allowed at once after an idle period.
+         */
+        private int burst = 50;
+    }
+}
@@ -0,0 +1,72 @@
+package com.central.notification_service.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, implemented as a generic cell rate algorithm: instead of a token count the bucket keeps
+ * the theoretical arrival time of the next permit, advanced by one emission interval per permit with a single CAS.
+ *
+ * <p>Permits are reserved rather than just tested. A caller that may wait receives the delay after which its permit
+ * is valid and keeps its place in line, which shapes bursts into the configured rate instead of rejecting them.
+ * The rate can be changed at any time; the new limits apply to the next reservation.</p>
+ */
+public final class TokenBucket {
+
+    private final AtomicLong theoreticalArrival = new AtomicLong(System.nanoTime());
+    private volatile Limits limits;
+
+    /**
+     * @param permitsPerSecond sustained rate
+     * @param burst            number of permits available at once after an idle period
+     */
+    public TokenBucket(double permitsPerSecond, int burst) {
+        reconfigure(permitsPerSecond, burst);
+    }
+
+    /**
+     * Reserves one permit if it becomes valid within {@code maxWaitNanos}.
+     *
+     * @param maxWaitNanos longest acceptable delay
+     * @return the delay in nanoseconds until the reserved permit is valid (0 if immediately), or -1 if the permit
+     * would take longer than {@code maxWaitNanos}, in which case nothing is reserved
+     */
+    public long reserve(long maxWaitNanos) {
+        while (true) {
+            Limits current = limits;
+            long now = System.nanoTime();
+            long arrival = theoreticalArrival.get();
+            long delay = Math.max(0, arrival - current.toleranceNanos - now);
+            if (delay > maxWaitNanos) {
+                return -1;
+            }
+            long next = (arrival - now > 0 ? arrival : now) + current.intervalNanos;
+            if (theoreticalArrival.compareAndSet(arrival, next)) {
+                return delay;
+            }
+        }
+    }
+
+    /**
+     * @param permitsPerSecond sustained rate
+     * @param burst            number of permits available at once after an idle period
+     */
+    public void reconfigure(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate must be positive and burst at least 1");
+        }
+        long interval = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        limits = new Limits(permitsPerSecond, burst, interval, interval * (burst - 1));
+    }
+
+    public double getPermitsPerSecond() {
+        return limits.permitsPerSecond;
+    }
+
+    public int getBurst() {
+        return limits.burst;
+    }
+
+    private record Limits(double permitsPerSecond, int burst, long intervalNanos, long toleranceNanos) {
+    }
+}
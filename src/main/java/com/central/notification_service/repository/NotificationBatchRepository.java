@@ -0,0 +1,20 @@
+package com.central.notification_service.repository;
+
+import com.central.notification_service.model.Notification;
+
+import java.util.List;
+
+/**
+ * Custom repository fragment for bulk writes that bypass the JPA persist cycle.
+ */
+public interface NotificationBatchRepository {
+
+    /**
+     * Inserts all notifications using multi-row INSERT statements, one round trip per chunk.
+     * Rows that already exist for the same event (transaction, type, user) are skipped.
+     *
+     * @param notifications the notifications to insert
+     * @return the notifications that were actually inserted, in their original order
+     */
+    List<Notification> insertAll(List<Notification> notifications);
+}
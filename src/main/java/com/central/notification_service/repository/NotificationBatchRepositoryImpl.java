@@ -0,0 +1,128 @@
+package com.central.notification_service.repository;
+
+import com.central.notification_service.model.EventSource;
+import com.central.notification_service.model.Notification;
+import com.central.notification_service.utils.SnowflakeIdGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * JDBC implementation of {@link NotificationBatchRepository}.
+ * Each column is bound as a single array parameter and expanded server side with {@code unnest},
+ * so a chunk of any size is written by one statement instead of one statement per row. The same statement claims
+ * each event, identified by transaction, {@link EventSource} and recipient, in {@code notification_event_keys};
+ * since {@code central_notifications} is partitioned by {@code sent_at} it cannot enforce event uniqueness itself.
+ * Only rows whose claim succeeded are inserted and reported back through {@code RETURNING}, so duplicate events are
+ * dropped.
+ */
+public class NotificationBatchRepositoryImpl implements NotificationBatchRepository {
+
+    private static final String INSERT_SQL = """
+            WITH candidate AS (
+                SELECT * FROM unnest(?::bigint[], ?::varchar[], ?::varchar[], ?::varchar[], ?::varchar[], ?::text[],
+                                     ?::varchar[], ?::timestamp[], ?::varchar[])
+                    AS c (notification_id, transaction_id, user_id, type, subject, content, channel, sent_at,
+                          event_source)
+            ), claimed AS (
+                INSERT INTO notification_event_keys
+                    (transaction_id, event_source, user_id, type, notification_id, created_at)
+                SELECT transaction_id, event_source, user_id, type, notification_id, sent_at FROM candidate
+                ON CONFLICT (transaction_id, event_source, user_id) DO NOTHING
+                RETURNING notification_id
+            )
+            INSERT INTO central_notifications
+                (notification_id, transaction_id, user_id, type, subject, content, channel, sent_at)
+            SELECT c.notification_id, c.transaction_id, c.user_id, c.type, c.subject, c.content, c.channel, c.sent_at
+            FROM candidate c
+            JOIN claimed USING (notification_id)
+            RETURNING notification_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final SnowflakeIdGenerator idGenerator;
+
+    /**
+     * Maximum number of rows bound into a single INSERT statement.
+     */
+    @Value("${notification.persistence.insert-chunk-size:1000}")
+    private int chunkSize;
+
+    @Autowired
+    public NotificationBatchRepositoryImpl(JdbcTemplate jdbcTemplate, SnowflakeIdGenerator idGenerator) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.idGenerator = idGenerator;
+    }
+
+    @Override
+    public List<Notification> insertAll(List<Notification> notifications) {
+        for (Notification notification : notifications) {
+            if (notification.getNotificationId() == null) {
+                notification.setNotificationId(idGenerator.nextId());
+            }
+        }
+
+        Set<Long> insertedIds = new HashSet<>(notifications.size() * 2);
+        int step = Math.max(1, chunkSize);
+        for (int from = 0; from < notifications.size(); from += step) {
+            List<Notification> chunk = notifications.subList(from, Math.min(notifications.size(), from + step));
+            insertedIds.addAll(jdbcTemplate.query(connection -> prepareInsert(connection, chunk),
+                    (rs, rowNum) -> rs.getLong(1)));
+        }
+
+        List<Notification> inserted = new ArrayList<>(insertedIds.size());
+        for (Notification notification : notifications) {
+            if (insertedIds.contains(notification.getNotificationId())) {
+                inserted.add(notification);
+            }
+        }
+        return inserted;
+    }
+
+    private PreparedStatement prepareInsert(Connection connection, List<Notification> chunk) throws SQLException {
+        int size = chunk.size();
+        Long[] notificationIds = new Long[size];
+        String[] transactionIds = new String[size];
+        String[] userIds = new String[size];
+        String[] types = new String[size];
+        String[] subjects = new String[size];
+        String[] contents = new String[size];
+        String[] channels = new String[size];
+        String[] sentAts = new String[size];
+        String[] eventSources = new String[size];
+
+        for (int i = 0; i < size; i++) {
+            Notification notification = chunk.get(i);
+            notificationIds[i] = notification.getNotificationId();
+            transactionIds[i] = notification.getTransactionId();
+            userIds[i] = notification.getUserId();
+            types[i] = notification.getType().name();
+            subjects[i] = notification.getSubject();
+            contents[i] = notification.getContent();
+            channels[i] = notification.getChannel() == null ? null : notification.getChannel().name();
+            sentAts[i] = notification.getSentAt().toString();
+            eventSources[i] = notification.getEventSource().name();
+        }
+
+        PreparedStatement ps = connection.prepareStatement(INSERT_SQL);
+        ps.setArray(1, connection.createArrayOf("int8", notificationIds));
+        ps.setArray(2, connection.createArrayOf("text", transactionIds));
+        ps.setArray(3, connection.createArrayOf("text", userIds));
+        ps.setArray(4, connection.createArrayOf("text", types));
+        ps.setArray(5, connection.createArrayOf("text", subjects));
+        ps.setArray(6, connection.createArrayOf("text", contents));
+        ps.setArray(7, connection.createArrayOf("text", channels));
+        ps.setArray(8, connection.createArrayOf("text", sentAts));
+        ps.setArray(9, connection.createArrayOf("text", eventSources));
+        return ps;
+    }
+}
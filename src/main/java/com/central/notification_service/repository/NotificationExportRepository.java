@@ -0,0 +1,23 @@
+package com.central.notification_service.repository;
+
+import com.central.notification_service.model.Notification;
+import com.central.notification_service.model.NotificationExportQuery;
+
+import java.util.stream.Stream;
+
+/**
+ * Custom repository fragment for exports that read far more rows than fit in memory.
+ */
+public interface NotificationExportRepository {
+
+    /**
+     * Streams the matching notifications through a database cursor. Must be called within a transaction, which
+     * has to stay open until the stream is closed. Returned entities are already detached, so the persistence
+     * context does not grow with the export.
+     *
+     * @param query     filters and resume position
+     * @param fetchSize rows fetched per round trip
+     * @return the notifications, oldest first
+     */
+    Stream<Notification> streamForExport(NotificationExportQuery query, int fetchSize);
+}
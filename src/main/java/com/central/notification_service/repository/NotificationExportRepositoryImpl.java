@@ -0,0 +1,77 @@
+package com.central.notification_service.repository;
+
+import com.central.notification_service.model.Notification;
+import com.central.notification_service.model.NotificationCursor;
+import com.central.notification_service.model.NotificationExportQuery;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * JPA implementation of {@link NotificationExportRepository}. The fetch size makes the PostgreSQL driver read
+ * through a server-side cursor instead of buffering the complete result, and the read-only hint skips the
+ * snapshots Hibernate would otherwise keep for dirty checking.
+ */
+public class NotificationExportRepositoryImpl implements NotificationExportRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Stream<Notification> streamForExport(NotificationExportQuery query, int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Notification> criteriaQuery = cb.createQuery(Notification.class);
+        Root<Notification> root = criteriaQuery.from(Notification.class);
+        Path<LocalDateTime> sentAt = root.get("sentAt");
+        Path<Long> notificationId = root.get("notificationId");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (query.getUserId() != null) {
+            predicates.add(cb.equal(root.get("userId"), query.getUserId()));
+        }
+        if (query.getType() != null) {
+            predicates.add(cb.equal(root.get("type"), query.getType()));
+        }
+        if (query.getChannel() != null) {
+            predicates.add(cb.equal(root.get("channel"), query.getChannel()));
+        }
+        if (query.getFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(sentAt, query.getFrom()));
+        }
+        if (query.getTo() != null) {
+            predicates.add(cb.lessThan(sentAt, query.getTo()));
+        }
+        NotificationCursor after = query.getAfter();
+        if (after != null) {
+            // (sent_at, notification_id) > (:sentAt, :id), with the first term bounding the index scan
+            predicates.add(cb.greaterThanOrEqualTo(sentAt, after.sentAt()));
+            predicates.add(cb.or(
+                    cb.greaterThan(sentAt, after.sentAt()),
+                    cb.greaterThan(notificationId, after.notificationId())));
+        }
+        criteriaQuery.where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.asc(sentAt), cb.asc(notificationId));
+
+        TypedQuery<Notification> typedQuery = entityManager.createQuery(criteriaQuery)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+        if (query.getLimit() > 0) {
+            typedQuery.setMaxResults((int) Math.min(query.getLimit(), Integer.MAX_VALUE));
+        }
+        return typedQuery.getResultStream().map(notification -> {
+            entityManager.detach(notification);
+            return notification;
+        });
+    }
+}
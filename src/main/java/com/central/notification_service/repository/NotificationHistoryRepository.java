@@ -0,0 +1,25 @@
+package com.central.notification_service.repository;
+
+import com.central.notification_service.model.NotificationHistoryQuery;
+import org.openapitools.model.NotificationDTO;
+
+import java.util.List;
+
+/**
+ * Custom repository fragment reading history pages straight into response objects.
+ */
+public interface NotificationHistoryRepository {
+
+    /**
+     * Reads one page of a user's history, newest first, with the same filters and keyset as
+     * {@link NotificationSpecifications#history}. Rows are mapped to {@link NotificationDTO} directly, without
+     * entities or the persistence context, and the content is omitted or truncated in SQL as requested by
+     * {@link NotificationHistoryQuery#getContent()}.
+     *
+     * @param query         the page request
+     * @param rows          maximum number of rows to read
+     * @param previewLength characters of content returned in preview mode
+     * @return the notifications of the page
+     */
+    List<NotificationDTO> findHistoryPage(NotificationHistoryQuery query, int rows, int previewLength);
+}
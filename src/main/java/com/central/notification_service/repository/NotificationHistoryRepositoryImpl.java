@@ -0,0 +1,86 @@
+package com.central.notification_service.repository;
+
+import com.central.notification_service.model.NotificationCursor;
+import com.central.notification_service.model.NotificationHistoryQuery;
+import org.openapitools.model.NotificationDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC implementation of {@link NotificationHistoryRepository}. Compared to loading entities this saves the
+ * entity instances, their dirty-checking snapshots and the persistence context bookkeeping per row, and for
+ * list views without content it does not transfer the largest column at all.
+ */
+public class NotificationHistoryRepositoryImpl implements NotificationHistoryRepository {
+
+    private static final RowMapper<NotificationDTO> ROW_MAPPER = (rs, rowNum) -> {
+        String channel = rs.getString("channel");
+        return NotificationDTO.builder()
+                .notificationId(rs.getLong("notification_id"))
+                .transactionId(rs.getString("transaction_id"))
+                .userId(rs.getString("user_id"))
+                .type(NotificationDTO.TypeEnum.fromValue(rs.getString("type")))
+                .subject(rs.getString("subject"))
+                .content(rs.getString("content"))
+                .channel(channel == null ? null : NotificationDTO.ChannelEnum.fromValue(channel))
+                .sentAt(rs.getObject("sent_at", LocalDateTime.class).atZone(ZoneId.systemDefault()).toOffsetDateTime())
+                .build();
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public NotificationHistoryRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<NotificationDTO> findHistoryPage(NotificationHistoryQuery query, int rows, int previewLength) {
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT notification_id, transaction_id, user_id, type, subject, ");
+        switch (query.getContent()) {
+            case FULL -> sql.append("content");
+            case PREVIEW -> {
+                // left() counts characters, like ContentMode.apply
+                sql.append("left(content, ?) AS content");
+                args.add(previewLength);
+            }
+            case NONE -> sql.append("NULL::text AS content");
+        }
+        sql.append(", channel, sent_at FROM central_notifications WHERE user_id = ?");
+        args.add(query.getUserId());
+        if (query.getType() != null) {
+            sql.append(" AND type = ?");
+            args.add(query.getType().name());
+        }
+        if (query.getChannel() != null) {
+            sql.append(" AND channel = ?");
+            args.add(query.getChannel().name());
+        }
+        if (query.getFrom() != null) {
+            sql.append(" AND sent_at >= ?");
+            args.add(Timestamp.valueOf(query.getFrom()));
+        }
+        if (query.getTo() != null) {
+            sql.append(" AND sent_at < ?");
+            args.add(Timestamp.valueOf(query.getTo()));
+        }
+        NotificationCursor cursor = query.getCursor();
+        if (cursor != null) {
+            // Row comparison is served by the (user_id, sent_at desc, notification_id desc) index
+            sql.append(" AND (sent_at, notification_id) < (?, ?)");
+            args.add(Timestamp.valueOf(cursor.sentAt()));
+            args.add(cursor.notificationId());
+        }
+        sql.append(" ORDER BY sent_at DESC, notification_id DESC LIMIT ?");
+        args.add(rows);
+        return jdbcTemplate.query(sql.toString(), ROW_MAPPER, args.toArray());
+    }
+}
@@ -2,11 +2,11 @@ package com.central.notification_service.repository;
 
 import com.central.notification_service.model.Notification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
-
 @Repository
-public interface NotificationRepository extends JpaRepository<Notification, String> {
-    List<Notification> findByUserId(String userId);
+public interface NotificationRepository extends JpaRepository<Notification, Long>,
+        JpaSpecificationExecutor<Notification>, NotificationBatchRepository,
+        NotificationExportRepository, NotificationHistoryRepository {
 }
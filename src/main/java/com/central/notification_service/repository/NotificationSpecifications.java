@@ -0,0 +1,68 @@
+package com.central.notification_service.repository;
+
+import com.central.notification_service.model.Notification;
+import com.central.notification_service.model.NotificationCursor;
+import com.central.notification_service.model.NotificationHistoryQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Query specifications for {@link Notification}. Only the filters that are present are added to the
+ * generated SQL so that every page is served by a range scan on the
+ * {@code (user_id, sent_at desc, notification_id desc)} index.
+ */
+public final class NotificationSpecifications {
+
+    /**
+     * Newest first; the id breaks ties between notifications sent in the same instant.
+     */
+    public static final Sort HISTORY_ORDER = Sort.by(Sort.Order.desc("sentAt"), Sort.Order.desc("notificationId"));
+
+    private NotificationSpecifications() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Builds the keyset predicate for one page of a user's history.
+     *
+     * @param query the page request
+     * @return the specification matching the requested page
+     */
+    public static Specification<Notification> history(NotificationHistoryQuery query) {
+        return (root, criteriaQuery, cb) -> {
+            Path<LocalDateTime> sentAt = root.get("sentAt");
+            Path<Long> notificationId = root.get("notificationId");
+
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(root.get("userId"), query.getUserId()));
+            if (query.getType() != null) {
+                predicates.add(cb.equal(root.get("type"), query.getType()));
+            }
+            if (query.getChannel() != null) {
+                predicates.add(cb.equal(root.get("channel"), query.getChannel()));
+            }
+            if (query.getFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(sentAt, query.getFrom()));
+            }
+            if (query.getTo() != null) {
+                predicates.add(cb.lessThan(sentAt, query.getTo()));
+            }
+
+            NotificationCursor cursor = query.getCursor();
+            if (cursor != null) {
+                // (sent_at, notification_id) < (:sentAt, :id), written so that the first term bounds the index scan
+                predicates.add(cb.lessThanOrEqualTo(sentAt, cursor.sentAt()));
+                predicates.add(cb.or(
+                        cb.lessThan(sentAt, cursor.sentAt()),
+                        cb.lessThan(notificationId, cursor.notificationId())));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+}
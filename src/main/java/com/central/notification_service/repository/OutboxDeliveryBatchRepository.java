@@ -0,0 +1,31 @@
+package com.central.notification_service.repository;
+
+import com.central.notification_service.model.DeliveryOutcome;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Custom repository fragment recording relay results in bulk and promoting scheduled deliveries.
+ */
+public interface OutboxDeliveryBatchRepository {
+
+    /**
+     * Applies the outcomes of finished deliveries with a single JDBC batch. Outcomes of claims whose lease was
+     * taken over meanwhile are ignored.
+     *
+     * @param outcomes the results reported by the dispatcher
+     */
+    void applyOutcomes(List<DeliveryOutcome> outcomes);
+
+    /**
+     * Makes the earliest SCHEDULED deliveries of a shard that are due before {@code horizon} PENDING, keeping
+     * their due time. Rows locked by another scheduler are skipped.
+     *
+     * @return the promoted deliveries with their due time
+     */
+    List<PromotedDelivery> promoteScheduled(int shard, LocalDateTime horizon, int limit);
+
+    record PromotedDelivery(long deliveryId, LocalDateTime dueAt) {
+    }
+}
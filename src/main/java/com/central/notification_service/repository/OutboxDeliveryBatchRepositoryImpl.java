@@ -0,0 +1,69 @@
+package com.central.notification_service.repository;
+
+import com.central.notification_service.model.DeliveryOutcome;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JDBC implementation of {@link OutboxDeliveryBatchRepository}.
+ */
+public class OutboxDeliveryBatchRepositoryImpl implements OutboxDeliveryBatchRepository {
+
+    // Only rows still held by the claim that produced the outcome are updated. Once its lease expired the row was
+    // released, possibly claimed again under a new token, and belongs to someone else.
+    private static final String UPDATE_SQL = """
+            UPDATE notification_outbox
+            SET status = ?, sent_at = ?, next_attempt_at = COALESCE(?, next_attempt_at), latency_ms = ?,
+                last_error = ?, locked_until = NULL, lease_token = NULL, attempts = attempts - ?
+            WHERE delivery_id = ? AND status = 'IN_FLIGHT' AND lease_token = ?
+            """;
+
+    private static final String PROMOTE_SQL = """
+            UPDATE notification_outbox o SET status = 'PENDING', schedule_shard = NULL
+            FROM (SELECT delivery_id FROM notification_outbox
+                  WHERE status = 'SCHEDULED' AND schedule_shard = ? AND next_attempt_at < ?
+                  ORDER BY next_attempt_at
+                  LIMIT ?
+                  FOR UPDATE SKIP LOCKED) due
+            WHERE o.delivery_id = due.delivery_id
+            RETURNING o.delivery_id, o.next_attempt_at
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public OutboxDeliveryBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void applyOutcomes(List<DeliveryOutcome> outcomes) {
+        jdbcTemplate.batchUpdate(UPDATE_SQL, outcomes, outcomes.size(), (ps, outcome) -> {
+            ps.setString(1, outcome.status().name());
+            ps.setTimestamp(2, outcome.sentAt() == null ? null : Timestamp.valueOf(outcome.sentAt()));
+            ps.setTimestamp(3, outcome.nextAttemptAt() == null ? null : Timestamp.valueOf(outcome.nextAttemptAt()));
+            if (outcome.latencyMs() == null) {
+                ps.setNull(4, Types.BIGINT);
+            } else {
+                ps.setLong(4, outcome.latencyMs());
+            }
+            ps.setString(5, outcome.error());
+            ps.setInt(6, outcome.attempted() ? 0 : 1);
+            ps.setLong(7, outcome.deliveryId());
+            ps.setLong(8, outcome.leaseToken());
+        });
+    }
+
+    @Override
+    public List<PromotedDelivery> promoteScheduled(int shard, LocalDateTime horizon, int limit) {
+        return jdbcTemplate.query(PROMOTE_SQL,
+                (resultSet, rowNum) -> new PromotedDelivery(resultSet.getLong(1),
+                        resultSet.getTimestamp(2).toLocalDateTime()),
+                shard, Timestamp.valueOf(horizon), limit);
+    }
+}
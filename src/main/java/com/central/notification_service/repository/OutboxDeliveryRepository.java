@@ -0,0 +1,84 @@
+package com.central.notification_service.repository;
+
+import com.central.notification_service.model.DeliveryStatus;
+import com.central.notification_service.model.OutboxDelivery;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxDeliveryRepository extends JpaRepository<OutboxDelivery, Long>, OutboxDeliveryBatchRepository {
+
+    /**
+     * Locks up to {@code limit} due deliveries. Rows locked by another relay are skipped rather than waited for,
+     * so several replicas can drain the outbox concurrently without claiming the same delivery.
+     */
+    @Query(value = """
+            SELECT * FROM notification_outbox
+            WHERE status = 'PENDING' AND next_attempt_at <= :now
+            ORDER BY next_attempt_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<OutboxDelivery> lockDueDeliveries(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Returns deliveries whose relay lease expired (e.g. the claiming replica crashed) to the PENDING state. The
+     * lease token is cleared, so a late outcome of the expired claim is no longer applied.
+     */
+    @Modifying
+    @Query("""
+            update OutboxDelivery d
+            set d.status = :pending, d.lockedUntil = null, d.leaseToken = null, d.nextAttemptAt = :now
+            where d.status = :inFlight and d.lockedUntil < :now
+            """)
+    int releaseExpiredLeases(@Param("now") LocalDateTime now,
+                             @Param("pending") DeliveryStatus pending,
+                             @Param("inFlight") DeliveryStatus inFlight);
+
+    /**
+     * Locks the pending deliveries of the given digest windows, whether or not they are due yet.
+     */
+    @Query(value = """
+            SELECT * FROM notification_outbox
+            WHERE status = 'PENDING' AND digest_key IN (:digestKeys)
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<OutboxDelivery> lockPendingDigests(@Param("digestKeys") Collection<String> digestKeys);
+
+    /**
+     * Makes the pending deliveries of the given digest windows due immediately.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE notification_outbox SET next_attempt_at = :now
+            WHERE status = 'PENDING' AND digest_key IN (:digestKeys) AND next_attempt_at > :now
+            """, nativeQuery = true)
+    int releaseDigests(@Param("digestKeys") Collection<String> digestKeys, @Param("now") LocalDateTime now);
+
+    /**
+     * Makes held deliveries due immediately.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE notification_outbox SET next_attempt_at = :now
+            WHERE status = 'PENDING' AND delivery_id IN (:deliveryIds) AND next_attempt_at > :now
+            """, nativeQuery = true)
+    int releaseDeliveries(@Param("deliveryIds") Collection<Long> deliveryIds, @Param("now") LocalDateTime now);
+
+    /**
+     * @return digest key and number of pending deliveries of every open digest window
+     */
+    @Query(value = """
+            SELECT digest_key, count(*) FROM notification_outbox
+            WHERE status = 'PENDING' AND digest_key IS NOT NULL
+            GROUP BY digest_key
+            """, nativeQuery = true)
+    List<Object[]> countPendingDigests();
+}
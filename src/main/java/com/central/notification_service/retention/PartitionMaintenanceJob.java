@@ -0,0 +1,354 @@
+package com.central.notification_service.retention;
+
+import com.central.notification_service.dispatch.OutboxProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the monthly partitions of {@code central_notifications} in shape:
+ * <ul>
+ *     <li>creates the partitions of the current and the next {@code premake-months} months ahead of time, so
+ *     inserts normally never land in the default partition;</li>
+ *     <li>moves rows that did land there (events dated outside the pre-created months) into a partition of their
+ *     own month, unless the month is already expired; rows left behind are reported by the
+ *     {@code notification.partitions.default.rows} gauge;</li>
+ *     <li>expires partitions older than {@code retention-months} by detaching them and, depending on the configured
+ *     action, exporting them to a gzip-compressed CSV file and dropping them;</li>
+ *     <li>purges the event keys of expired months from {@code notification_event_keys};</li>
+ *     <li>purges deliveries that reached a final status from {@code notification_outbox} once they are older than
+ *     {@code notification.outbox.retention}.</li>
+ * </ul>
+ * Runs at startup and then on {@code notification.partitions.maintenance-cron}. Replicas serialise on a
+ * PostgreSQL advisory lock; a replica that does not get it skips the run.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "notification.partitions.maintenance-enabled", havingValue = "true", matchIfMissing = true)
+public class PartitionMaintenanceJob {
+
+    private static final String PARENT_TABLE = "central_notifications";
+    private static final String DEFAULT_PARTITION = "central_notifications_default";
+    private static final Pattern PARTITION_NAME = Pattern.compile("central_notifications_(\\d{4})_(\\d{2})");
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final long ADVISORY_LOCK_KEY = 7_311_562_240_931_002_113L;
+    private static final int EVENT_KEY_PURGE_BATCH = 10_000;
+    private static final int OUTBOX_PURGE_BATCH = 10_000;
+
+    private static final String LIST_PARTITIONS_SQL = """
+            SELECT c.relname, i.inhparent IS NOT NULL AS attached
+            FROM pg_class c
+            JOIN pg_namespace n ON n.oid = c.relnamespace AND n.nspname = current_schema()
+            LEFT JOIN pg_inherits i ON i.inhrelid = c.oid
+            WHERE c.relkind = 'r' AND c.relname ~ '^central_notifications_[0-9]{4}_[0-9]{2}$'
+            ORDER BY c.relname
+            """;
+
+    private static final String PURGE_EVENT_KEYS_SQL = """
+            DELETE FROM notification_event_keys
+            WHERE ctid = ANY (ARRAY(SELECT ctid FROM notification_event_keys WHERE created_at < ? LIMIT ?))
+            """;
+
+    private static final String PURGE_OUTBOX_SQL = """
+            DELETE FROM notification_outbox
+            WHERE delivery_id = ANY (ARRAY(SELECT delivery_id FROM notification_outbox
+                                           WHERE status IN ('SENT', 'FAILED', 'SKIPPED') AND created_at < ?
+                                           LIMIT ?))
+            """;
+
+    private static final String DEFAULT_MONTHS_SQL =
+            "SELECT DISTINCT to_char(sent_at, 'YYYY-MM') FROM " + DEFAULT_PARTITION + " ORDER BY 1";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PartitionProperties properties;
+    private final OutboxProperties outboxProperties;
+    private final AtomicLong defaultPartitionRows = new AtomicLong();
+
+    @Autowired
+    public PartitionMaintenanceJob(JdbcTemplate jdbcTemplate, PartitionProperties properties,
+                                   OutboxProperties outboxProperties, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.outboxProperties = outboxProperties;
+        Gauge.builder("notification.partitions.default.rows", defaultPartitionRows, AtomicLong::get)
+                .description("Rows left in the default partition of central_notifications after maintenance")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        runMaintenance();
+    }
+
+    @Scheduled(cron = "${notification.partitions.maintenance-cron:0 15 3 * * *}")
+    public void runMaintenance() {
+        try {
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                maintain(connection, YearMonth.now());
+                return null;
+            });
+        } catch (DataAccessException e) {
+            log.error("Partition maintenance failed. Error: {}", e.getMessage(), e);
+        }
+    }
+
+    private void maintain(Connection connection, YearMonth currentMonth) throws SQLException {
+        if (!queryBoolean(connection, "SELECT pg_try_advisory_lock(" + ADVISORY_LOCK_KEY + ")")) {
+            log.info("Partition maintenance is running on another instance, skipping");
+            return;
+        }
+        try {
+            try (PreparedStatement ps = connection.prepareStatement("SELECT set_config('lock_timeout', ?, false)")) {
+                ps.setString(1, properties.getLockTimeout());
+                ps.execute();
+            }
+            createUpcomingPartitions(connection, currentMonth);
+            YearMonth oldestRetained = currentMonth.minusMonths(properties.getRetentionMonths());
+            adoptDefaultPartitionRows(connection, oldestRetained);
+            expirePartitions(connection, oldestRetained);
+            purgeEventKeys(connection, oldestRetained.atDay(1));
+            purgeOutbox(connection, LocalDateTime.now().minus(outboxProperties.getRetention()));
+        } finally {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("RESET lock_timeout");
+                statement.execute("SELECT pg_advisory_unlock(" + ADVISORY_LOCK_KEY + ")");
+            }
+        }
+    }
+
+    private void createUpcomingPartitions(Connection connection, YearMonth currentMonth) {
+        for (int i = 0; i <= properties.getPremakeMonths(); i++) {
+            createPartition(connection, currentMonth.plusMonths(i));
+        }
+    }
+
+    /**
+     * Gives the rows in the default partition a partition of their month, except for months that are already
+     * expired. Whatever is left is published through the gauge and logged.
+     */
+    private void adoptDefaultPartitionRows(Connection connection, YearMonth oldestRetained) throws SQLException {
+        List<YearMonth> months = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(DEFAULT_MONTHS_SQL)) {
+            while (rs.next()) {
+                months.add(YearMonth.parse(rs.getString(1)));
+            }
+        }
+        for (YearMonth month : months) {
+            if (!month.isBefore(oldestRetained)) {
+                createPartition(connection, month);
+            }
+        }
+        long remaining = 0;
+        if (!months.isEmpty()) {
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery("SELECT count(*) FROM " + DEFAULT_PARTITION)) {
+                remaining = rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+        defaultPartitionRows.set(remaining);
+        if (remaining > 0) {
+            log.warn("{} still holds {} rows, dated before the retention period or in months whose partition could "
+                    + "not be created", DEFAULT_PARTITION, remaining);
+        }
+    }
+
+    /**
+     * Creates the partition of a month unless it exists. If the default partition already holds rows of that
+     * month, a plain {@code CREATE} would fail, so in one transaction the default partition is detached, the
+     * month's partition created, its rows moved over and the default partition attached again. Inserts wait for
+     * that transaction; the lock timeout keeps the job from queueing behind long-running statements.
+     */
+    private void createPartition(Connection connection, YearMonth month) {
+        String partition = partitionName(month);
+        String create = String.format("CREATE TABLE %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+                partition, PARENT_TABLE, month.atDay(1), month.plusMonths(1).atDay(1));
+        String range = String.format("sent_at >= '%s' AND sent_at < '%s'", month.atDay(1),
+                month.plusMonths(1).atDay(1));
+        try {
+            if (queryBoolean(connection, "SELECT to_regclass('" + partition + "') IS NOT NULL")) {
+                return;
+            }
+            if (!queryBoolean(connection, "SELECT EXISTS (SELECT 1 FROM " + DEFAULT_PARTITION + " WHERE " + range
+                    + ")")) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(create);
+                }
+                return;
+            }
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ALTER TABLE " + PARENT_TABLE + " DETACH PARTITION " + DEFAULT_PARTITION);
+                statement.execute(create);
+                int moved = statement.executeUpdate("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION + " WHERE "
+                        + range + " RETURNING *) INSERT INTO " + partition + " SELECT * FROM moved");
+                statement.execute("ALTER TABLE " + PARENT_TABLE + " ATTACH PARTITION " + DEFAULT_PARTITION
+                        + " DEFAULT");
+                connection.commit();
+                log.warn("Created partition {} and moved its {} rows out of {}", partition, moved, DEFAULT_PARTITION);
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            log.error("Could not create partition {}. Error: {}", partition, e.getMessage());
+        }
+    }
+
+    private void expirePartitions(Connection connection, YearMonth oldestRetained) throws SQLException {
+        Map<String, Boolean> partitions = new LinkedHashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(LIST_PARTITIONS_SQL)) {
+            while (rs.next()) {
+                partitions.put(rs.getString(1), rs.getBoolean(2));
+            }
+        }
+
+        partitions.forEach((partition, attached) -> {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (!matcher.matches()) {
+                return;
+            }
+            YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            if (!month.isBefore(oldestRetained)) {
+                return;
+            }
+            if (!attached && properties.getExpiredAction() == PartitionProperties.ExpiredPartitionAction.DETACH) {
+                // Detached by an earlier run and kept on purpose
+                return;
+            }
+            try {
+                expire(connection, partition, attached);
+            } catch (SQLException | IOException e) {
+                log.error("Could not expire partition {}. Error: {}", partition, e.getMessage(), e);
+            }
+        });
+    }
+
+    private void expire(Connection connection, String partition, boolean attached) throws SQLException, IOException {
+        try (Statement statement = connection.createStatement()) {
+            if (attached) {
+                statement.execute("ALTER TABLE " + PARENT_TABLE + " DETACH PARTITION " + partition);
+                log.info("Detached expired partition {}", partition);
+            }
+            switch (properties.getExpiredAction()) {
+                case DETACH -> {
+                }
+                case ARCHIVE -> {
+                    Path archive = archive(connection, partition);
+                    statement.execute("DROP TABLE " + partition);
+                    log.info("Archived partition {} to {} and dropped it", partition, archive);
+                }
+                case DROP -> {
+                    statement.execute("DROP TABLE " + partition);
+                    log.info("Dropped expired partition {}", partition);
+                }
+            }
+        }
+    }
+
+    /**
+     * Streams the partition through {@code COPY ... TO STDOUT} into a gzip file. The file is written under a
+     * temporary name and moved into place once complete, so a partially written export is never mistaken for a
+     * finished one.
+     */
+    private Path archive(Connection connection, String partition) throws SQLException, IOException {
+        Path directory = properties.getArchiveDirectory();
+        Files.createDirectories(directory);
+        Path target = directory.resolve(partition + ".csv.gz");
+        Path temporary = directory.resolve(partition + ".csv.gz.tmp");
+
+        long rows;
+        try (OutputStream out = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)),
+                64 * 1024)) {
+            rows = connection.unwrap(PGConnection.class).getCopyAPI()
+                    .copyOut("COPY " + partition + " TO STDOUT WITH (FORMAT csv, HEADER)", out);
+        }
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        log.info("Exported {} rows of partition {}", rows, partition);
+        return target;
+    }
+
+    private void purgeEventKeys(Connection connection, LocalDate before) throws SQLException {
+        long purged = 0;
+        try (PreparedStatement ps = connection.prepareStatement(PURGE_EVENT_KEYS_SQL)) {
+            ps.setTimestamp(1, Timestamp.valueOf(before.atStartOfDay()));
+            ps.setInt(2, EVENT_KEY_PURGE_BATCH);
+            int deleted;
+            do {
+                deleted = ps.executeUpdate();
+                purged += deleted;
+            } while (deleted == EVENT_KEY_PURGE_BATCH);
+        }
+        if (purged > 0) {
+            log.info("Purged {} event keys created before {}", purged, before);
+        }
+    }
+
+    /**
+     * Deletes finished deliveries in batches, so no single statement holds locks on many rows; pending and
+     * in-flight deliveries are never touched.
+     */
+    private void purgeOutbox(Connection connection, LocalDateTime before) throws SQLException {
+        long purged = 0;
+        try (PreparedStatement ps = connection.prepareStatement(PURGE_OUTBOX_SQL)) {
+            ps.setTimestamp(1, Timestamp.valueOf(before));
+            ps.setInt(2, OUTBOX_PURGE_BATCH);
+            int deleted;
+            do {
+                deleted = ps.executeUpdate();
+                purged += deleted;
+            } while (deleted == OUTBOX_PURGE_BATCH);
+        }
+        if (purged > 0) {
+            log.info("Purged {} finished outbox deliveries created before {}", purged, before);
+        }
+    }
+
+    private static boolean queryBoolean(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            return rs.next() && rs.getBoolean(1);
+        }
+    }
+
+    private static String partitionName(YearMonth month) {
+        return PARENT_TABLE + "_" + month.format(PARTITION_SUFFIX);
+    }
+}
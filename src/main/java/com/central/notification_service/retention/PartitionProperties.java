@@ -0,0 +1,60 @@
+package com.central.notification_service.retention;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+/**
+ * Partition maintenance and retention of {@code central_notifications}, bound from {@code notification.partitions.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "notification.partitions")
+public class PartitionProperties {
+
+    /**
+     * Run the maintenance job on this replica. Replicas coordinate through an advisory lock, so enabling it
+     * everywhere is safe.
+     */
+    private boolean maintenanceEnabled = true;
+
+    /**
+     * Number of future months for which partitions are created ahead of time.
+     */
+    private int premakeMonths = 3;
+
+    /**
+     * Number of complete months kept in addition to the current one; older partitions are expired.
+     */
+    private int retentionMonths = 12;
+
+    /**
+     * What happens to an expired partition.
+     */
+    private ExpiredPartitionAction expiredAction = ExpiredPartitionAction.DETACH;
+
+    /**
+     * Directory receiving the gzip-compressed CSV exports when {@link ExpiredPartitionAction#ARCHIVE} is used.
+     */
+    private Path archiveDirectory = Path.of("archive");
+
+    /**
+     * Maximum time the job waits for the table lock needed to attach or detach a partition.
+     */
+    private String lockTimeout = "5s";
+
+    public enum ExpiredPartitionAction {
+        /**
+         * Detach the partition and keep it as a standalone table.
+         */
+        DETACH,
+        /**
+         * Detach, export to {@code <archive-directory>/<partition>.csv.gz} and drop the partition.
+         */
+        ARCHIVE,
+        /**
+         * Detach and drop the partition without an export.
+         */
+        DROP
+    }
+}
@@ -0,0 +1,37 @@
+package com.central.notification_service.retry;
+
+import com.central.notification_service.model.NotificationChannel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff with jitter for failed channel deliveries.
+ */
+@Component
+public class RetryBackoff {
+
+    private final RetryProperties properties;
+
+    @Autowired
+    public RetryBackoff(RetryProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * @param channel  the channel of the failed delivery
+     * @param attempts attempts made so far, including the failed one
+     * @return the delay before the next attempt
+     */
+    public Duration delay(NotificationChannel channel, int attempts) {
+        RetryProperties.Backoff backoff = properties.backoffFor(channel);
+        double exponential = backoff.getInitialDelay().toMillis()
+                * Math.pow(backoff.getMultiplier(), Math.max(0, attempts - 1));
+        double capped = Math.min(exponential, backoff.getMaxDelay().toMillis());
+        double jitter = Math.clamp(backoff.getJitter(), 0.0, 1.0);
+        double jittered = capped * (1 - jitter * ThreadLocalRandom.current().nextDouble());
+        return Duration.ofMillis(Math.max(1, (long) jittered));
+    }
+}
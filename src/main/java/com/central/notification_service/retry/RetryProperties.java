@@ -0,0 +1,88 @@
+package com.central.notification_service.retry;
+
+import com.central.notification_service.model.NotificationChannel;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Retry behaviour of channel deliveries and of consumed records, bound from {@code notification.retry.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "notification.retry")
+public class RetryProperties {
+
+    /**
+     * Backoff per channel; channels without an entry use the defaults of {@link Backoff}.
+     */
+    private Map<NotificationChannel, Backoff> channels = new EnumMap<>(NotificationChannel.class);
+
+    /**
+     * Resolution of the in-memory wheel that wakes the outbox relay when retries become due.
+     */
+    private Duration wheelTick = Duration.ofMillis(100);
+
+    /**
+     * Slots of the retry wheel; one rotation covers {@code wheel-tick * wheel-slots}.
+     */
+    private int wheelSlots = 512;
+
+    /**
+     * Handling of records whose processing keeps failing.
+     */
+    private Consumer consumer = new Consumer();
+
+    public Backoff backoffFor(NotificationChannel channel) {
+        return channels.getOrDefault(channel, new Backoff());
+    }
+
+    @Data
+    public static class Backoff {
+
+        /**
+         * Delay before the first retry.
+         */
+        private Duration initialDelay = Duration.ofSeconds(5);
+
+        /**
+         * Factor applied to the delay after every failed attempt.
+         */
+        private double multiplier = 2.0;
+
+        /**
+         * Upper bound of the delay.
+         */
+        private Duration maxDelay = Duration.ofMinutes(10);
+
+        /**
+         * Fraction of the delay that is randomised, so deliveries failing together do not retry together.
+         */
+        private double jitter = 0.2;
+    }
+
+    @Data
+    public static class Consumer {
+
+        /**
+         * Redeliveries of a failing record before it is published to the dead-letter topic.
+         */
+        private int maxRetries = 3;
+
+        /**
+         * Delay before the first redelivery, multiplied by {@code multiplier} for each further one.
+         */
+        private Duration initialInterval = Duration.ofSeconds(1);
+
+        private double multiplier = 2.0;
+
+        private Duration maxInterval = Duration.ofSeconds(10);
+
+        /**
+         * Suffix appended to the source topic to form its dead-letter topic.
+         */
+        private String deadLetterSuffix = ".DLT";
+    }
+}
@@ -0,0 +1,151 @@
+package com.central.notification_service.retry;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel: a delay queue with O(1) insertion and expiry, meant for large numbers of timeouts at a
+ * coarse resolution.
+ *
+ * <p>Time is divided into ticks and the wheel into a power-of-two number of slots; an entry goes to the slot of
+ * its deadline tick, and entries more than one rotation ahead simply stay in their slot until a later pass.
+ * Advancing the wheel visits only the slots of the elapsed ticks. Entries cost one small node each, unlike a
+ * heap-based delay queue there is no reordering on insertion, and deadlines are only as precise as the tick.</p>
+ *
+ * <p>{@link #schedule} may be called from any thread; {@link #advance} must be called by a single thread.</p>
+ *
+ * @param <T> the scheduled value
+ */
+public final class TimingWheel<T> {
+
+    private final long tickNanos;
+    private final int mask;
+    private final Slot<T>[] slots;
+    private final Queue<Entry<T>> scheduled = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final long startNanos = System.nanoTime();
+    private long currentTick;
+
+    /**
+     * @param tickDuration resolution of the wheel
+     * @param unit         unit of {@code tickDuration}
+     * @param slots        number of slots, rounded up to a power of two
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickDuration, TimeUnit unit, int slots) {
+        if (tickDuration <= 0 || slots <= 0) {
+            throw new IllegalArgumentException("Tick duration and slot count must be positive");
+        }
+        int slotCount = Integer.highestOneBit(Math.min(slots, 1 << 30) - 1) << 1;
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.mask = Math.max(1, slotCount) - 1;
+        this.slots = new Slot[mask + 1];
+        for (int i = 0; i < this.slots.length; i++) {
+            this.slots[i] = new Slot<>();
+        }
+    }
+
+    /**
+     * @param value the value handed back once the delay has elapsed
+     * @param delay delay from now
+     * @param unit  unit of {@code delay}
+     */
+    public void schedule(T value, long delay, TimeUnit unit) {
+        scheduled.add(new Entry<>(value, System.nanoTime() - startNanos + Math.max(0, unit.toNanos(delay))));
+        size.incrementAndGet();
+    }
+
+    /**
+     * Moves the wheel to the current time and passes every expired value to {@code expired}.
+     *
+     * @param expired receives the expired values, in no particular order
+     * @return the number of expired values
+     */
+    public int advance(Consumer<T> expired) {
+        long targetTick = (System.nanoTime() - startNanos) / tickNanos;
+        transferScheduled(targetTick);
+        int count = 0;
+        // A full rotation visits every slot; further ticks would only revisit them
+        long fromTick = Math.max(currentTick, targetTick - mask);
+        for (long tick = fromTick; tick <= targetTick; tick++) {
+            count += slots[(int) (tick & mask)].expire(targetTick, expired);
+        }
+        currentTick = targetTick + 1;
+        size.addAndGet(-count);
+        return count;
+    }
+
+    /**
+     * @return the number of values not yet expired
+     */
+    public int size() {
+        return size.get();
+    }
+
+    public boolean isEmpty() {
+        return size.get() == 0;
+    }
+
+    /**
+     * @return the resolution of the wheel in nanoseconds
+     */
+    public long tickNanos() {
+        return tickNanos;
+    }
+
+    private void transferScheduled(long targetTick) {
+        Entry<T> entry;
+        while ((entry = scheduled.poll()) != null) {
+            long deadlineTick = Math.max(entry.deadlineNanos / tickNanos, Math.min(currentTick, targetTick));
+            entry.deadlineTick = deadlineTick;
+            slots[(int) (deadlineTick & mask)].add(entry);
+        }
+    }
+
+    private static final class Entry<T> {
+        private final T value;
+        private final long deadlineNanos;
+        private long deadlineTick;
+        private Entry<T> next;
+
+        private Entry(T value, long deadlineNanos) {
+            this.value = value;
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+
+    private static final class Slot<T> {
+        private Entry<T> head;
+
+        private void add(Entry<T> entry) {
+            entry.next = head;
+            head = entry;
+        }
+
+        private int expire(long nowTick, Consumer<T> expired) {
+            int count = 0;
+            Entry<T> previous = null;
+            Entry<T> entry = head;
+            while (entry != null) {
+                Entry<T> next = entry.next;
+                if (entry.deadlineTick <= nowTick) {
+                    if (previous == null) {
+                        head = next;
+                    } else {
+                        previous.next = next;
+                    }
+                    entry.next = null;
+                    expired.accept(entry.value);
+                    count++;
+                } else {
+                    previous = entry;
+                }
+                entry = next;
+            }
+            return count;
+        }
+    }
+}
@@ -1,28 +1,26 @@
 package com.central.notification_service.service;
 
 import com.central.notification_service.model.Notification;
+import com.central.notification_service.model.NotificationHistoryQuery;
 import org.openapitools.model.NotificationsList;
 import org.springframework.http.ResponseEntity;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
-import java.util.concurrent.CompletableFuture;
+import java.time.Instant;
+import java.util.List;
 
 
 @Service
 public interface NotificationService {
 
-    ResponseEntity<NotificationsList> getNotificationsByUserId(String userId);
+    ResponseEntity<NotificationsList> getNotificationsByUserId(NotificationHistoryQuery query);
 
 
     void saveNotification(Notification notification);
 
-    @Async
-    CompletableFuture<Boolean> sendEmail(String toEmail, String subject, String content);
-    
-    @Async
-    CompletableFuture<Boolean> sendSms(String phoneNumber, String message);
-    
-    @Async
-    CompletableFuture<Boolean> sendPushNotification(String userId, String title, String message);
+    // Returns the number of notifications actually stored; the rest were duplicates of processed events
+    int saveNotifications(List<Notification> notifications);
+
+    // Stores the notifications now and delivers them at sendAt, or right away once sendAt has passed
+    int scheduleNotifications(List<Notification> notifications, Instant sendAt);
 }
@@ -1,23 +1,37 @@
 package com.central.notification_service.service;
 
+import com.central.notification_service.cache.RecentNotifications;
+import com.central.notification_service.cache.RecentNotificationsCache;
+import com.central.notification_service.dispatch.DeliveryPlanner;
+import com.central.notification_service.dispatch.DeliveryScheduler;
+import com.central.notification_service.dispatch.DigestWindowTracker;
+import com.central.notification_service.dispatch.TransactionCorrelator;
 import com.central.notification_service.exception.NotificationForUserDoesNotExistException;
+import com.central.notification_service.idempotency.ProcessedEventCache;
 
 import com.central.notification_service.model.Notification;
+import com.central.notification_service.model.NotificationCursor;
+import com.central.notification_service.model.NotificationHistoryQuery;
+import com.central.notification_service.model.NotificationsSavedEvent;
+import com.central.notification_service.model.OutboxDelivery;
 import com.central.notification_service.repository.NotificationRepository;
+import com.central.notification_service.repository.OutboxDeliveryRepository;
+import com.central.notification_service.repository.NotificationSpecifications;
 import com.central.notification_service.utils.ServiceUtils;
-import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
 import org.openapitools.model.NotificationDTO;
 import org.openapitools.model.NotificationsList;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.List;
-import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 
@@ -29,91 +43,163 @@ public class NotificationServiceImpl implements NotificationService {
     @Autowired
     private NotificationRepository notificationRepository;
 
+    @Autowired
+    private OutboxDeliveryRepository outboxDeliveryRepository;
+
+    @Autowired
+    private DeliveryPlanner deliveryPlanner;
+
+    @Autowired
+    private DeliveryScheduler deliveryScheduler;
+
+    @Autowired
+    private DigestWindowTracker digestWindowTracker;
+
+    @Autowired
+    private TransactionCorrelator transactionCorrelator;
+
+    @Autowired
+    private ProcessedEventCache processedEventCache;
+
+    @Autowired
+    private RecentNotificationsCache recentNotificationsCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${notification.history.content-preview-length:120}")
+    private int contentPreviewLength;
+
+    /**
+     * Returns one page of a user's notification history, newest first. Pages are addressed by a keyset
+     * cursor instead of an offset, so the cost of a page does not depend on how much history precedes it.
+     * Unfiltered first pages, which is what polling clients ask for, are served from the
+     * {@link RecentNotificationsCache}; all other pages are read straight into response objects, with the content
+     * omitted or truncated in SQL when the client only needs a list view. Runs read-only, so uncached pages are
+     * served by the read replica when one is configured; cache snapshots are loaded from the primary.
+     *
+     * @param query the page request
+     * @return the page together with the cursor of the following page, if any
+     */
     @Override
-    public ResponseEntity<NotificationsList> getNotificationsByUserId(String userId) {
-        List<Notification> notificationEntities = notificationRepository.findByUserId(userId);
+    @Transactional(readOnly = true)
+    public ResponseEntity<NotificationsList> getNotificationsByUserId(NotificationHistoryQuery query) {
+        int limit = query.getLimit();
+        List<NotificationDTO> notifications;
+        boolean hasMore;
+        if (recentNotificationsCache.canServe(query)) {
+            RecentNotifications recent = recentNotificationsCache.get(query.getUserId(),
+                    rows -> findHistory(query, rows));
+            hasMore = recent.hasMoreThan(limit);
+            notifications = recent.notifications().stream()
+                    .limit(limit)
+                    .map(notification -> ServiceUtils.constructNotificationResponse(
+                            notification, query.getContent(), contentPreviewLength))
+                    .collect(Collectors.toList());
+        } else {
+            // Fetch one extra row to find out whether another page follows
+            notifications = notificationRepository.findHistoryPage(query, limit + 1, contentPreviewLength);
+            hasMore = notifications.size() > limit;
+            if (hasMore) {
+                notifications = notifications.subList(0, limit);
+            }
+        }
 
-        if (notificationEntities.isEmpty()) {
-            log.info("No notifications found for user ID: {}", userId);
+        if (notifications.isEmpty() && query.getCursor() == null) {
+            log.info("No notifications found for user ID: {}", query.getUserId());
             throw new NotificationForUserDoesNotExistException(
-                    String.format("No notifications found for user ID: %s", userId)
+                    String.format("No notifications found for user ID: %s", query.getUserId())
             );
         }
-
-        log.debug("Found {} notifications for user ID: {}", notificationEntities.size(), userId);
-
-        List<NotificationDTO> notifications = notificationEntities.stream()
-                .map(ServiceUtils::constructNotificationResponse)
-                .collect(Collectors.toList());
+        log.debug("Found {} notifications for user ID: {}", notifications.size(), query.getUserId());
 
         NotificationsList response = new NotificationsList()
-                .notifications(notifications);
+                .notifications(notifications)
+                .nextCursor(hasMore
+                        ? NotificationCursor.after(notifications.get(notifications.size() - 1)).encode()
+                        : null);
 
         return ResponseEntity.ok(response);
     }
 
+    private List<Notification> findHistory(NotificationHistoryQuery query, int rows) {
+        return notificationRepository.findBy(
+                NotificationSpecifications.history(query),
+                q -> q.sortBy(NotificationSpecifications.HISTORY_ORDER).limit(rows).all());
+    }
 
     @Override
     public void saveNotification(Notification notification) {
-        log.info("Saving notification for userId: {}, transactionId: {}",
+        log.debug("Saving notification for userId: {}, transactionId: {}",
                 notification.getUserId(), notification.getTransactionId());
-        notificationRepository.save(notification);
+        saveNotifications(List.of(notification));
         log.debug("Notification saved for userId: {}, transactionId: {}",
                 notification.getUserId(), notification.getTransactionId());
     }
 
-    @Override
     /**
-     * Sends an email to the specified recipient with the given subject and content.
-     * This is a dummy implementation that logs the email instead of sending it.
+     * Persists a batch of notifications in a single transaction using multi-row inserts. The channel deliveries
+     * of every notification are written to the outbox in the same transaction, so a notification is never
+     * stored without its deliveries (or vice versa); the outbox relay sends them once the transaction commits.
      *
-     * @param toEmail Recipient's email address
-     * @param subject Email subject
-     * @param content Email content
-     * @return true if the email was "sent" successfully
+     * <p>Reward deliveries are held back while the notifications of their transaction are still outstanding, see
+     * {@link TransactionCorrelator}.</p>
+     *
+     * <p>Notifications for events that were already processed are dropped, first by the in-memory
+     * {@link ProcessedEventCache} and then by the unique index on the event key, so redelivered events neither
+     * create rows nor trigger deliveries.</p>
+     *
+     * <p>Deliveries that are not due yet, e.g. rewards during the user's quiet hours, are handed to the
+     * {@link DeliveryScheduler}.</p>
+     *
+     * @param notifications the notifications to persist
+     * @return the number of notifications stored
      */
-    @Async
-    public CompletableFuture<Boolean> sendEmail(String toEmail, String subject, String content) {
-        try {
-            log.info("\n=== ASYNC EMAIL NOTIFICATION ===\nTo: {}\nSubject: {}\n{}\n=========================\n",
-                    toEmail, subject, content);
-            // Simulate some processing time
-            Thread.sleep(10); // Remove this in production
-            return CompletableFuture.completedFuture(true);
-        } catch (Exception e) {
-            log.error("Error sending email: {}", e.getMessage(), e);
-            return CompletableFuture.failedFuture(e);
-        }
+    @Override
+    public int saveNotifications(List<Notification> notifications) {
+        return save(notifications, null);
     }
 
+    /**
+     * Persists a batch of notifications like {@link #saveNotifications} but delivers them no earlier than
+     * {@code sendAt}.
+     *
+     * @param notifications the notifications to persist
+     * @param sendAt        when to deliver them; a past time delivers right away
+     * @return the number of notifications stored
+     */
     @Override
-    @Async
-    public CompletableFuture<Boolean> sendSms(String phoneNumber, String message) {
-        try {
-            log.info("\n=== ASYNC SMS NOTIFICATION ===\nTo: {}\nMessage: {}\n=========================\n",
-                    phoneNumber, message);
-            // Simulate some processing time
-            Thread.sleep(10); // Remove this in production
-            return CompletableFuture.completedFuture(true);
-        } catch (Exception e) {
-            log.error("Error sending SMS: {}", e.getMessage(), e);
-            return CompletableFuture.failedFuture(e);
-        }
+    public int scheduleNotifications(List<Notification> notifications, Instant sendAt) {
+        return save(notifications, Objects.requireNonNull(sendAt, "sendAt"));
     }
 
-    @Override
-    @Async
-    public CompletableFuture<Boolean> sendPushNotification(String userId, String title, String message) {
-        try {
-            log.info("\n=== ASYNC PUSH NOTIFICATION ===\nTo User: {}\nTitle: {}\nMessage: {}\n=========================\n",
-                    userId, title, message);
-            // Simulate some processing time
-            Thread.sleep(10); // Remove this in production
-            return CompletableFuture.completedFuture(true);
-        } catch (Exception e) {
-            log.error("Error sending push notification: {}", e.getMessage(), e);
-            return CompletableFuture.failedFuture(e);
+    private int save(List<Notification> notifications, Instant sendAt) {
+        if (notifications.isEmpty()) {
+            return 0;
         }
+        List<Notification> unseen = processedEventCache.filterUnseen(notifications);
+        if (unseen.isEmpty()) {
+            log.info("Skipped batch of {} notifications for already processed events", notifications.size());
+            return 0;
+        }
+
+        List<Notification> inserted = notificationRepository.insertAll(unseen);
+        processedEventCache.recordDatabaseConflicts(unseen.size() - inserted.size());
+        processedEventCache.markProcessed(unseen);
+        if (inserted.isEmpty()) {
+            log.info("All {} notifications of the batch already existed", unseen.size());
+            return 0;
+        }
+
+        List<OutboxDelivery> deliveries = deliveryPlanner.plan(inserted, sendAt);
+        transactionCorrelator.correlate(inserted, deliveries);
+        deliveryScheduler.schedule(deliveries);
+        outboxDeliveryRepository.saveAll(deliveries);
+        digestWindowTracker.track(deliveries);
+        eventPublisher.publishEvent(new NotificationsSavedEvent(inserted));
+        log.debug("Saved batch of {} notifications with {} outbox deliveries ({} duplicates skipped)",
+                inserted.size(), deliveries.size(), notifications.size() - inserted.size());
+        return inserted.size();
     }
 
 }
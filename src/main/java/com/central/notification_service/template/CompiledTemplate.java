@@ -0,0 +1,89 @@
+package com.central.notification_service.template;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A template parsed once into alternating literal segments and variables.
+ * Rendering only appends segments; no parsing or format-string interpretation happens per message.
+ */
+public final class CompiledTemplate {
+
+    private static final int MAX_RETAINED_BUFFER = 16 * 1024;
+
+    /**
+     * Per-thread render buffer, reused across messages by the platform threads that render: the listener threads
+     * and the {@code cpuTaskExecutor} pool running the key-ordered lanes.
+     */
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(512));
+
+    /**
+     * {@code literals[i]} precedes {@code variables[i]}; the last literal trails the final variable.
+     */
+    private final String[] literals;
+    private final TemplateVariable[] variables;
+
+    private CompiledTemplate(String[] literals, TemplateVariable[] variables) {
+        this.literals = literals;
+        this.variables = variables;
+    }
+
+    /**
+     * Parses a template containing {@code ${variable}} placeholders.
+     *
+     * @param source the template text
+     * @return the compiled template
+     * @throws IllegalArgumentException if a placeholder is unterminated or unknown
+     */
+    public static CompiledTemplate compile(String source) {
+        List<String> literals = new ArrayList<>();
+        List<TemplateVariable> variables = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int start = source.indexOf("${", position);
+            if (start < 0) {
+                literals.add(source.substring(position));
+                break;
+            }
+            int end = source.indexOf('}', start + 2);
+            if (end < 0) {
+                throw new IllegalArgumentException("Unterminated placeholder in template: " + source);
+            }
+            literals.add(source.substring(position, start));
+            variables.add(TemplateVariable.fromPlaceholder(source.substring(start + 2, end)));
+            position = end + 1;
+        }
+        return new CompiledTemplate(literals.toArray(String[]::new), variables.toArray(TemplateVariable[]::new));
+    }
+
+    /**
+     * Appends the rendered template to the given buffer.
+     *
+     * @param out   the destination buffer
+     * @param model the values for the placeholders
+     */
+    public void renderTo(StringBuilder out, TemplateModel model) {
+        for (int i = 0; i < variables.length; i++) {
+            out.append(literals[i]);
+            variables[i].appendTo(out, model);
+        }
+        out.append(literals[variables.length]);
+    }
+
+    /**
+     * Renders the template using the calling thread's reusable buffer.
+     *
+     * @param model the values for the placeholders
+     * @return the rendered text
+     */
+    public String render(TemplateModel model) {
+        StringBuilder out = BUFFER.get();
+        out.setLength(0);
+        renderTo(out, model);
+        String rendered = out.toString();
+        if (out.capacity() > MAX_RETAINED_BUFFER) {
+            BUFFER.remove();
+        }
+        return rendered;
+    }
+}
@@ -0,0 +1,10 @@
+package com.central.notification_service.template;
+
+/**
+ * Compiled subject and body of one kind of notification.
+ *
+ * @param subject the subject / title template
+ * @param content the body template
+ */
+public record NotificationTemplate(CompiledTemplate subject, CompiledTemplate content) {
+}
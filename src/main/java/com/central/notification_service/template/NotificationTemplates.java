@@ -0,0 +1,91 @@
+package com.central.notification_service.template;
+
+import com.central.notification_service.model.NotificationChannel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Registry of compiled notification templates, keyed by event type and channel (e.g. {@code SENDER.EMAIL}).
+ *
+ * <p>Templates are read from a properties file with a {@code <key>.subject} and {@code <key>.content} entry per
+ * template and compiled once. The bundled defaults are loaded when the class is initialised; {@link #reload}
+ * swaps in a new set atomically.</p>
+ */
+@Slf4j
+public final class NotificationTemplates {
+
+    public static final String DEFAULT_LOCATION = "templates/notification-templates.properties";
+
+    private static final String SUBJECT_SUFFIX = ".subject";
+    private static final String CONTENT_SUFFIX = ".content";
+
+    private static volatile Map<String, NotificationTemplate> templates = load(new ClassPathResource(DEFAULT_LOCATION));
+
+    private NotificationTemplates() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * @param eventType the event type (SENDER, RECEIVER or REWARD)
+     * @param channel   the channel the notification is stored for
+     * @return the compiled template
+     * @throws IllegalArgumentException if no template is registered for the combination
+     */
+    public static NotificationTemplate get(String eventType, NotificationChannel channel) {
+        NotificationTemplate template = templates.get(eventType + '.' + channel.name());
+        if (template == null) {
+            throw new IllegalArgumentException("No notification template for " + eventType + " via " + channel);
+        }
+        return template;
+    }
+
+    /**
+     * Replaces the registered templates with the ones defined in the given resource. The new set must define at
+     * least every template that is currently registered; otherwise the current templates are kept.
+     *
+     * @param resource properties file with the templates
+     * @throws IllegalArgumentException if the resource is invalid or incomplete
+     */
+    public static void reload(Resource resource) {
+        Map<String, NotificationTemplate> reloaded = load(resource);
+        if (!reloaded.keySet().containsAll(templates.keySet())) {
+            throw new IllegalArgumentException("Templates in " + resource + " do not cover " + templates.keySet());
+        }
+        templates = reloaded;
+        log.info("Loaded {} notification templates from {}", reloaded.size(), resource);
+    }
+
+    private static Map<String, NotificationTemplate> load(Resource resource) {
+        Properties properties = new Properties();
+        try (Reader reader = new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read notification templates from " + resource, e);
+        }
+
+        Map<String, NotificationTemplate> compiled = new HashMap<>();
+        for (String name : properties.stringPropertyNames()) {
+            if (!name.endsWith(SUBJECT_SUFFIX)) {
+                continue;
+            }
+            String key = name.substring(0, name.length() - SUBJECT_SUFFIX.length());
+            String content = properties.getProperty(key + CONTENT_SUFFIX);
+            if (content == null) {
+                throw new IllegalArgumentException("Notification template " + key + " has no content");
+            }
+            compiled.put(key, new NotificationTemplate(
+                    CompiledTemplate.compile(properties.getProperty(name)), CompiledTemplate.compile(content)));
+        }
+        return Map.copyOf(compiled);
+    }
+}
@@ -0,0 +1,16 @@
+package com.central.notification_service.template;
+
+import java.time.LocalDateTime;
+
+/**
+ * Values available to notification templates for a single event.
+ *
+ * @param amount        transaction or reward amount
+ * @param counterparty  the other party of a transaction (recipient for the sender and vice versa)
+ * @param transactionId the transaction the notification refers to
+ * @param date          the time the notification is created
+ * @param balance       account balance shown to the user
+ */
+public record TemplateModel(double amount, String counterparty, String transactionId, LocalDateTime date,
+                            double balance) {
+}
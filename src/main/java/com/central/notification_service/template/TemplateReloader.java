@@ -0,0 +1,48 @@
+package com.central.notification_service.template;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Loads notification templates from an external location and reloads them when the file changes.
+ * Only active when {@code notification.templates.location} is set; otherwise the bundled templates are used.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty("notification.templates.location")
+public class TemplateReloader {
+
+    @Value("${notification.templates.location}")
+    private Resource location;
+
+    private long lastModified = Long.MIN_VALUE;
+
+    @PostConstruct
+    public void load() {
+        reloadIfChanged();
+    }
+
+    /**
+     * Recompiles the templates if the file was modified since the last load. Invalid templates are logged
+     * and the previous ones stay active.
+     */
+    @Scheduled(fixedDelayString = "${notification.templates.refresh-interval-ms:30000}")
+    public void reloadIfChanged() {
+        try {
+            long modified = location.lastModified();
+            if (modified != lastModified) {
+                NotificationTemplates.reload(location);
+                lastModified = modified;
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to reload notification templates from {}. Error: {}", location, e.getMessage(), e);
+        }
+    }
+}
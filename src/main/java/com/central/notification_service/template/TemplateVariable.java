@@ -0,0 +1,82 @@
+package com.central.notification_service.template;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Placeholders supported in notification templates, written as {@code ${name}}.
+ * Each variable appends its value straight into the output buffer.
+ */
+public enum TemplateVariable {
+
+    AMOUNT("amount") {
+        @Override
+        void appendTo(StringBuilder out, TemplateModel model) {
+            appendMoney(out, model.amount());
+        }
+    },
+    COUNTERPARTY("counterparty") {
+        @Override
+        void appendTo(StringBuilder out, TemplateModel model) {
+            out.append(model.counterparty());
+        }
+    },
+    TRANSACTION_ID("transactionId") {
+        @Override
+        void appendTo(StringBuilder out, TemplateModel model) {
+            out.append(model.transactionId());
+        }
+    },
+    DATE("date") {
+        @Override
+        void appendTo(StringBuilder out, TemplateModel model) {
+            DateTimeFormatter.ISO_LOCAL_DATE_TIME.formatTo(model.date(), out);
+        }
+    },
+    BALANCE("balance") {
+        @Override
+        void appendTo(StringBuilder out, TemplateModel model) {
+            appendMoney(out, model.balance());
+        }
+    };
+
+    private final String placeholder;
+
+    TemplateVariable(String placeholder) {
+        this.placeholder = placeholder;
+    }
+
+    abstract void appendTo(StringBuilder out, TemplateModel model);
+
+    /**
+     * @param placeholder the name used between {@code ${} and {@code }}
+     * @return the matching variable
+     * @throws IllegalArgumentException if no variable has that name
+     */
+    static TemplateVariable fromPlaceholder(String placeholder) {
+        for (TemplateVariable variable : values()) {
+            if (variable.placeholder.equals(placeholder)) {
+                return variable;
+            }
+        }
+        throw new IllegalArgumentException("Unknown template variable: " + placeholder);
+    }
+
+    /**
+     * Appends a monetary value with two decimals, rounded half-up from the shortest decimal representation of the
+     * double like {@code %.2f} does, without boxing or a Formatter. Non-finite values are appended as-is.
+     */
+    static void appendMoney(StringBuilder out, double value) {
+        if (!Double.isFinite(value)) {
+            out.append(value);
+            return;
+        }
+        BigDecimal rounded = BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+        if (rounded.signum() == 0 && Double.doubleToRawLongBits(value) < 0) {
+            // %.2f keeps the sign of negative values that round to zero
+            out.append('-');
+        }
+        out.append(rounded.toPlainString());
+    }
+}
@@ -1,16 +1,26 @@
 package com.central.notification_service.utils;
 
 
+import com.central.notification_service.kafka.RewardEventView;
+import com.central.notification_service.kafka.TransactionEventView;
+import com.central.notification_service.model.ContentMode;
+import com.central.notification_service.model.EventSource;
 import com.central.notification_service.model.Notification;
 import com.central.notification_service.model.NotificationChannel;
 import com.central.notification_service.model.NotificationType;
+import com.central.notification_service.template.NotificationTemplate;
+import com.central.notification_service.template.NotificationTemplates;
+import com.central.notification_service.template.TemplateModel;
 import lombok.extern.slf4j.Slf4j;
 import org.openapitools.model.NotificationDTO;
 import notification.events.TransactionEvent;
 import notification.events.RewardEvent;
+import com.google.protobuf.Timestamp;
+
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 
 public class ServiceUtils {
 
@@ -20,13 +30,26 @@ public class ServiceUtils {
     }
 
     public static NotificationDTO constructNotificationResponse(Notification notification){
+        return constructNotificationResponse(notification, ContentMode.FULL, 0);
+    }
+
+    /**
+     * Maps a notification to its response, returning as much of the content as the list view asked for.
+     *
+     * @param notification  the notification
+     * @param contentMode   whether to return the full content, a preview or none
+     * @param previewLength characters of content kept by {@link ContentMode#PREVIEW}
+     * @return the response item
+     */
+    public static NotificationDTO constructNotificationResponse(Notification notification, ContentMode contentMode,
+                                                                int previewLength) {
         return NotificationDTO.builder()
-                .notificationId(notification.getNotificationId().intValue())
+                .notificationId(notification.getNotificationId())
                 .transactionId(notification.getTransactionId())
                 .userId(notification.getUserId())
                 .type(NotificationDTO.TypeEnum.fromValue(notification.getType().name()))
                 .subject(notification.getSubject())
-                .content(notification.getContent())
+                .content(contentMode.apply(notification.getContent(), previewLength))
                 .channel(NotificationDTO.ChannelEnum.fromValue(notification.getChannel().name()))
                 .sentAt(notification.getSentAt().atZone(ZoneId.systemDefault()).toOffsetDateTime())
                 .build();
@@ -34,121 +57,122 @@ public class ServiceUtils {
 
     /**
      * Creates and returns a notification based on the transaction event and type.
+     * Subject and content are rendered from the precompiled {@link NotificationTemplates}.
+     * The notification is dated with the time of the event, see {@link #sentAt(Instant)}.
      * 
      * @param event The transaction event
-     * @param eventType The type of event (SENDER, RECEIVER, or REWARD)
+     * @param eventType The type of event (SENDER or RECEIVER)
      * @return The created notification
      */
     public static Notification createNotificationFromEvent(TransactionEvent event, String eventType) {
+        Instant eventTime = event.hasUpdatedAt() ? toInstant(event.getUpdatedAt())
+                : event.hasCreatedAt() ? toInstant(event.getCreatedAt()) : null;
+        return createTransactionNotification(event.getTransactionId(), event.getSenderId(), event.getReceiverId(),
+                event.getAmount(), eventType, eventTime);
+    }
+
+    /**
+     * Same as {@link #createNotificationFromEvent(TransactionEvent, String)} for a lazily decoded event.
+     */
+    public static Notification createNotificationFromEvent(TransactionEventView event, String eventType) {
+        return createTransactionNotification(event.getTransactionId(), event.getSenderId(), event.getReceiverId(),
+                event.getAmount(), eventType, event.getEventTime());
+    }
+
+    public static Notification createNotificationFromEvent(RewardEvent event, String eventType) {
+        return createRewardNotification(event.getTransactionId(), event.getUserId(), event.getRewardValue(),
+                eventType, event.hasCreatedAt() ? toInstant(event.getCreatedAt()) : null);
+    }
+
+    /**
+     * Same as {@link #createNotificationFromEvent(RewardEvent, String)} for a lazily decoded event.
+     */
+    public static Notification createNotificationFromEvent(RewardEventView event, String eventType) {
+        return createRewardNotification(event.getTransactionId(), event.getUserId(), event.getRewardValue(),
+                eventType, event.getEventTime());
+    }
+
+    private static Notification createTransactionNotification(String transactionId, String senderId,
+                                                              String receiverId, double amount, String eventType,
+                                                              Instant eventTime) {
         String userId;
-        String subject;
-        String content;
-        NotificationType notificationType;
-        
+        String counterparty;
+        double balance;
+
         switch (eventType) {
             case "SENDER":
-                userId = event.getSenderId();
-                notificationType = NotificationType.TRANSACTION_SUCCESS;
-                subject = String.format("Transaction Processed: $%.2f Sent", event.getAmount());
-                content = String.format(
-                    "Dear Valued Customer,  " +
-                    "We have successfully processed your transaction.  " +
-                    "Transaction Details: " +
-                    "- Amount: $%.2f " +
-                    "- Recipient: %s " +
-                    "- Transaction ID: %s " +
-                    "- Date: %s  " +
-                    "Your current account balance is $%.2f.  " +
-                    "Thank you for choosing our service.  " +
-                    "Best regards, The Payment Team",
-                    event.getAmount(),
-                    event.getReceiverId(),
-                    event.getTransactionId(),
-                    LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME),
-                    1250.00 // Hardcoded balance as per requirements
-                );
+                userId = senderId;
+                counterparty = receiverId;
+                balance = 1250.00; // Hardcoded balance as per requirements
                 break;
-                
+
             case "RECEIVER":
-                userId = event.getReceiverId();
-                notificationType = NotificationType.TRANSACTION_SUCCESS;
-                subject = String.format("Payment Received: $%.2f Credited to Your Account", event.getAmount());
-                content = String.format(
-                    "Dear Valued Customer,  " +
-                    "We are pleased to inform you that a payment has been credited to your account.  " +
-                    "Transaction Details: " +
-                    "- Amount: $%.2f " +
-                    "- Sender: %s " +
-                    "- Transaction ID: %s " +
-                    "- Date: %s  " +
-                    "Your current account balance is $%.2f.  " +
-                    "Thank you for being a valued customer.  " +
-                    "Best regards, The Payment Team",
-                    event.getAmount(),
-                    event.getSenderId(),
-                    event.getTransactionId(),
-                    LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME),
-                    1750.00 // Hardcoded balance as per requirements
-                );
+                userId = receiverId;
+                counterparty = senderId;
+                balance = 1750.00; // Hardcoded balance as per requirements
                 break;
-                
+
             default:
                 throw new IllegalArgumentException("Unsupported event type: " + eventType);
         }
-        
-        Notification.NotificationBuilder builder = Notification.builder()
-                .transactionId(event.getTransactionId())
+
+        LocalDateTime now = sentAt(eventTime);
+        NotificationTemplate template = NotificationTemplates.get(eventType, NotificationChannel.EMAIL);
+        TemplateModel model = new TemplateModel(amount, counterparty, transactionId, now, balance);
+
+        return Notification.builder()
+                .transactionId(transactionId)
                 .userId(userId)
-                .type(notificationType)
-                .subject(subject)
-                .content(content)
-                .sentAt(LocalDateTime.now());
-                
-        // Set channel based on event type
-        if ("REWARD".equals(eventType)) {
-            builder.channel(NotificationChannel.PUSH);
-        } else {
-            builder.channel(NotificationChannel.EMAIL);
-        }
-        
-        return builder.build();
+                .type(NotificationType.TRANSACTION_SUCCESS)
+                .subject(template.subject().render(model))
+                .content(template.content().render(model))
+                .channel(NotificationChannel.EMAIL)
+                .sentAt(now)
+                .eventSource(EventSource.valueOf(eventType))
+                .build();
     }
 
+    private static Notification createRewardNotification(String transactionId, String userId, double rewardValue,
+                                                         String eventType, Instant eventTime) {
+        LocalDateTime now = sentAt(eventTime);
+        NotificationTemplate template = NotificationTemplates.get(eventType, NotificationChannel.PUSH);
+        TemplateModel model = new TemplateModel(rewardValue, null, transactionId, now, 0);
 
-    public static Notification createNotificationFromEvent(RewardEvent event, String eventType) {
-        String userId;
-        String subject;
-        String content;
-        NotificationType notificationType;
-
-        userId = event.getUserId();
-        notificationType = NotificationType.REWARD_GRANTED;
-        subject = "Congratulations on Your Reward!";
-        content = String.format(
-                "Dear Valued Customer, " +
-                        "We are delighted to inform you that you have been awarded a special reward! " +
-                        "Reward Details: " +
-                        "- Amount: $%.2f " +
-                        "- Transaction ID: %s " +
-                        "- Date: %s " +
-                        "This reward is our way of showing appreciation for your continued trust in our services. " +
-                        "The reward has been credited to your account. " +
-                        "Thank you for being a valued customer. " +
-                        "Best regards, The Rewards Team",
-                event.getRewardValue(),
-                event.getTransactionId(),
-                LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)
-        );
-
-        Notification.NotificationBuilder builder = Notification.builder()
-                .transactionId(event.getTransactionId())
+        return Notification.builder()
+                .transactionId(transactionId)
                 .userId(userId)
-                .type(notificationType)
-                .subject(subject)
-                .content(content)
+                .type(NotificationType.REWARD_GRANTED)
+                .subject(template.subject().render(model))
+                .content(template.content().render(model))
                 .channel(NotificationChannel.PUSH)
-                .sentAt(LocalDateTime.now());
-        return builder.build();
+                .sentAt(now)
+                .eventSource(EventSource.REWARD)
+                .build();
+    }
+
+    /**
+     * Dates a notification with the time of its event, so notifications keep the order in which things happened
+     * rather than the order in which their topics were consumed. Events without a timestamp, or with one ahead of
+     * the local clock, are dated now.
+     *
+     * <p>The time is truncated to the microseconds {@code sent_at} stores, so notifications handed out before they
+     * are read back (write-through cache, live feed) carry the stored value, and cursors built from them match.</p>
+     *
+     * @param eventTime the event timestamp, may be {@code null}
+     * @return the send time in the zone in which {@code sent_at} is stored
+     */
+    public static LocalDateTime sentAt(Instant eventTime) {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        if (eventTime == null) {
+            return now;
+        }
+        LocalDateTime sentAt =
+                LocalDateTime.ofInstant(eventTime.truncatedTo(ChronoUnit.MICROS), ZoneId.systemDefault());
+        return sentAt.isAfter(now) ? now : sentAt;
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return Instant.ofEpochSecond(timestamp.getSeconds(), timestamp.getNanos());
     }
 
 }
@@ -0,0 +1,133 @@
+package com.central.notification_service.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates time-ordered, 64-bit unique identifiers without a database round trip.
+ *
+ * <p>Layout (most significant bit first):
+ * <pre>
+ *  0 | 41 bits milliseconds since 2024-01-01T00:00:00Z | 10 bits node id | 12 bits sequence
+ * </pre>
+ * Every node can hand out 4096 ids per millisecond. When the sequence of a millisecond is exhausted,
+ * or the wall clock moves backwards, the generator keeps counting on the last issued timestamp so ids
+ * stay strictly increasing per node.</p>
+ *
+ * <p>Ids are only unique while no two replicas use the same node id at the same time. The node id is either
+ * configured per replica or leased from the database (see {@code NodeIdLease}); a generator on a leased node id
+ * refuses to issue ids once its lease may have run out, and continues on whatever node id it is given next.</p>
+ */
+public final class SnowflakeIdGenerator {
+
+    private static final long EPOCH_MILLIS = 1704067200000L;
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+
+    public static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+
+    private static volatile SnowflakeIdGenerator shared;
+
+    private volatile Node node;
+
+    /**
+     * Last issued state: milliseconds since epoch shifted left by {@link #SEQUENCE_BITS}, plus the sequence.
+     * Incrementing it overflows the sequence into the next millisecond.
+     */
+    private final AtomicLong lastState = new AtomicLong();
+
+    /**
+     * @param nodeId node id reserved for this generator for as long as it runs
+     */
+    public SnowflakeIdGenerator(long nodeId) {
+        this.node = Node.of(nodeId, false, 0);
+    }
+
+    /**
+     * @param nodeId             node id leased to this replica
+     * @param leaseDeadlineNanos {@link System#nanoTime()} from which the lease may have expired
+     * @return a generator issuing ids on the leased node id until the deadline
+     */
+    public static SnowflakeIdGenerator leased(long nodeId, long leaseDeadlineNanos) {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(nodeId);
+        generator.renewLease(nodeId, leaseDeadlineNanos);
+        return generator;
+    }
+
+    /**
+     * Extends the lease, or moves the generator to another leased node id once the old lease was lost. Ids stay
+     * unique across the move since the new node id is exclusive to this replica.
+     *
+     * @param nodeId             node id leased to this replica
+     * @param leaseDeadlineNanos {@link System#nanoTime()} from which the lease may have expired; a past value stops
+     *                           the generator until the next renewal
+     */
+    public void renewLease(long nodeId, long leaseDeadlineNanos) {
+        node = Node.of(nodeId, true, leaseDeadlineNanos);
+    }
+
+    /**
+     * @return the next identifier for this node
+     * @throws IllegalStateException if the lease of the node id may have expired
+     */
+    public long nextId() {
+        Node current = node;
+        if (current.leased() && System.nanoTime() - current.leaseDeadlineNanos() >= 0) {
+            throw new IllegalStateException("Lease of node id " + current.id() + " expired, not issuing ids");
+        }
+        while (true) {
+            long now = System.currentTimeMillis() - EPOCH_MILLIS;
+            long last = lastState.get();
+            long next = now > (last >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : last + 1;
+            if (lastState.compareAndSet(last, next)) {
+                return ((next >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS))
+                        | current.bits()
+                        | (next & ((1L << SEQUENCE_BITS) - 1));
+            }
+        }
+    }
+
+    public long getNodeId() {
+        return node.id();
+    }
+
+    /**
+     * Registers the process-wide generator used by code that is not managed by Spring (e.g. Hibernate).
+     *
+     * @param generator the generator to share
+     */
+    public static void install(SnowflakeIdGenerator generator) {
+        shared = generator;
+    }
+
+    /**
+     * Returns the process-wide generator. There is no fallback: a node id that is not known to be unique could
+     * silently produce duplicate ids.
+     *
+     * @return the shared generator
+     * @throws IllegalStateException if no generator was installed yet
+     */
+    public static SnowflakeIdGenerator shared() {
+        SnowflakeIdGenerator generator = shared;
+        if (generator == null) {
+            throw new IllegalStateException("No id generator installed; the node id has not been assigned yet");
+        }
+        return generator;
+    }
+
+    /**
+     * @param id                 the node id
+     * @param bits               the node id shifted into place
+     * @param leased             whether the node id is only held until the deadline
+     * @param leaseDeadlineNanos {@link System#nanoTime()} from which a leased node id may belong to another replica
+     */
+    private record Node(long id, long bits, boolean leased, long leaseDeadlineNanos) {
+
+        static Node of(long id, boolean leased, long leaseDeadlineNanos) {
+            if (id < 0 || id > MAX_NODE_ID) {
+                throw new IllegalArgumentException(
+                        String.format("Node id must be between 0 and %d but was %d", MAX_NODE_ID, id));
+            }
+            return new Node(id, id << SEQUENCE_BITS, leased, leaseDeadlineNanos);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+-- Deliveries due further ahead than the scheduler's horizon are written as SCHEDULED and spread over shards
+-- (hash of user_id). The replica leasing a shard moves its rows to PENDING shortly before they become due.
+ALTER TABLE notification_outbox ADD COLUMN schedule_shard SMALLINT;
+
+-- Promotion query: status = 'SCHEDULED' AND schedule_shard = ? AND next_attempt_at < :horizon
+CREATE INDEX idx_notification_outbox_scheduled ON notification_outbox (schedule_shard, next_attempt_at)
+    WHERE status = 'SCHEDULED';
+
+-- One row per shard, created by the scheduler; owner holds the shard until lease_until (database clock)
+CREATE TABLE scheduler_shard_leases
+(
+    shard       SMALLINT PRIMARY KEY,
+    owner       VARCHAR(255),
+    lease_until TIMESTAMP(6) NOT NULL DEFAULT '-infinity'
+);
+
+-- Live schedulers, renewed every run; the shards are divided evenly among them
+CREATE TABLE scheduler_members
+(
+    owner       VARCHAR(255) PRIMARY KEY,
+    alive_until TIMESTAMP(6) NOT NULL
+);
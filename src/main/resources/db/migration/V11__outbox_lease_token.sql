@@ -0,0 +1,4 @@
+-- Token of the claim currently holding an IN_FLIGHT delivery; every claim stamps a new one and lease recovery
+-- clears it. Outcomes are only written while the token still matches, so a relay whose lease expired cannot
+-- overwrite the result of the replica that took the delivery over.
+ALTER TABLE notification_outbox ADD COLUMN lease_token BIGINT;
@@ -0,0 +1,12 @@
+-- Node ids of the snowflake id generator, leased by replicas that have no node id configured. A replica holds
+-- node_id until lease_until (database clock) and renews it well before; an expired node id may be taken over.
+-- Configured and leased node ids must not be mixed within one deployment.
+CREATE TABLE id_generator_nodes
+(
+    node_id     SMALLINT PRIMARY KEY,
+    owner       VARCHAR(255),
+    lease_until TIMESTAMP(6) NOT NULL DEFAULT '-infinity'
+);
+
+INSERT INTO id_generator_nodes (node_id)
+SELECT generate_series(0, 1023);
@@ -0,0 +1,3 @@
+-- Type of the notification a delivery belongs to, so the relay can honour opt-outs of a notification type made
+-- after the delivery was planned. Rows written before this column existed keep NULL and are only checked by channel.
+ALTER TABLE notification_outbox ADD COLUMN notification_type VARCHAR(255);
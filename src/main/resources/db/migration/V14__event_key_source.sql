@@ -0,0 +1,20 @@
+-- Event keys identify the consumed event by its source (SENDER, RECEIVER or REWARD) instead of the notification
+-- type. A transfer to oneself produces a SENDER and a RECEIVER notification of the same type for the same user,
+-- and keying on the type stored only the first of them.
+ALTER TABLE notification_event_keys ADD COLUMN event_source VARCHAR(16);
+
+-- Existing keys: rewards have their own type; transaction notifications are told apart by the subject their
+-- template rendered, and anything unrecognised is attributed to the sender.
+UPDATE notification_event_keys k
+SET event_source = CASE
+                       WHEN k.type = 'REWARD_GRANTED' THEN 'REWARD'
+                       WHEN EXISTS (SELECT 1
+                                    FROM central_notifications n
+                                    WHERE n.notification_id = k.notification_id
+                                      AND n.subject LIKE 'Payment Received:%') THEN 'RECEIVER'
+                       ELSE 'SENDER'
+    END;
+
+ALTER TABLE notification_event_keys ALTER COLUMN event_source SET NOT NULL;
+ALTER TABLE notification_event_keys DROP CONSTRAINT notification_event_keys_pkey;
+ALTER TABLE notification_event_keys ADD PRIMARY KEY (transaction_id, event_source, user_id);
@@ -0,0 +1,3 @@
+-- Retention purge: terminal deliveries (SENT, FAILED, SKIPPED) ordered by age
+CREATE INDEX idx_notification_outbox_terminal ON notification_outbox (created_at)
+    WHERE status IN ('SENT', 'FAILED', 'SKIPPED');
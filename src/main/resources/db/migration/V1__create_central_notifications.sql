@@ -0,0 +1,13 @@
+-- Baseline schema as previously created by hibernate ddl-auto=update.
+-- IF NOT EXISTS keeps this a no-op on databases that already contain the table.
+CREATE TABLE IF NOT EXISTS central_notifications
+(
+    notification_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    transaction_id  VARCHAR(255) NOT NULL,
+    user_id         VARCHAR(255) NOT NULL,
+    type            VARCHAR(255) NOT NULL,
+    subject         VARCHAR(255),
+    content         TEXT,
+    channel         VARCHAR(255),
+    sent_at         TIMESTAMP(6) NOT NULL
+);
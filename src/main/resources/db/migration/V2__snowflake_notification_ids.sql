@@ -0,0 +1,5 @@
+-- Notification ids are now generated by the application (time-ordered 64-bit snowflake ids).
+-- Existing rows keep their identity-assigned ids; new ids start far above any identity value
+-- (41-bit millisecond timestamp shifted left by 22 bits), so the two ranges can never collide.
+ALTER TABLE central_notifications ALTER COLUMN notification_id DROP IDENTITY IF EXISTS;
+ALTER TABLE central_notifications ALTER COLUMN notification_id DROP DEFAULT;
@@ -0,0 +1,3 @@
+-- Serves keyset pagination of a user's history: WHERE user_id = ? ORDER BY sent_at DESC, notification_id DESC
+CREATE INDEX IF NOT EXISTS idx_central_notifications_user_sent
+    ON central_notifications (user_id, sent_at DESC, notification_id DESC);
@@ -0,0 +1,27 @@
+-- Channel deliveries written in the same transaction as their notification and drained by the outbox relay.
+-- notification_id intentionally has no foreign key so the notifications table can be restructured independently.
+CREATE TABLE notification_outbox
+(
+    delivery_id     BIGINT PRIMARY KEY,
+    notification_id BIGINT       NOT NULL,
+    transaction_id  VARCHAR(255) NOT NULL,
+    user_id         VARCHAR(255) NOT NULL,
+    channel         VARCHAR(255) NOT NULL,
+    recipient       VARCHAR(255) NOT NULL,
+    subject         VARCHAR(255),
+    body            TEXT,
+    status          VARCHAR(255) NOT NULL,
+    attempts        INTEGER      NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP(6) NOT NULL,
+    locked_until    TIMESTAMP(6),
+    created_at      TIMESTAMP(6) NOT NULL,
+    sent_at         TIMESTAMP(6),
+    latency_ms      BIGINT,
+    last_error      VARCHAR(1000)
+);
+
+-- Claim query: status = 'PENDING' AND next_attempt_at <= now() ORDER BY next_attempt_at
+CREATE INDEX idx_notification_outbox_due ON notification_outbox (next_attempt_at) WHERE status = 'PENDING';
+
+-- Lease recovery: status = 'IN_FLIGHT' AND locked_until < now()
+CREATE INDEX idx_notification_outbox_lease ON notification_outbox (locked_until) WHERE status = 'IN_FLIGHT';
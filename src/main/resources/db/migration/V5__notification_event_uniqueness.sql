@@ -0,0 +1,11 @@
+-- One notification per (transaction, type, recipient): redelivered Kafka events must not create duplicates.
+-- Remove duplicates created before this constraint existed, keeping the oldest row.
+DELETE FROM central_notifications newer
+    USING central_notifications older
+WHERE newer.transaction_id = older.transaction_id
+  AND newer.type = older.type
+  AND newer.user_id = older.user_id
+  AND newer.notification_id > older.notification_id;
+
+CREATE UNIQUE INDEX uq_central_notifications_event
+    ON central_notifications (transaction_id, type, user_id);
@@ -0,0 +1,73 @@
+-- Monthly range partitions on sent_at. Old months can then be detached/archived as a whole instead of being
+-- deleted row by row, and indexes stay proportional to a month of data.
+--
+-- Unique constraints on a partitioned table must contain the partition key, so the primary key becomes
+-- (notification_id, sent_at) and event uniqueness moves to notification_event_keys, which is written in the same
+-- statement as the notification (see NotificationBatchRepositoryImpl).
+
+ALTER TABLE central_notifications RENAME TO central_notifications_unpartitioned;
+ALTER INDEX IF EXISTS idx_central_notifications_user_sent RENAME TO idx_central_notifications_unpartitioned_user_sent;
+ALTER INDEX IF EXISTS uq_central_notifications_event RENAME TO uq_central_notifications_unpartitioned_event;
+ALTER INDEX IF EXISTS central_notifications_pkey RENAME TO central_notifications_unpartitioned_pkey;
+
+CREATE TABLE central_notifications
+(
+    notification_id BIGINT       NOT NULL,
+    transaction_id  VARCHAR(255) NOT NULL,
+    user_id         VARCHAR(255) NOT NULL,
+    type            VARCHAR(255) NOT NULL,
+    subject         VARCHAR(255),
+    content         TEXT,
+    channel         VARCHAR(255),
+    sent_at         TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (notification_id, sent_at)
+) PARTITION BY RANGE (sent_at);
+
+-- Created on every partition
+CREATE INDEX idx_central_notifications_user_sent
+    ON central_notifications (user_id, sent_at DESC, notification_id DESC);
+
+-- Catches rows outside the pre-created months; PartitionMaintenanceJob keeps it empty
+CREATE TABLE central_notifications_default PARTITION OF central_notifications DEFAULT;
+
+-- One partition per month from the oldest existing row up to three months ahead
+DO
+$$
+    DECLARE
+        month_start DATE := date_trunc('month', COALESCE((SELECT min(sent_at) FROM central_notifications_unpartitioned),
+                                                          now()))::DATE;
+        last_month  DATE := (date_trunc('month', now()) + INTERVAL '3 months')::DATE;
+    BEGIN
+        WHILE month_start <= last_month
+            LOOP
+                EXECUTE format('CREATE TABLE %I PARTITION OF central_notifications FOR VALUES FROM (%L) TO (%L)',
+                               'central_notifications_' || to_char(month_start, 'YYYY_MM'),
+                               month_start, (month_start + INTERVAL '1 month')::DATE);
+                month_start := (month_start + INTERVAL '1 month')::DATE;
+            END LOOP;
+    END
+$$;
+
+INSERT INTO central_notifications
+    (notification_id, transaction_id, user_id, type, subject, content, channel, sent_at)
+SELECT notification_id, transaction_id, user_id, type, subject, content, channel, sent_at
+FROM central_notifications_unpartitioned;
+
+CREATE TABLE notification_event_keys
+(
+    transaction_id  VARCHAR(255) NOT NULL,
+    type            VARCHAR(255) NOT NULL,
+    user_id         VARCHAR(255) NOT NULL,
+    notification_id BIGINT       NOT NULL,
+    created_at      TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (transaction_id, type, user_id)
+);
+
+-- Purge of keys that fell out of the retention window
+CREATE INDEX idx_notification_event_keys_created ON notification_event_keys (created_at);
+
+INSERT INTO notification_event_keys (transaction_id, type, user_id, notification_id, created_at)
+SELECT transaction_id, type, user_id, notification_id, sent_at
+FROM central_notifications_unpartitioned;
+
+DROP TABLE central_notifications_unpartitioned;
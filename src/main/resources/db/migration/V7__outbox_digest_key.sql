@@ -0,0 +1,7 @@
+-- Deliveries that may be coalesced into a digest carry the key of their window (user and channel).
+-- They are written with next_attempt_at at the end of the window; the relay merges all pending rows of a key.
+ALTER TABLE notification_outbox ADD COLUMN digest_key VARCHAR(255);
+
+-- Claim of the other pending rows of a digest, and rebuild of open windows at startup
+CREATE INDEX idx_notification_outbox_digest ON notification_outbox (digest_key)
+    WHERE status = 'PENDING' AND digest_key IS NOT NULL;
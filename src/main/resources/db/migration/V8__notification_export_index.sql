@@ -0,0 +1,4 @@
+-- Bulk exports across users read a time range oldest first, ordered by (sent_at, notification_id). Without this
+-- index every export of a range would sort the whole range before returning the first row.
+CREATE INDEX IF NOT EXISTS idx_central_notifications_sent
+    ON central_notifications (sent_at, notification_id);
@@ -0,0 +1,33 @@
+-- Per-user delivery preferences, mirrored in memory by PreferenceStore.
+-- channels and opted_out_types hold comma-separated enum names (NotificationChannel, NotificationType).
+-- Rows are re-read through the updated_at change feed; deleted rows disappear from memory on the next full reload.
+CREATE TABLE notification_preferences
+(
+    user_id           VARCHAR(255) PRIMARY KEY,
+    email             VARCHAR(320),
+    phone             VARCHAR(32),
+    channels          VARCHAR(64)  NOT NULL DEFAULT 'EMAIL,SMS,PUSH',
+    opted_out_types   VARCHAR(255) NOT NULL DEFAULT '',
+    opted_out         BOOLEAN      NOT NULL DEFAULT FALSE,
+    quiet_hours_start TIME,
+    quiet_hours_end   TIME,
+    time_zone         VARCHAR(64)  NOT NULL DEFAULT 'UTC',
+    updated_at        TIMESTAMP(6) NOT NULL DEFAULT clock_timestamp()
+);
+
+-- Stamped by the database so writers cannot forget it; clock_timestamp() rather than now() keeps rows of one long
+-- transaction from all sharing its start time
+CREATE FUNCTION notification_preferences_touch() RETURNS trigger AS
+$$
+BEGIN
+    NEW.updated_at := clock_timestamp();
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER notification_preferences_touch
+    BEFORE INSERT OR UPDATE ON notification_preferences
+    FOR EACH ROW EXECUTE FUNCTION notification_preferences_touch();
+
+-- Change feed: updated_at > :since
+CREATE INDEX idx_notification_preferences_updated ON notification_preferences (updated_at);
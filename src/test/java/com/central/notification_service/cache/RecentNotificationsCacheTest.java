@@ -0,0 +1,81 @@
+package com.central.notification_service.cache;
+
+import com.central.notification_service.model.Notification;
+import com.central.notification_service.model.RemoteNotificationsSavedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RecentNotificationsCacheTest {
+
+    private final Map<String, AtomicInteger> loads = new ConcurrentHashMap<>();
+    private final RecentNotificationsCache cache = cache();
+
+    @Test
+    void servesSnapshotsFromMemoryWithoutExpiring() {
+        load("alice");
+        load("alice");
+
+        assertThat(loads.get("alice")).hasValue(1);
+    }
+
+    @Test
+    void reloadsUsersThatReceivedNotificationsOnAnotherReplica() {
+        load("alice");
+        load("bob");
+
+        cache.onRemoteNotificationsSaved(RemoteNotificationsSavedEvent.of(Set.of("alice", "carol")));
+        load("alice");
+        load("bob");
+
+        assertThat(loads.get("alice")).hasValue(2);
+        assertThat(loads.get("bob")).hasValue(1);
+    }
+
+    @Test
+    void reloadsEveryoneWhenAnnouncementsWereLost() {
+        load("alice");
+        load("bob");
+
+        cache.onRemoteNotificationsSaved(RemoteNotificationsSavedEvent.lost());
+        load("alice");
+        load("bob");
+
+        assertThat(loads.get("alice")).hasValue(2);
+        assertThat(loads.get("bob")).hasValue(2);
+    }
+
+    private void load(String userId) {
+        Function<Integer, List<Notification>> loader = limit -> {
+            loads.computeIfAbsent(userId, key -> new AtomicInteger()).incrementAndGet();
+            return List.of(Notification.builder().notificationId(1L).userId(userId).sentAt(LocalDateTime.now())
+                    .build());
+        };
+        cache.get(userId, loader);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RecentNotificationsCache cache() {
+        ObjectProvider<SharedHistoryCache> sharedCache = mock(ObjectProvider.class);
+        when(sharedCache.getIfAvailable(any())).thenReturn(SharedHistoryCache.NONE);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        return new RecentNotificationsCache(new HistoryCacheProperties(), sharedCache, new SimpleMeterRegistry(),
+                transactionManager);
+    }
+}
@@ -0,0 +1,114 @@
+package com.central.notification_service.dispatch;
+
+import com.central.notification_service.model.Notification;
+import com.central.notification_service.model.NotificationType;
+import com.central.notification_service.model.OutboxDelivery;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransactionCorrelatorTest {
+
+    private static final String PARTITION = "txn-sender-events-0";
+
+    private final CorrelationProperties properties = new CorrelationProperties();
+    private final TransactionCorrelator correlator = new TransactionCorrelator(properties);
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @Test
+    void holdsARewardUntilItsTransactionNotificationCommits() {
+        correlator.advanceWatermark(PARTITION, Instant.now());
+        OutboxDelivery push = delivery(1, 10);
+
+        correlator.correlate(List.of(reward(10, "txn-1", "alice")), List.of(push));
+
+        assertThat(push.getNextAttemptAt()).isAfter(now.plus(properties.getMaxHold()).minusSeconds(1));
+        assertThat(correlator.drainReleasedDeliveries()).isEmpty();
+
+        correlator.correlate(List.of(transaction(11, "txn-1", "alice")), List.of());
+
+        assertThat(correlator.drainReleasedDeliveries()).containsExactly(1L);
+    }
+
+    @Test
+    void keepsHoldingWhenOnlyAnotherUsersNotificationCommits() {
+        correlator.advanceWatermark(PARTITION, Instant.now());
+        correlator.correlate(List.of(reward(10, "txn-1", "alice")), List.of(delivery(1, 10)));
+
+        correlator.correlate(List.of(transaction(11, "txn-1", "bob")), List.of());
+
+        assertThat(correlator.drainReleasedDeliveries()).isEmpty();
+    }
+
+    @Test
+    void releasesHeldRewardsOnceTheWatermarkPassesThem() {
+        correlator.advanceWatermark(PARTITION, Instant.now());
+        correlator.correlate(List.of(reward(10, "txn-1", "alice")), List.of(delivery(1, 10)));
+
+        correlator.advanceWatermark(PARTITION, Instant.now().plusSeconds(10));
+
+        assertThat(correlator.drainReleasedDeliveries()).containsExactly(1L);
+    }
+
+    @Test
+    void doesNotHoldARewardWhoseTransactionWasAlreadySeen() {
+        correlator.advanceWatermark(PARTITION, Instant.now());
+        correlator.correlate(List.of(transaction(11, "txn-1", "alice")), List.of());
+        OutboxDelivery push = delivery(1, 10);
+
+        correlator.correlate(List.of(reward(10, "txn-1", "alice")), List.of(push));
+
+        assertThat(push.getNextAttemptAt()).isEqualTo(now);
+    }
+
+    @Test
+    void doesNotHoldWithoutActiveTransactionPartitions() {
+        OutboxDelivery push = delivery(1, 10);
+
+        correlator.correlate(List.of(reward(10, "txn-1", "alice")), List.of(push));
+
+        assertThat(push.getNextAttemptAt()).isEqualTo(now);
+    }
+
+    @Test
+    void leavesDeferredDeliveriesAlone() {
+        correlator.advanceWatermark(PARTITION, Instant.now());
+        OutboxDelivery scheduled = delivery(1, 10);
+        scheduled.setNextAttemptAt(now.plusHours(8));
+
+        correlator.correlate(List.of(reward(10, "txn-1", "alice")), List.of(scheduled));
+
+        assertThat(scheduled.getNextAttemptAt()).isEqualTo(now.plusHours(8));
+    }
+
+    private Notification reward(long notificationId, String transactionId, String userId) {
+        return notification(notificationId, transactionId, userId, NotificationType.REWARD_GRANTED);
+    }
+
+    private Notification transaction(long notificationId, String transactionId, String userId) {
+        return notification(notificationId, transactionId, userId, NotificationType.TRANSACTION_SUCCESS);
+    }
+
+    private Notification notification(long notificationId, String transactionId, String userId,
+                                      NotificationType type) {
+        return Notification.builder()
+                .notificationId(notificationId)
+                .transactionId(transactionId)
+                .userId(userId)
+                .type(type)
+                .sentAt(now)
+                .build();
+    }
+
+    private OutboxDelivery delivery(long deliveryId, long notificationId) {
+        return OutboxDelivery.builder()
+                .deliveryId(deliveryId)
+                .notificationId(notificationId)
+                .nextAttemptAt(now)
+                .build();
+    }
+}
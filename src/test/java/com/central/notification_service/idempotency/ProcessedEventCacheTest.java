@@ -0,0 +1,71 @@
+package com.central.notification_service.idempotency;
+
+import com.central.notification_service.model.EventSource;
+import com.central.notification_service.model.Notification;
+import com.central.notification_service.utils.ServiceUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import notification.events.RewardEvent;
+import notification.events.TransactionEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProcessedEventCacheTest {
+
+    private final ProcessedEventCache cache =
+            new ProcessedEventCache(new IdempotencyProperties(), new SimpleMeterRegistry());
+
+    @Test
+    void keepsBothNotificationsOfATransferToOneself() {
+        TransactionEvent transfer = transfer("txn-1", "alice", "alice");
+        Notification sent = ServiceUtils.createNotificationFromEvent(transfer, "SENDER");
+        Notification received = ServiceUtils.createNotificationFromEvent(transfer, "RECEIVER");
+
+        assertThat(sent.getType()).isEqualTo(received.getType());
+        assertThat(sent.getEventSource()).isEqualTo(EventSource.SENDER);
+        assertThat(received.getEventSource()).isEqualTo(EventSource.RECEIVER);
+        assertThat(cache.filterUnseen(List.of(sent, received))).containsExactly(sent, received);
+    }
+
+    @Test
+    void dropsRedeliveredEvents() {
+        TransactionEvent transfer = transfer("txn-1", "alice", "bob");
+        RewardEvent reward = RewardEvent.newBuilder().setTransactionId("txn-1").setUserId("alice")
+                .setRewardValue(1.5).build();
+        List<Notification> processed = List.of(
+                ServiceUtils.createNotificationFromEvent(transfer, "SENDER"),
+                ServiceUtils.createNotificationFromEvent(transfer, "RECEIVER"),
+                ServiceUtils.createNotificationFromEvent(reward, "REWARD"));
+        cache.markProcessed(processed);
+
+        Notification newTransfer = ServiceUtils.createNotificationFromEvent(transfer("txn-2", "alice", "bob"),
+                "SENDER");
+        List<Notification> redelivered = List.of(
+                ServiceUtils.createNotificationFromEvent(transfer, "SENDER"),
+                ServiceUtils.createNotificationFromEvent(transfer, "RECEIVER"),
+                ServiceUtils.createNotificationFromEvent(reward, "REWARD"),
+                newTransfer);
+
+        assertThat(cache.filterUnseen(redelivered)).containsExactly(newTransfer);
+    }
+
+    @Test
+    void dropsRepeatsWithinABatch() {
+        TransactionEvent transfer = transfer("txn-1", "alice", "bob");
+        Notification first = ServiceUtils.createNotificationFromEvent(transfer, "SENDER");
+        Notification repeat = ServiceUtils.createNotificationFromEvent(transfer, "SENDER");
+
+        assertThat(cache.filterUnseen(List.of(first, repeat))).containsExactly(first);
+    }
+
+    private static TransactionEvent transfer(String transactionId, String senderId, String receiverId) {
+        return TransactionEvent.newBuilder()
+                .setTransactionId(transactionId)
+                .setSenderId(senderId)
+                .setReceiverId(receiverId)
+                .setAmount(25.0)
+                .build();
+    }
+}
@@ -0,0 +1,116 @@
+package com.central.notification_service.kafka;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeyOrderedProcessorTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final KeyOrderedProcessor processor = new KeyOrderedProcessor(executor, 4);
+
+    @AfterEach
+    void shutDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void returnsResultsInRecordOrder() {
+        List<ConsumerRecord<String, Long>> records = records(200, 17);
+
+        KeyOrderedProcessor.Result<Long> result = processor.process(records, ConsumerRecord::value);
+
+        assertThat(result.completed()).containsExactlyElementsOf(
+                records.stream().map(ConsumerRecord::value).toList());
+        result.throwIfFailed();
+    }
+
+    @Test
+    void keepsRecordsOfOneKeyInOrder() {
+        Map<String, Long> lastSeen = new ConcurrentHashMap<>();
+        List<ConsumerRecord<String, Long>> records = records(500, 5);
+
+        processor.process(records, consumerRecord -> {
+            Long previous = lastSeen.put(consumerRecord.key(), consumerRecord.value());
+            assertThat(previous == null || previous < consumerRecord.value()).isTrue();
+            return consumerRecord.value();
+        }).throwIfFailed();
+
+        assertThat(lastSeen).hasSize(5);
+    }
+
+    @Test
+    void skipsRecordsTheHandlerReturnsNullFor() {
+        List<ConsumerRecord<String, Long>> records = records(64, 8);
+
+        KeyOrderedProcessor.Result<Long> result = processor.process(records,
+                consumerRecord -> consumerRecord.value() % 2 == 0 ? consumerRecord.value() : null);
+
+        assertThat(result.completed()).hasSize(32).allMatch(value -> value % 2 == 0);
+    }
+
+    @Test
+    void completesOnlyThePrefixBeforeTheLowestFailedRecord() {
+        // Repeated because which lane fails first is up to the scheduler
+        for (int run = 0; run < 50; run++) {
+            List<ConsumerRecord<String, Long>> records = records(128, 16);
+            RuntimeException lowest = new IllegalStateException("record 10");
+
+            KeyOrderedProcessor.Result<Long> result = processor.process(records, consumerRecord -> {
+                if (consumerRecord.value() == 10) {
+                    throw lowest;
+                }
+                if (consumerRecord.value() == 11 || consumerRecord.value() == 90) {
+                    throw new IllegalStateException("record " + consumerRecord.value());
+                }
+                return consumerRecord.value();
+            });
+
+            assertThat(result.completed()).containsExactly(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L);
+            assertThatThrownBy(result::throwIfFailed).isInstanceOfSatisfying(BatchListenerFailedException.class,
+                    failure -> {
+                        assertThat(failure.getIndex()).isEqualTo(10);
+                        assertThat(failure.getCause()).isSameAs(lowest);
+                    });
+        }
+    }
+
+    @Test
+    void smallBatchesRunOnTheCallingThread() {
+        Thread caller = Thread.currentThread();
+        List<ConsumerRecord<String, Long>> records = records(8, 8);
+
+        KeyOrderedProcessor.Result<Long> result = processor.process(records, consumerRecord -> {
+            assertThat(Thread.currentThread()).isSameAs(caller);
+            if (consumerRecord.value() == 5) {
+                throw new IllegalArgumentException("malformed");
+            }
+            return consumerRecord.value();
+        });
+
+        assertThat(result.completed()).containsExactly(0L, 1L, 2L, 3L, 4L);
+        assertThatThrownBy(result::throwIfFailed).isInstanceOf(BatchListenerFailedException.class);
+    }
+
+    /**
+     * @return records whose value is their index, spread round-robin over {@code keys} keys
+     */
+    private static List<ConsumerRecord<String, Long>> records(int count, int keys) {
+        List<ConsumerRecord<String, Long>> records = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            records.add(new ConsumerRecord<>("txn-sender-events", 0, i, "user-" + (i % keys), (long) i));
+        }
+        return records;
+    }
+}
@@ -0,0 +1,162 @@
+package com.central.notification_service.live;
+
+import com.central.notification_service.model.Notification;
+import com.central.notification_service.model.NotificationsSavedEvent;
+import com.central.notification_service.model.RemoteNotificationsSavedEvent;
+import com.central.notification_service.repository.NotificationRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import tools.jackson.databind.json.JsonMapper;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class LiveFeedBroadcasterTest {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final LiveFeedHub liveFeedHub = mock(LiveFeedHub.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final NotificationRepository notificationRepository = mock(NotificationRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+
+    private final LiveFeedBroadcaster sender = broadcaster();
+    private final LiveFeedBroadcaster receiver = broadcaster();
+
+    @Test
+    void splitsLargeBatchesIntoPayloadsPostgresAccepts() {
+        List<Notification> batch = new ArrayList<>();
+        for (long id = 1; id <= 1000; id++) {
+            batch.add(notification(id, UUID.randomUUID().toString()));
+        }
+
+        List<String> payloads = notify(batch);
+
+        assertThat(payloads).hasSizeGreaterThan(1)
+                .allSatisfy(payload -> assertThat(payload.getBytes(StandardCharsets.UTF_8).length).isLessThan(8000));
+        List<Long> sentIds = new ArrayList<>();
+        for (String payload : payloads) {
+            for (Payload.Entry entry : jsonMapper.readValue(payload, Payload.class).notifications()) {
+                sentIds.add(entry.notificationId());
+            }
+        }
+        assertThat(sentIds).containsExactlyElementsOf(batch.stream().map(Notification::getNotificationId).toList());
+    }
+
+    @Test
+    void sendsSmallBatchesAsOneMessage() {
+        assertThat(notify(List.of(notification(1, "alice"), notification(2, "bob")))).hasSize(1);
+    }
+
+    @Test
+    void skipsItsOwnMessages() {
+        when(liveFeedHub.hasSubscribers(any())).thenReturn(true);
+        String payload = notify(List.of(notification(1, "alice"))).getFirst();
+
+        sender.receive(payload);
+
+        verifyNoInteractions(notificationRepository, eventPublisher);
+        verify(liveFeedHub, never()).publish(any());
+    }
+
+    @Test
+    void loadsOnlyNotificationsOfUsersSubscribedOnThisNode() {
+        when(liveFeedHub.hasSubscribers("alice")).thenReturn(true);
+        Notification second = notification(3, "alice");
+        Notification first = notification(1, "alice");
+        when(notificationRepository.findAllById(List.of(1L, 3L))).thenReturn(List.of(second, first));
+        String payload = notify(List.of(first, notification(2, "bob"), second)).getFirst();
+
+        receiver.receive(payload);
+
+        verify(notificationRepository).findAllById(List.of(1L, 3L));
+        verify(transactionManager).getTransaction(any());
+        verify(liveFeedHub).publish(List.of(first, second));
+        verify(liveFeedHub, never()).reportGap();
+    }
+
+    @Test
+    void ignoresMessagesWithoutLocalSubscribers() {
+        String payload = notify(List.of(notification(1, "alice"))).getFirst();
+
+        receiver.receive(payload);
+
+        verifyNoInteractions(notificationRepository);
+    }
+
+    @Test
+    void announcesEveryUserOfAMessageFromAnotherNode() {
+        when(liveFeedHub.hasSubscribers("alice")).thenReturn(true);
+        when(notificationRepository.findAllById(anyIterable())).thenReturn(List.of(notification(1, "alice")));
+        String payload = notify(List.of(notification(1, "alice"), notification(2, "bob"))).getFirst();
+
+        receiver.receive(payload);
+
+        verify(eventPublisher).publishEvent(RemoteNotificationsSavedEvent.of(Set.of("alice", "bob")));
+    }
+
+    @Test
+    void reportsAGapWhenNotificationsCannotBeFound() {
+        when(liveFeedHub.hasSubscribers("alice")).thenReturn(true);
+        Notification found = notification(1, "alice");
+        when(notificationRepository.findAllById(anyIterable())).thenReturn(List.of(found));
+        String payload = notify(List.of(found, notification(2, "alice"))).getFirst();
+
+        receiver.receive(payload);
+
+        verify(liveFeedHub).publish(List.of(found));
+        verify(liveFeedHub).reportGap();
+    }
+
+    @Test
+    void reportsAGapForUnreadableMessages() {
+        receiver.receive("{not json");
+
+        verify(liveFeedHub).reportGap();
+        verify(eventPublisher).publishEvent(RemoteNotificationsSavedEvent.lost());
+    }
+
+    private List<String> notify(List<Notification> notifications) {
+        sender.onNotificationsSaved(new NotificationsSavedEvent(notifications));
+        ArgumentCaptor<String> payloads = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, atLeastOnce()).queryForObject(eq("SELECT pg_notify(?, ?)"), eq(Object.class),
+                eq("live_feed"), payloads.capture());
+        return payloads.getAllValues();
+    }
+
+    private LiveFeedBroadcaster broadcaster() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        return new LiveFeedBroadcaster(liveFeedHub, new LiveFeedProperties(), jdbcTemplate, mock(DataSource.class),
+                notificationRepository, transactionManager, mock(ExecutorService.class), jsonMapper, eventPublisher);
+    }
+
+    private static Notification notification(long notificationId, String userId) {
+        return Notification.builder().notificationId(notificationId).userId(userId).build();
+    }
+
+    private record Payload(String origin, List<Entry> notifications) {
+
+        private record Entry(String userId, long notificationId) {
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.central.notification_service.live;
+
+import com.central.notification_service.metrics.NotificationMetrics;
+import com.central.notification_service.model.Notification;
+import com.central.notification_service.model.NotificationChannel;
+import com.central.notification_service.model.NotificationType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class LiveFeedHubTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LiveFeedProperties properties = new LiveFeedProperties();
+    // Writers are never started, so nothing drains the subscribers' buffers
+    private final LiveFeedHub hub = new LiveFeedHub(mock(ExecutorService.class), properties,
+            new NotificationMetrics(meterRegistry), JsonMapper.builder().build());
+
+    @Test
+    void dropsTheOldestEventsOnceASubscribersBufferIsFull() {
+        properties.setBufferSize(4);
+        assertThat(hub.subscribe("alice")).isNotNull();
+
+        hub.publish(notifications("alice", 7));
+
+        assertThat(droppedEvents()).isEqualTo(3);
+    }
+
+    @Test
+    void countsDropsPerSubscriber() {
+        properties.setBufferSize(4);
+        hub.subscribe("alice");
+        hub.subscribe("alice");
+
+        hub.publish(notifications("alice", 5));
+
+        assertThat(droppedEvents()).isEqualTo(2);
+    }
+
+    @Test
+    void leavesOtherUsersBuffersAlone() {
+        properties.setBufferSize(4);
+        hub.subscribe("alice");
+        hub.subscribe("bob");
+
+        hub.publish(notifications("alice", 4));
+        hub.publish(notifications("bob", 2));
+        hub.publish(notifications("carol", 50));
+
+        assertThat(droppedEvents()).isZero();
+        assertThat(hub.hasSubscribers("alice")).isTrue();
+        assertThat(hub.hasSubscribers("carol")).isFalse();
+    }
+
+    @Test
+    void reportingAGapDoesNotDropBufferedEvents() {
+        properties.setBufferSize(4);
+        hub.subscribe("alice");
+        hub.publish(notifications("alice", 4));
+
+        hub.reportGap();
+
+        assertThat(droppedEvents()).isZero();
+    }
+
+    @Test
+    void rejectsSubscriptionsBeyondTheLimits() {
+        properties.setMaxSubscribers(3);
+        properties.setMaxSubscribersPerUser(2);
+
+        assertThat(hub.subscribe("alice")).isNotNull();
+        assertThat(hub.subscribe("alice")).isNotNull();
+        assertThat(hub.subscribe("alice")).isNull();
+        assertThat(hub.subscribe("bob")).isNotNull();
+        assertThat(hub.subscribe("carol")).isNull();
+        assertThat(meterRegistry.get("notification.live.subscribers").gauge().value()).isEqualTo(3);
+    }
+
+    @Test
+    void rejectsSubscriptionsWhileDisabled() {
+        properties.setEnabled(false);
+
+        assertThat(hub.subscribe("alice")).isNull();
+        assertThat(hub.hasSubscribers("alice")).isFalse();
+    }
+
+    private double droppedEvents() {
+        return meterRegistry.get("notification.live.dropped").counter().count();
+    }
+
+    private static List<Notification> notifications(String userId, int count) {
+        List<Notification> notifications = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            notifications.add(Notification.builder()
+                    .notificationId(1000L + i)
+                    .transactionId("txn-" + i)
+                    .userId(userId)
+                    .type(NotificationType.TRANSACTION_SUCCESS)
+                    .subject("Payment Received: $10.00 Credited to Your Account")
+                    .content("Dear Valued Customer")
+                    .channel(NotificationChannel.EMAIL)
+                    .sentAt(LocalDateTime.now())
+                    .build());
+        }
+        return notifications;
+    }
+}
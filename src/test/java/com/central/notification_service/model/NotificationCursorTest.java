@@ -0,0 +1,57 @@
+package com.central.notification_service.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NotificationCursorTest {
+
+    @Test
+    void decodesWhatItEncodes() {
+        NotificationCursor cursor = new NotificationCursor(LocalDateTime.of(2025, 3, 9, 14, 5, 7, 123_456_789),
+                Long.MAX_VALUE);
+
+        assertThat(NotificationCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void pointsAfterTheLastNotificationOfAPage() {
+        Notification notification = Notification.builder()
+                .notificationId(42L)
+                .sentAt(LocalDateTime.of(2025, 3, 9, 14, 5))
+                .build();
+
+        NotificationCursor cursor = NotificationCursor.decode(NotificationCursor.after(notification).encode());
+
+        assertThat(cursor.notificationId()).isEqualTo(42L);
+        assertThat(cursor.sentAt()).isEqualTo(notification.getSentAt());
+    }
+
+    @Test
+    void tokensAreUrlSafe() {
+        String token = new NotificationCursor(LocalDateTime.of(2025, 12, 31, 23, 59, 59), 1L << 62).encode();
+
+        assertThat(token).doesNotContain("+", "/", "=");
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        assertThatThrownBy(() -> NotificationCursor.decode("not a cursor!"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> NotificationCursor.decode(encode("2025-03-09T14:05")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> NotificationCursor.decode(encode("yesterday|42")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> NotificationCursor.decode(encode("2025-03-09T14:05|forty-two")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
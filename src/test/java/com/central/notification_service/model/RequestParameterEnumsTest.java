@@ -0,0 +1,36 @@
+package com.central.notification_service.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestParameterEnumsTest {
+
+    @Test
+    void parsesFiltersCaseInsensitively() {
+        assertThat(NotificationType.of("reward_granted")).isEqualTo(NotificationType.REWARD_GRANTED);
+        assertThat(NotificationType.of(" Transaction_Success ")).isEqualTo(NotificationType.TRANSACTION_SUCCESS);
+        assertThat(NotificationChannel.of("push")).isEqualTo(NotificationChannel.PUSH);
+        assertThat(NotificationChannel.of("Email")).isEqualTo(NotificationChannel.EMAIL);
+    }
+
+    @Test
+    void treatsMissingFiltersAsNone() {
+        assertThat(NotificationType.of(null)).isNull();
+        assertThat(NotificationType.of(" ")).isNull();
+        assertThat(NotificationChannel.of(null)).isNull();
+        assertThat(NotificationChannel.of("")).isNull();
+    }
+
+    @Test
+    void namesTheAllowedValuesWhenRejectingAFilter() {
+        assertThatThrownBy(() -> NotificationType.of("REWARD"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("REWARD")
+                .hasMessageContaining("TRANSACTION_SUCCESS, REWARD_GRANTED or TRANSACTION_FAILED");
+        assertThatThrownBy(() -> NotificationChannel.of("fax"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("EMAIL, SMS or PUSH");
+    }
+}
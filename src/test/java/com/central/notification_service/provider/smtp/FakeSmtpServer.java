@@ -0,0 +1,110 @@
+package com.central.notification_service.provider.smtp;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Minimal in-process SMTP server that accepts every message and discards it. Understands the commands Jakarta
+ * Mail sends without authentication (EHLO/HELO, MAIL, RCPT, DATA, RSET, NOOP, QUIT).
+ *
+ * <p>Loopback connections have practically no latency, which would hide the cost of connection setup, so every
+ * reply can be delayed by a simulated round trip time.</p>
+ */
+public final class FakeSmtpServer implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final long roundTripMillis;
+    private final AtomicLong messages = new AtomicLong();
+    private final AtomicLong connections = new AtomicLong();
+
+    private FakeSmtpServer(long roundTripMillis) throws IOException {
+        this.serverSocket = new ServerSocket(0, 256, InetAddress.getLoopbackAddress());
+        this.roundTripMillis = roundTripMillis;
+        Thread.ofPlatform().name("fake-smtp-acceptor").daemon().start(this::acceptLoop);
+    }
+
+    /**
+     * @param roundTripMillis delay before every reply
+     * @return a running server on an ephemeral loopback port
+     */
+    public static FakeSmtpServer start(long roundTripMillis) throws IOException {
+        return new FakeSmtpServer(roundTripMillis);
+    }
+
+    public int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    public long messages() {
+        return messages.get();
+    }
+
+    public long connections() {
+        return connections.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.incrementAndGet();
+                Thread.ofVirtual().start(() -> serve(socket));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(
+                     new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             OutputStream out = socket.getOutputStream()) {
+            reply(out, "220 localhost fake ESMTP");
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() < 4 ? line : line.substring(0, 4).toUpperCase(Locale.ROOT);
+                switch (command) {
+                    case "EHLO" -> reply(out, "250-localhost\r\n250-8BITMIME\r\n250 SIZE 10485760");
+                    case "HELO", "MAIL", "RCPT", "RSET", "NOOP" -> reply(out, "250 OK");
+                    case "DATA" -> {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            // Message content is discarded
+                        }
+                        messages.incrementAndGet();
+                        reply(out, "250 OK queued");
+                    }
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "502 Command not implemented");
+                }
+            }
+        } catch (IOException | InterruptedException e) {
+            // Client went away
+        }
+    }
+
+    private void reply(OutputStream out, String reply) throws IOException, InterruptedException {
+        if (roundTripMillis > 0) {
+            Thread.sleep(roundTripMillis);
+        }
+        out.write((reply + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+}
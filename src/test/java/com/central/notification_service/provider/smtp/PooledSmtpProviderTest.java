@@ -0,0 +1,120 @@
+package com.central.notification_service.provider.smtp;
+
+import com.central.notification_service.provider.OutboundMessage;
+import com.central.notification_service.provider.SendResult;
+import jakarta.mail.MessagingException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PooledSmtpProviderTest {
+
+    private FakeSmtpServer server;
+    private PooledSmtpProvider provider;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = FakeSmtpServer.start(0);
+    }
+
+    @AfterEach
+    void stop() throws Exception {
+        if (provider != null) {
+            provider.close();
+        }
+        server.close();
+    }
+
+    @Test
+    void reusesThePooledConnectionAcrossBatches() throws Exception {
+        provider = new PooledSmtpProvider(properties(server.port(), 1, 100));
+
+        assertThat(provider.sendBatch(messages(3))).allMatch(SendResult::sent);
+        assertThat(provider.sendBatch(messages(3))).allMatch(SendResult::sent);
+
+        assertThat(server.messages()).isEqualTo(6);
+        assertThat(server.connections()).isEqualTo(1);
+    }
+
+    @Test
+    void replacingAnExhaustedConnectionGivesItsPermitBack() throws Exception {
+        // With a single permit, a permit kept by a replaced connection would fail every later borrow
+        provider = new PooledSmtpProvider(properties(server.port(), 1, 2));
+
+        assertThat(provider.sendBatch(messages(5))).allMatch(SendResult::sent);
+        provider.send(messages(1).get(0));
+
+        assertThat(server.messages()).isEqualTo(6);
+        assertThat(server.connections()).isEqualTo(3);
+    }
+
+    @Test
+    void failedConnectGivesItsPermitBack() throws Exception {
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            closedPort = socket.getLocalPort();
+        }
+        provider = new PooledSmtpProvider(properties(closedPort, 1, 100));
+        OutboundMessage message = messages(1).get(0);
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> provider.send(message))
+                    .isInstanceOf(MessagingException.class)
+                    .hasMessageNotContaining("No SMTP connection available");
+        }
+    }
+
+    @Test
+    void opensNoMoreConnectionsThanThePoolSize() throws Exception {
+        provider = new PooledSmtpProvider(properties(server.port(), 2, 1000));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<SendResult>>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> provider.sendBatch(messages(10))));
+            }
+            for (Future<List<SendResult>> future : futures) {
+                assertThat(future.get(30, TimeUnit.SECONDS)).allMatch(SendResult::sent);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(server.messages()).isEqualTo(80);
+        assertThat(server.connections()).isLessThanOrEqualTo(2);
+    }
+
+    private static SmtpProperties properties(int port, int poolSize, int maxMessagesPerConnection) {
+        SmtpProperties properties = new SmtpProperties();
+        properties.setHost("127.0.0.1");
+        properties.setPort(port);
+        properties.setPoolSize(poolSize);
+        properties.setMaxMessagesPerConnection(maxMessagesPerConnection);
+        properties.setBorrowTimeout(Duration.ofSeconds(2));
+        properties.setConnectionTimeout(Duration.ofSeconds(2));
+        properties.setTimeout(Duration.ofSeconds(5));
+        return properties;
+    }
+
+    private static List<OutboundMessage> messages(int count) {
+        List<OutboundMessage> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            messages.add(new OutboundMessage("user" + i + "@example.com", "Payment received",
+                    "You received 250.00 from user " + i + ".", "txn-" + i));
+        }
+        return messages;
+    }
+}
@@ -0,0 +1,63 @@
+package com.central.notification_service.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void grantsTheBurstRightAwayAndRejectsTheNextPermit() {
+        TokenBucket bucket = new TokenBucket(1, 3);
+
+        assertThat(bucket.reserve(0)).isZero();
+        assertThat(bucket.reserve(0)).isZero();
+        assertThat(bucket.reserve(0)).isZero();
+        assertThat(bucket.reserve(0)).isEqualTo(-1);
+    }
+
+    @Test
+    void reservesPermitsBeyondTheBurstOneIntervalApart() {
+        TokenBucket bucket = new TokenBucket(1, 1);
+
+        assertThat(bucket.reserve(0)).isZero();
+        long first = bucket.reserve(10 * SECOND);
+        long second = bucket.reserve(10 * SECOND);
+
+        assertThat(first).isBetween(SECOND / 2, SECOND);
+        assertThat(second - first).isBetween(SECOND / 2, SECOND + SECOND / 2);
+    }
+
+    @Test
+    void rejectedReservationKeepsNoPlaceInLine() {
+        TokenBucket bucket = new TokenBucket(1, 1);
+        bucket.reserve(0);
+
+        assertThat(bucket.reserve(SECOND / 10)).isEqualTo(-1);
+        assertThat(bucket.reserve(SECOND / 10)).isEqualTo(-1);
+        assertThat(bucket.reserve(10 * SECOND)).isLessThanOrEqualTo(SECOND);
+    }
+
+    @Test
+    void reconfiguredRateAppliesToTheNextReservation() {
+        TokenBucket bucket = new TokenBucket(1, 1);
+        bucket.reserve(0);
+
+        bucket.reconfigure(1000, 10);
+
+        assertThat(bucket.reserve(0)).isZero();
+        assertThat(bucket.getPermitsPerSecond()).isEqualTo(1000);
+        assertThat(bucket.getBurst()).isEqualTo(10);
+    }
+
+    @Test
+    void rejectsInvalidLimits() {
+        assertThatThrownBy(() -> new TokenBucket(0, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TokenBucket(1, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,103 @@
+package com.central.notification_service.repository;
+
+import com.central.notification_service.model.DeliveryOutcome;
+import com.central.notification_service.model.DeliveryStatus;
+import com.central.notification_service.model.OutboxDelivery;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class OutboxDeliveryBatchRepositoryImplTest {
+
+    private static final OutboxDelivery DELIVERY = OutboxDelivery.builder()
+            .deliveryId(11L)
+            .leaseToken(7001L)
+            .status(DeliveryStatus.IN_FLIGHT)
+            .build();
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final OutboxDeliveryBatchRepositoryImpl repository = new OutboxDeliveryBatchRepositoryImpl(jdbcTemplate);
+
+    @Test
+    void outcomesCarryTheLeaseTokenOfTheirClaim() {
+        LocalDateTime retryAt = LocalDateTime.now().plusMinutes(1);
+        RuntimeException error = new RuntimeException("timeout");
+
+        assertThat(List.of(DeliveryOutcome.sent(DELIVERY, 12),
+                DeliveryOutcome.retry(DELIVERY, retryAt, error),
+                DeliveryOutcome.failed(DELIVERY, error),
+                DeliveryOutcome.deferred(DELIVERY, retryAt),
+                DeliveryOutcome.skipped(DELIVERY, "opted out")))
+                .allSatisfy(outcome -> {
+                    assertThat(outcome.deliveryId()).isEqualTo(11L);
+                    assertThat(outcome.leaseToken()).isEqualTo(7001L);
+                });
+    }
+
+    @Test
+    void updatesOnlyRowsStillHeldByTheClaim() throws Exception {
+        repository.applyOutcomes(List.of(DeliveryOutcome.sent(DELIVERY, 12)));
+
+        PreparedStatement statement = bind();
+        String sql = capturedSql();
+
+        assertThat(sql).contains("status = 'IN_FLIGHT'").contains("lease_token = ?").contains("lease_token = NULL");
+        verify(statement).setLong(7, 11L);
+        verify(statement).setLong(8, 7001L);
+    }
+
+    @Test
+    void deferredOutcomeGivesTheAttemptBack() throws Exception {
+        repository.applyOutcomes(List.of(DeliveryOutcome.deferred(DELIVERY, LocalDateTime.now().plusSeconds(5))));
+
+        PreparedStatement statement = bind();
+
+        verify(statement).setString(1, DeliveryStatus.PENDING.name());
+        verify(statement).setInt(6, 1);
+    }
+
+    @Test
+    void attemptedOutcomeKeepsTheAttempt() throws Exception {
+        repository.applyOutcomes(List.of(DeliveryOutcome.failed(DELIVERY, new RuntimeException("rejected"))));
+
+        PreparedStatement statement = bind();
+
+        verify(statement).setString(1, DeliveryStatus.FAILED.name());
+        verify(statement).setInt(6, 0);
+    }
+
+    /**
+     * Runs the captured statement setter for the single outcome of the batch against a mock statement.
+     */
+    @SuppressWarnings("unchecked")
+    private PreparedStatement bind() throws Exception {
+        ArgumentCaptor<List<DeliveryOutcome>> outcomes = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<ParameterizedPreparedStatementSetter<DeliveryOutcome>> setter =
+                ArgumentCaptor.forClass(ParameterizedPreparedStatementSetter.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), outcomes.capture(), anyInt(), setter.capture());
+        PreparedStatement statement = mock(PreparedStatement.class);
+        setter.getValue().setValues(statement, outcomes.getValue().get(0));
+        return statement;
+    }
+
+    @SuppressWarnings("unchecked")
+    private String capturedSql() {
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).batchUpdate(sql.capture(), any(List.class), eq(1),
+                any(ParameterizedPreparedStatementSetter.class));
+        return sql.getValue();
+    }
+}
@@ -0,0 +1,76 @@
+package com.central.notification_service.retry;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TimingWheelTest {
+
+    private final TimingWheel<String> wheel = new TimingWheel<>(10, TimeUnit.MILLISECONDS, 8);
+    private final List<String> expired = new ArrayList<>();
+
+    @Test
+    void keepsValuesUntilTheirDelayHasElapsed() throws InterruptedException {
+        wheel.schedule("soon", 20, TimeUnit.MILLISECONDS);
+        wheel.schedule("later", 1, TimeUnit.HOURS);
+
+        assertThat(wheel.advance(expired::add)).isZero();
+        assertThat(wheel.size()).isEqualTo(2);
+
+        Thread.sleep(60);
+
+        assertThat(wheel.advance(expired::add)).isEqualTo(1);
+        assertThat(expired).containsExactly("soon");
+        assertThat(wheel.size()).isEqualTo(1);
+    }
+
+    @Test
+    void expiresValuesWithoutDelayOnTheNextAdvance() {
+        wheel.schedule("now", 0, TimeUnit.MILLISECONDS);
+        wheel.schedule("overdue", -5, TimeUnit.SECONDS);
+
+        assertThat(wheel.advance(expired::add)).isEqualTo(2);
+        assertThat(expired).containsExactlyInAnyOrder("now", "overdue");
+        assertThat(wheel.isEmpty()).isTrue();
+    }
+
+    @Test
+    void keepsValuesMoreThanOneRotationAheadInTheirSlot() throws InterruptedException {
+        // 8 slots of 10 ms make a rotation of 80 ms
+        wheel.schedule("next rotation", 250, TimeUnit.MILLISECONDS);
+
+        Thread.sleep(100);
+        assertThat(wheel.advance(expired::add)).isZero();
+
+        Thread.sleep(250);
+        assertThat(wheel.advance(expired::add)).isEqualTo(1);
+        assertThat(expired).containsExactly("next rotation");
+    }
+
+    @Test
+    void expiresEveryValueOnce() throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            wheel.schedule("value-" + i, i % 40, TimeUnit.MILLISECONDS);
+        }
+
+        Thread.sleep(60);
+        wheel.advance(expired::add);
+        wheel.advance(expired::add);
+
+        assertThat(expired).hasSize(100).doesNotHaveDuplicates();
+        assertThat(wheel.isEmpty()).isTrue();
+    }
+
+    @Test
+    void rejectsInvalidDimensions() {
+        assertThatThrownBy(() -> new TimingWheel<>(0, TimeUnit.MILLISECONDS, 8))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TimingWheel<>(10, TimeUnit.MILLISECONDS, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
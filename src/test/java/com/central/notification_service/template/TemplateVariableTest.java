@@ -0,0 +1,85 @@
+package com.central.notification_service.template;
+
+import com.central.notification_service.model.NotificationChannel;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TemplateVariableTest {
+
+    private static final double[] EDGE_VALUES = {
+            0.0, -0.0, 0.001, -0.001, 0.004, -0.004, 0.005, -0.005, 0.0049999, 0.015, 0.125, 0.135,
+            1.005, 1.015, 1.115, 2.675, 8.345, 10.235, 99.995, 999.995, -1.005, -2.675, 1250.0, 1750.0,
+            1e15 + 0.125, 9007199254740993.0, 1e20, -1e20, 1.7976931348623157e308, Double.MIN_VALUE,
+            Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY
+    };
+
+    @Test
+    void formatsMoneyLikeStringFormatForEdgeValues() {
+        for (double value : EDGE_VALUES) {
+            assertThat(money(value)).as("%s", value).isEqualTo(String.format(Locale.ROOT, "%.2f", value));
+        }
+    }
+
+    @Test
+    void formatsMoneyLikeStringFormatForRandomAmounts() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < 100_000; i++) {
+            // Amounts with up to four decimals hit the half-way cases that binary doubles cannot represent exactly
+            double value = random.nextLong(-100_000_000L, 100_000_000L) / 10_000.0;
+            assertThat(money(value)).as("%s", value).isEqualTo(String.format(Locale.ROOT, "%.2f", value));
+        }
+    }
+
+    @Test
+    void rendersTheSameTextAsTheFormatStringsItReplaced() {
+        LocalDateTime date = LocalDateTime.of(2025, 3, 9, 14, 5, 7, 123_456_000);
+        String isoDate = date.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        NotificationTemplate sender = NotificationTemplates.get("SENDER", NotificationChannel.EMAIL);
+        NotificationTemplate receiver = NotificationTemplates.get("RECEIVER", NotificationChannel.EMAIL);
+        NotificationTemplate reward = NotificationTemplates.get("REWARD", NotificationChannel.PUSH);
+
+        for (double amount : new double[] {0.005, 1.005, 2.675, 42.0, 1234.565}) {
+            TemplateModel toReceiver = new TemplateModel(amount, "bob", "txn-1", date, 1250.00);
+            assertThat(sender.subject().render(toReceiver))
+                    .isEqualTo(String.format(Locale.ROOT, "Transaction Processed: $%.2f Sent", amount));
+            assertThat(sender.content().render(toReceiver)).isEqualTo(String.format(Locale.ROOT,
+                    "Dear Valued Customer,  We have successfully processed your transaction.  "
+                            + "Transaction Details: - Amount: $%.2f - Recipient: %s - Transaction ID: %s "
+                            + "- Date: %s  Your current account balance is $%.2f.  "
+                            + "Thank you for choosing our service.  Best regards, The Payment Team",
+                    amount, "bob", "txn-1", isoDate, 1250.00));
+
+            TemplateModel fromSender = new TemplateModel(amount, "alice", "txn-1", date, 1750.00);
+            assertThat(receiver.subject().render(fromSender))
+                    .isEqualTo(String.format(Locale.ROOT, "Payment Received: $%.2f Credited to Your Account", amount));
+            assertThat(receiver.content().render(fromSender)).isEqualTo(String.format(Locale.ROOT,
+                    "Dear Valued Customer,  We are pleased to inform you that a payment has been credited to "
+                            + "your account.  Transaction Details: - Amount: $%.2f - Sender: %s "
+                            + "- Transaction ID: %s - Date: %s  Your current account balance is $%.2f.  "
+                            + "Thank you for being a valued customer.  Best regards, The Payment Team",
+                    amount, "alice", "txn-1", isoDate, 1750.00));
+
+            TemplateModel rewarded = new TemplateModel(amount, null, "txn-1", date, 0);
+            assertThat(reward.subject().render(rewarded)).isEqualTo("Congratulations on Your Reward!");
+            assertThat(reward.content().render(rewarded)).isEqualTo(String.format(Locale.ROOT,
+                    "Dear Valued Customer, We are delighted to inform you that you have been awarded a special "
+                            + "reward! Reward Details: - Amount: $%.2f - Transaction ID: %s - Date: %s "
+                            + "This reward is our way of showing appreciation for your continued trust in our "
+                            + "services. The reward has been credited to your account. "
+                            + "Thank you for being a valued customer. Best regards, The Rewards Team",
+                    amount, "txn-1", isoDate));
+        }
+    }
+
+    private static String money(double value) {
+        StringBuilder out = new StringBuilder();
+        TemplateVariable.appendMoney(out, value);
+        return out.toString();
+    }
+}
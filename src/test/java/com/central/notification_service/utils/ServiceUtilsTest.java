@@ -0,0 +1,35 @@
+package com.central.notification_service.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ServiceUtilsTest {
+
+    @Test
+    void datesNotificationsWithTheirEventTimeInMicroseconds() {
+        Instant eventTime = Instant.parse("2025-03-09T14:05:07.123456789Z");
+
+        LocalDateTime sentAt = ServiceUtils.sentAt(eventTime);
+
+        assertThat(sentAt).isEqualTo(LocalDateTime.ofInstant(Instant.parse("2025-03-09T14:05:07.123456Z"),
+                ZoneId.systemDefault()));
+    }
+
+    @Test
+    void datesEventsFromTheFutureOrWithoutTimestampNow() {
+        LocalDateTime before = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+
+        LocalDateTime future = ServiceUtils.sentAt(Instant.now().plusSeconds(3600));
+        LocalDateTime missing = ServiceUtils.sentAt(null);
+
+        assertThat(future).isBetween(before, LocalDateTime.now());
+        assertThat(missing).isBetween(before, LocalDateTime.now());
+        assertThat(missing.getNano() % 1000).isZero();
+    }
+}
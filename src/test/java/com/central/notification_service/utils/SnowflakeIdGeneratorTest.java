@@ -0,0 +1,84 @@
+package com.central.notification_service.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SnowflakeIdGeneratorTest {
+
+    private static final int NODE_SHIFT = 12;
+
+    @Test
+    void idsIncreaseStrictlyBeyondTheSequenceOfAMillisecond() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7);
+
+        long previous = generator.nextId();
+        // More than the 4096 ids a millisecond holds, so the sequence overflows into the next one
+        for (int i = 0; i < 100_000; i++) {
+            long id = generator.nextId();
+            assertThat(id).isGreaterThan(previous);
+            previous = id;
+        }
+    }
+
+    @Test
+    void idsAreUniqueAcrossThreads() throws Exception {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 50_000; i++) {
+                        ids.add(generator.nextId());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(ids).hasSize(200_000);
+    }
+
+    @Test
+    void idsCarryTheNodeId() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID);
+
+        assertThat((generator.nextId() >>> NODE_SHIFT) & SnowflakeIdGenerator.MAX_NODE_ID)
+                .isEqualTo(SnowflakeIdGenerator.MAX_NODE_ID);
+    }
+
+    @Test
+    void stopsOnceTheLeaseExpiredAndContinuesOnTheRenewedNodeId() {
+        SnowflakeIdGenerator generator = SnowflakeIdGenerator.leased(3, System.nanoTime() - 1);
+
+        assertThatThrownBy(generator::nextId).isInstanceOf(IllegalStateException.class);
+
+        generator.renewLease(4, System.nanoTime() + TimeUnit.MINUTES.toNanos(1));
+
+        assertThat(generator.getNodeId()).isEqualTo(4);
+        assertThat((generator.nextId() >>> NODE_SHIFT) & SnowflakeIdGenerator.MAX_NODE_ID).isEqualTo(4);
+    }
+
+    @Test
+    void rejectsNodeIdsOutOfRange() {
+        assertThatThrownBy(() -> new SnowflakeIdGenerator(-1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}